@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Compares startup time and memory of the plain JVM jar, the AOT + AppCDS build and the GraalVM native image.
+# Requires JDK 17+ and curl; the native mode also needs GraalVM (native-image on the PATH) and is skipped without.
+#
+#   scripts/compare-startup-modes.sh [runs]     # default: 5 starts per mode
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+BASE="http://localhost:$PORT"
+OUT=target/startup
+
+cd "$(dirname "$0")/.."
+mkdir -p "$OUT"
+
+mvn -q -B -DskipTests clean package
+JAR=$(ls target/*.jar | grep -v '\.original$' | head -1)
+cp "$JAR" "$OUT/jvm.jar"
+
+mvn -q -B -Pfast-startup -DskipTests package
+CDS_JAR=$(basename "$(ls target/cds/*-cds.jar | head -1)")
+
+NATIVE=
+if command -v native-image > /dev/null; then
+  mvn -q -B -Pnative -DskipTests native:compile
+  NATIVE=ui-comment
+fi
+
+# Milliseconds from launch until the first API request succeeds, and the resident set size at that point.
+# The command runs in the given directory.
+measure() {
+  local mode=$1 dir=$2
+  shift 2
+  local start pid ready rss log
+  log="$PWD/$OUT/$mode.log"
+  start=$(date +%s%N)
+  (cd "$dir" && exec "$@" --server.port="$PORT") > "$log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$BASE/api/comments?limit=1"; do sleep 0.05; done
+  ready=$((($(date +%s%N) - start) / 1000000))
+  rss=$(($(ps -o rss= -p "$pid") / 1024))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$ready $rss"
+}
+
+run_mode() {
+  local mode=$1
+  shift
+  local i result total_ms=0 total_rss=0 best_ms=
+  for ((i = 1; i <= RUNS; i++)); do
+    result=$(measure "$mode" "$@")
+    total_ms=$((total_ms + ${result% *}))
+    total_rss=$((total_rss + ${result#* }))
+    if [[ -z "$best_ms" || ${result% *} -lt $best_ms ]]; then
+      best_ms=${result% *}
+    fi
+  done
+  printf '%-8s %12s %12s %12s\n' "$mode" $((total_ms / RUNS)) "$best_ms" $((total_rss / RUNS))
+}
+
+printf '%-8s %12s %12s %12s\n' mode avg-ms best-ms rss-mb
+run_mode jvm "$OUT" java -jar jvm.jar
+# Same directory and jar path as the training run, or the JVM rejects the archive.
+run_mode cds target/cds java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar "$CDS_JAR"
+if [[ -n "$NATIVE" ]]; then
+  run_mode native target "./$NATIVE"
+else
+  echo "native   skipped (native-image not found)"
+fi
+echo "Startup logs: $OUT/<mode>.log (\"Started UiCommentApplication in ...\" is the context's own figure)"
@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Compares throughput of the default platform-thread mode and the virtual-thread mode at high concurrency.
+# Requires JDK 21+, curl and hey (https://github.com/rakyll/hey).
+#
+#   scripts/compare-thread-modes.sh [concurrency] [duration]     # defaults: 1000 30s
+set -euo pipefail
+
+CONCURRENCY=${1:-1000}
+DURATION=${2:-30s}
+PORT=${PORT:-8080}
+SEED=${SEED:-2000}
+BASE="http://localhost:$PORT"
+
+cd "$(dirname "$0")/.."
+mvn -q -B -Pvirtual-threads -DskipTests package
+JAR=$(ls target/*.jar | grep -v '\.original$' | head -1)
+
+seed() {
+  # Batches are capped at 1000 items.
+  local start
+  for ((start = 1; start <= SEED; start += 1000)); do
+    seq "$start" $((start + 999 < SEED ? start + 999 : SEED)) | while read -r i; do
+      printf '{"pageUrl":"https://example.com/p/%d","content":"load %d","positionX":%d,"positionY":%d}\n' \
+        $((i % 50)) "$i" $((i % 1000)) $((i % 700))
+    done | paste -sd, - | sed 's/^/[/; s/$/]/' \
+      | curl -sf -o /dev/null -H 'Content-Type: application/json' --data-binary @- "$BASE/api/comments/batch"
+  done
+}
+
+run_mode() {
+  local mode=$1
+  shift
+  java -jar "$JAR" --server.port="$PORT" --spring.jpa.show-sql=false "$@" > "target/load-$mode.log" 2>&1 &
+  local pid=$!
+  until curl -sf -o /dev/null "$BASE/api/comments?limit=1"; do sleep 1; done
+  seed
+  # Uncached keyset reads, so every request takes a database connection.
+  hey -z "$DURATION" -c "$CONCURRENCY" "$BASE/api/comments?limit=50" > "target/load-$mode.txt"
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  printf '%-10s %12s %12s %12s %10s\n' "$mode" \
+    "$(awk '/Requests\/sec/ {print $2}' "target/load-$mode.txt")" \
+    "$(awk '/ 50% in/ {print $3}' "target/load-$mode.txt")" \
+    "$(awk '/ 99% in/ {print $3}' "target/load-$mode.txt")" \
+    "$(awk '/\[503\]/ {print $2}' "target/load-$mode.txt")"
+}
+
+printf '%-10s %12s %12s %12s %10s\n' mode req/s p50-secs p99-secs 503s
+run_mode platform
+run_mode virtual --spring.profiles.active=virtual
+echo "Full hey reports: target/load-platform.txt, target/load-virtual.txt"
@@ -1,9 +1,36 @@
 package com.example.uicomment;
 
+import com.example.uicomment.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
-@SpringBootApplication
+/**
+ * The servlet/JPA application. The reactive variant in {@code com.example.uicomment.reactive} is a separate
+ * application on the same classpath, so its package and the R2DBC auto-configuration are left out here.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {
+        R2dbcAutoConfiguration.class,
+        R2dbcDataAutoConfiguration.class,
+        R2dbcRepositoriesAutoConfiguration.class,
+        R2dbcTransactionManagerAutoConfiguration.class
+})
+@ComponentScan(excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.example\\.uicomment\\.reactive\\..*")
+})
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class UiCommentApplication {
     public static void main(String[] args) {
         SpringApplication.run(UiCommentApplication.class, args);
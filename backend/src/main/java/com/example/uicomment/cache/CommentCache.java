@@ -0,0 +1,201 @@
+package com.example.uicomment.cache;
+
+import com.example.uicomment.datasource.ReadRouting;
+import com.example.uicomment.dto.CommentCacheStats;
+import com.example.uicomment.dto.CommentPage;
+import com.example.uicomment.dto.CommentSummary;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.repository.CollectionVersion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for single comments and per-page comment slices.
+ * <p>
+ * Both caches expire entries after a fixed TTL and are bounded by the number of comments they hold,
+ * so a few very busy pages cannot push everything else out. Writers invalidate precisely: a change to
+ * one comment drops that comment and every cached slice of its page, nothing else.
+ * <p>
+ * With read replicas, a load right after a change could fill the cache from a replica that has not replayed it
+ * yet, and the stale entry would outlive the replica's lag by the whole TTL. Loads of a page or comment changed
+ * within the last {@code app.datasource.replicas.stickiness} therefore read from the primary.
+ */
+@Component
+public class CommentCache {
+    // Marks a change to an unknown page (clear), which makes every page load fresh.
+    private static final Object ANY_PAGE = new Object();
+    // Key of the marker for all comments, kept with the page markers since any write invalidates it.
+    private static final Object ALL_PAGES = new Object();
+    // Stands in for a null page key, which Caffeine does not accept; never a real key (those are SHA-256 hex).
+    private static final String NO_PAGE = "";
+
+    private final Cache<Long, Comment> byId;
+    private final Cache<PageSliceKey, CommentPage<?>> byPage;
+    // Current generation of each page's slices; see getPage.
+    private final Cache<String, Long> pageGenerations;
+    private final AtomicLong nextGeneration = new AtomicLong();
+    // Generation every page is at least on since the last clear.
+    private volatile long clearedGeneration;
+    private final Cache<Object, CollectionVersion> pageVersions;
+    // Page keys and comment ids changed within the settle window; null without replicas.
+    private final Cache<Object, Boolean> recentChanges;
+
+    public CommentCache(long maxEntries, Duration ttl) {
+        this(maxEntries, ttl, false, Duration.ZERO);
+    }
+
+    @Autowired
+    public CommentCache(@Value("${app.cache.comments.max-entries:10000}") long maxEntries,
+                        @Value("${app.cache.comments.ttl:5m}") Duration ttl,
+                        @Value("${app.datasource.replicas.enabled:false}") boolean replicas,
+                        @Value("${app.datasource.replicas.stickiness:5s}") Duration settle) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byPage = Caffeine.newBuilder()
+                .maximumWeight(maxEntries)
+                .<PageSliceKey, CommentPage<?>>weigher((key, page) -> page.items().size() + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Kept until every slice keyed by it has expired, so a page that comes back starts on a generation
+        // none of its old slices carry.
+        this.pageGenerations = Caffeine.newBuilder()
+                .expireAfterAccess(ttl.multipliedBy(2))
+                .build();
+        this.pageVersions = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+        this.recentChanges = replicas && !settle.isZero()
+                ? Caffeine.newBuilder().expireAfterWrite(settle).<Object, Boolean>build()
+                : null;
+    }
+
+    public Optional<Comment> getById(Long id, Function<Long, Optional<Comment>> loader) {
+        // Absent comments are not cached; a null mapping result leaves no entry behind.
+        return Optional.ofNullable(byId.get(id, key -> load(key, () -> loader.apply(key)).orElse(null)));
+    }
+
+    /**
+     * Slices are keyed by item type as well, so full and summary views of the same page are cached apart.
+     * <p>
+     * They are also keyed by the page's generation, taken before the load. Evicting a page moves it to a new
+     * generation, which costs the same however many slices are cached, and a load that was still reading the old
+     * state lands under the old generation, where nobody looks for it. Old slices age out with the TTL or give
+     * way to size eviction.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CommentPage<T> getPage(String pageKey, String cursor, int limit, Class<T> itemType,
+                                      Supplier<CommentPage<T>> loader) {
+        long generation = Math.max(clearedGeneration,
+                pageGenerations.get(Objects.requireNonNullElse(pageKey, NO_PAGE), key -> 0L));
+        return (CommentPage<T>) byPage.get(new PageSliceKey(pageKey, generation, cursor, limit, itemType),
+                key -> load(pageKey, loader));
+    }
+
+    /**
+     * Change marker of a page, kept and invalidated together with the page's slices so that answering a
+     * conditional GET with 304 costs no query while the page is cached.
+     */
+    public CollectionVersion getPageVersion(String pageKey, Supplier<CollectionVersion> loader) {
+        return pageVersions.get(pageKey, key -> load(pageKey, loader));
+    }
+
+    /**
+     * Change marker of all comments. Its aggregate scans the whole table, so it is cached until the next write
+     * to any page rather than run for every conditional GET.
+     */
+    public CollectionVersion getCollectionVersion(Supplier<CollectionVersion> loader) {
+        return pageVersions.get(ALL_PAGES, key -> load(ALL_PAGES, loader));
+    }
+
+    public void evict(Comment comment) {
+        if (comment.getId() != null) {
+            byId.invalidate(comment.getId());
+            changed(comment.getId());
+        }
+        evictPage(comment.getPageKey());
+    }
+
+    /**
+     * Drops only the comment's own entry. Writers that know only the id resolve its page (see
+     * {@link #cachedPageKey}) and evict that with {@link #evictPage}.
+     */
+    public void evictById(Long id) {
+        byId.invalidate(id);
+        changed(id);
+    }
+
+    /**
+     * Page key of the comment if it is cached; a page key never changes, so a cached entry is as good as the row.
+     */
+    public Optional<String> cachedPageKey(Long id) {
+        // Through the map view, which does not count as a hit or miss.
+        return Optional.ofNullable(byId.asMap().get(id)).map(Comment::getPageKey);
+    }
+
+    public void evictPage(String pageKey) {
+        pageGenerations.put(Objects.requireNonNullElse(pageKey, NO_PAGE), nextGeneration.incrementAndGet());
+        pageVersions.invalidate(ALL_PAGES);
+        if (pageKey != null) {
+            pageVersions.invalidate(pageKey);
+            changed(pageKey);
+        }
+    }
+
+    public void clear() {
+        byId.invalidateAll();
+        clearedGeneration = nextGeneration.incrementAndGet();
+        byPage.invalidateAll();
+        pageVersions.invalidateAll();
+        changed(ANY_PAGE);
+    }
+
+    public CommentCacheStats stats() {
+        return new CommentCacheStats(counters(byId), counters(byPage));
+    }
+
+    private void changed(Object key) {
+        if (recentChanges != null) {
+            recentChanges.put(key, Boolean.TRUE);
+        }
+    }
+
+    private <T> T load(Object key, Supplier<T> loader) {
+        if (recentChanges == null) {
+            return loader.get();
+        }
+        boolean fresh = key == ALL_PAGES
+                ? !recentChanges.asMap().isEmpty()
+                : recentChanges.getIfPresent(key) != null
+                        || (key instanceof String && recentChanges.getIfPresent(ANY_PAGE) != null);
+        return fresh ? ReadRouting.onPrimary(loader) : loader.get();
+    }
+
+    private static CommentCacheStats.Counters counters(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CommentCacheStats.Counters(
+                stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+
+    private static Long idOf(Object item) {
+        return item instanceof CommentSummary summary ? summary.id() : ((Comment) item).getId();
+    }
+
+    private record PageSliceKey(String pageKey, long generation, String cursor, int limit, Class<?> itemType) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.uicomment.cluster;
+
+import com.example.uicomment.event.CommentChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wire handling shared by the bus implementations: events travel as JSON {@link EventEnvelope}s tagged with the
+ * sending node, and every node skips its own.
+ */
+abstract class AbstractCommentEventBus implements CommentEventBus {
+    private static final Logger log = LoggerFactory.getLogger(AbstractCommentEventBus.class);
+
+    private final String nodeId;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    protected AbstractCommentEventBus(String nodeId) {
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void publish(CommentChangeEvent event) {
+        String payload = encode(new EventEnvelope(nodeId, event));
+        if (payload.getBytes(StandardCharsets.UTF_8).length > maxPayloadBytes()) {
+            log.debug("Change of comment {} exceeds the bus payload limit; asking nodes to resync", event.commentId());
+            payload = resyncRequest();
+        }
+        send(payload);
+    }
+
+    // Asks the other nodes to drop what they derived from this node's changes and reload.
+    protected String resyncRequest() {
+        return encode(new EventEnvelope(nodeId, null));
+    }
+
+    protected abstract void send(String payload);
+
+    protected int maxPayloadBytes() {
+        return Integer.MAX_VALUE;
+    }
+
+    // Subclasses hand over every payload they receive, including the ones this node sent.
+    protected void receive(String payload) {
+        EventEnvelope envelope;
+        try {
+            envelope = objectMapper.readValue(payload, EventEnvelope.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable change notification", e);
+            return;
+        }
+        if (nodeId.equals(envelope.origin())) {
+            return;
+        }
+        if (envelope.event() == null) {
+            resync();
+            return;
+        }
+        CommentChangeEvent event = envelope.event().asRemote();
+        for (Listener listener : listeners) {
+            try {
+                listener.onRemoteEvent(event);
+            } catch (RuntimeException e) {
+                log.warn("Listener failed on remote change of comment {}", event.commentId(), e);
+            }
+        }
+    }
+
+    protected void resync() {
+        for (Listener listener : listeners) {
+            try {
+                listener.onResync();
+            } catch (RuntimeException e) {
+                log.warn("Listener failed to resync", e);
+            }
+        }
+    }
+
+    private String encode(EventEnvelope envelope) {
+        try {
+            return objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode change of comment "
+                    + (envelope.event() != null ? envelope.event().commentId() : null), e);
+        }
+    }
+}
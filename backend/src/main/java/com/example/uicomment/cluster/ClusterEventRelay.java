@@ -0,0 +1,85 @@
+package com.example.uicomment.cluster;
+
+import com.example.uicomment.cache.CommentCache;
+import com.example.uicomment.event.CommentChangeEvent;
+import com.example.uicomment.push.CommentPushService;
+import com.example.uicomment.search.CommentSearchService;
+import com.example.uicomment.stats.CommentStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Connects the local {@link CommentChangeEvent}s to the {@link CommentEventBus}, when one is configured.
+ * <p>
+ * Committed local changes go out on the bus. A change from another node evicts it from the local cache and is
+ * then published here as a remote event, so push, search and stats follow it like a local write. On a resync
+ * request everything derived from changes is rebuilt: the cache is cleared, counters and the search index are
+ * recounted and push subscribers are told to reload.
+ */
+@Component
+public class ClusterEventRelay implements CommentEventBus.Listener {
+    private static final Logger log = LoggerFactory.getLogger(ClusterEventRelay.class);
+
+    @Autowired(required = false)
+    private CommentEventBus eventBus;
+
+    @Autowired
+    private CommentCache commentCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CommentPushService commentPushService;
+
+    @Autowired
+    private CommentStatsService commentStatsService;
+
+    @Autowired
+    private CommentSearchService commentSearchService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (eventBus != null) {
+            eventBus.subscribe(this);
+            log.info("Node {} relaying comment changes over {}", eventBus.getNodeId(),
+                    eventBus.getClass().getSimpleName());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangeEvent event) {
+        if (eventBus == null || event.remote()) {
+            return;
+        }
+        try {
+            eventBus.publish(event);
+        } catch (RuntimeException e) {
+            // The write has committed; other nodes catch up on their next resync or cache expiry.
+            log.warn("Failed to relay change of comment {}", event.commentId(), e);
+        }
+    }
+
+    @Override
+    public void onRemoteEvent(CommentChangeEvent event) {
+        commentCache.evictById(event.commentId());
+        if (event.pageKey() != null) {
+            commentCache.evictPage(event.pageKey());
+        }
+        eventPublisher.publishEvent(event);
+    }
+
+    @Override
+    public void onResync() {
+        commentCache.clear();
+        commentPushService.resyncAll();
+        commentStatsService.reconcile();
+        commentSearchService.rebuild();
+    }
+}
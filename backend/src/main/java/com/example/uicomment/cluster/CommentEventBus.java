@@ -0,0 +1,31 @@
+package com.example.uicomment.cluster;
+
+import com.example.uicomment.event.CommentChangeEvent;
+
+/**
+ * Carries committed comment changes between backend nodes, so each node can drop cached state and fan the
+ * change out to its own push subscribers and search index. Selected with {@code app.cluster.bus}:
+ * {@code postgres} ({@link PostgresCommentEventBus}) or {@code memory} ({@link InMemoryCommentEventBus}, nodes in
+ * one JVM). Unset means a single node and no bus.
+ */
+public interface CommentEventBus {
+
+    /**
+     * Sends a change committed on this node to the other nodes. Does not block on the network; delivery is best
+     * effort and a node that misses changes is told to resync.
+     */
+    void publish(CommentChangeEvent event);
+
+    void subscribe(Listener listener);
+
+    String getNodeId();
+
+    interface Listener {
+
+        // Called with events of other nodes only, already marked remote.
+        void onRemoteEvent(CommentChangeEvent event);
+
+        // Changes of other nodes may have been missed; state derived from them should be rebuilt.
+        void onResync();
+    }
+}
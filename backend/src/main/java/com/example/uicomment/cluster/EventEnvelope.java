@@ -0,0 +1,10 @@
+package com.example.uicomment.cluster;
+
+import com.example.uicomment.event.CommentChangeEvent;
+
+/**
+ * What travels on the bus. A null {@code event} asks the other nodes to resync; it stands in for a change too
+ * large for the transport.
+ */
+record EventEnvelope(String origin, CommentChangeEvent event) {
+}
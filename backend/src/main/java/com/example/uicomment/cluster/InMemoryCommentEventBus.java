@@ -0,0 +1,67 @@
+package com.example.uicomment.cluster;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bus between application contexts of one JVM, for tests and local multi-node runs. Payloads are encoded as on
+ * the wire and delivered asynchronously, one receiver thread per node, like {@link PostgresCommentEventBus}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.bus", havingValue = "memory")
+public class InMemoryCommentEventBus extends AbstractCommentEventBus {
+    private static final Map<String, Set<InMemoryCommentEventBus>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private final ExecutorService receiver;
+
+    public InMemoryCommentEventBus(@Value("${app.cluster.channel:comment_changes}") String channel,
+                                   @Value("${app.cluster.node-id:}") String nodeId) {
+        super(nodeId);
+        this.channel = channel;
+        this.receiver = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-bus-" + getNodeId());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Joins the channel once the context is fully wired, so no event arrives at a half-built node.
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        CHANNELS.computeIfAbsent(channel, key -> ConcurrentHashMap.newKeySet()).add(this);
+    }
+
+    @Override
+    protected void send(String payload) {
+        CHANNELS.getOrDefault(channel, Set.of()).forEach(node -> node.deliver(payload));
+    }
+
+    private void deliver(String payload) {
+        try {
+            receiver.execute(() -> receive(payload));
+        } catch (RejectedExecutionException e) {
+            // The node is shutting down.
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        CHANNELS.computeIfPresent(channel, (key, nodes) -> {
+            nodes.remove(this);
+            return nodes.isEmpty() ? null : nodes;
+        });
+        receiver.shutdown();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.uicomment.cluster;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Bus over PostgreSQL {@code LISTEN/NOTIFY} on the application database; no broker to run.
+ * <p>
+ * One pooled connection is held for {@code LISTEN} and polled every {@code app.cluster.poll-interval}. Outgoing
+ * changes are queued and sent by a single thread, many per round trip. After the listening connection was lost
+ * the node resyncs, since notifications sent meanwhile are gone. Payloads are limited to 8000 bytes by PostgreSQL;
+ * a larger change is sent as a resync request instead. Notifications dropped on a full backlog or a failed send
+ * are followed by one resync request as soon as sending works again.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.bus", havingValue = "postgres")
+public class PostgresCommentEventBus extends AbstractCommentEventBus {
+    static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int MAX_SEND_BATCH = 200;
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final Logger log = LoggerFactory.getLogger(PostgresCommentEventBus.class);
+
+    private final String channel;
+    private final int pollMillis;
+    private final long reconnectDelayMillis;
+    private final BlockingQueue<String> outbox;
+    private final ExecutorService listener;
+    private final ExecutorService sender;
+    private final AtomicBoolean dropped = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    @Autowired
+    private DataSource dataSource;
+
+    public PostgresCommentEventBus(@Value("${app.cluster.channel:comment_changes}") String channel,
+                                   @Value("${app.cluster.node-id:}") String nodeId,
+                                   @Value("${app.cluster.poll-interval:500ms}") Duration pollInterval,
+                                   @Value("${app.cluster.reconnect-delay:5s}") Duration reconnectDelay,
+                                   @Value("${app.cluster.max-pending:10000}") int maxPending) {
+        super(nodeId);
+        // LISTEN takes an identifier, not a bind parameter.
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid channel name: " + channel);
+        }
+        this.channel = channel;
+        this.pollMillis = (int) pollInterval.toMillis();
+        this.reconnectDelayMillis = reconnectDelay.toMillis();
+        this.outbox = new LinkedBlockingQueue<>(maxPending);
+        this.listener = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-bus-listen");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sender = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-bus-notify");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listener.execute(this::listen);
+        sender.execute(this::sendQueued);
+    }
+
+    @Override
+    protected void send(String payload) {
+        if (!outbox.offer(payload)) {
+            dropped.set(true);
+            log.warn("Change bus backlog full; dropping a notification");
+        }
+    }
+
+    @Override
+    protected int maxPayloadBytes() {
+        return MAX_PAYLOAD_BYTES;
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                if (connectedBefore) {
+                    log.info("Listening on {} again; resyncing", channel);
+                    resync();
+                }
+                connectedBefore = true;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost the {} listener connection; retrying in {} ms", channel, reconnectDelayMillis, e);
+                if (!pause(reconnectDelayMillis)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void sendQueued() {
+        List<String> batch = new ArrayList<>();
+        while (running || !outbox.isEmpty()) {
+            try {
+                String first = outbox.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    outbox.drainTo(batch, MAX_SEND_BATCH - 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // Peers keep stale state for what was dropped until they resync; ask them once, after the rest.
+            if (dropped.getAndSet(false)) {
+                batch.add(resyncRequest());
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                notify(batch);
+            } catch (SQLException e) {
+                dropped.set(true);
+                log.warn("Failed to send {} change notifications", batch.size(), e);
+                if (!pause(reconnectDelayMillis)) {
+                    return;
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    // One statement per batch; notifications of one transaction are delivered in order.
+    private void notify(List<String> payloads) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "select pg_notify(?, payload) from unnest(?) as payload")) {
+            statement.setString(1, channel);
+            statement.setArray(2, connection.createArrayOf("text", payloads.toArray()));
+            statement.execute();
+        }
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        listener.shutdownNow();
+        // Queued notifications still go out while the pool is open.
+        sender.shutdown();
+        sender.awaitTermination(reconnectDelayMillis, TimeUnit.MILLISECONDS);
+    }
+}
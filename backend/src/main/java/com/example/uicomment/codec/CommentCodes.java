@@ -0,0 +1,30 @@
+package com.example.uicomment.codec;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Integer codes for the enum-like comment fields in binary responses: a value's code is its index in the list.
+ * Codes are part of the wire format, so new values go at the end. Values outside the lists travel as strings.
+ * The frontend keeps the same lists (shared/cbor.ts).
+ */
+public final class CommentCodes {
+    public static final List<String> STATUSES = List.of("OPEN", "IN_PROGRESS", "RESOLVED", "CLOSED");
+    public static final List<String> PRIORITIES = List.of("LOW", "MEDIUM", "HIGH", "CRITICAL");
+    public static final List<String> CATEGORIES = List.of("BUG", "FEATURE", "IMPROVEMENT", "QUESTION", "GENERAL");
+
+    private static final Map<String, List<String>> BY_PROPERTY = Map.of(
+            "status", STATUSES,
+            "priority", PRIORITIES,
+            "category", CATEGORIES);
+
+    private CommentCodes() {
+    }
+
+    /**
+     * The code list of a property, or null if the property is not coded.
+     */
+    public static List<String> forProperty(String name) {
+        return BY_PROPERTY.get(name);
+    }
+}
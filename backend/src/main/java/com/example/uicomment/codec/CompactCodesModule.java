@@ -0,0 +1,113 @@
+package com.example.uicomment.codec;
+
+import com.example.uicomment.dto.CommentSummary;
+import com.example.uicomment.dto.FacetCount;
+import com.example.uicomment.model.Comment;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes the {@link CommentCodes} fields of comments, summaries and facet counts as integer codes, and reads
+ * comments with either codes or names. Only registered on the binary mapper; JSON keeps the names.
+ */
+public class CompactCodesModule extends SimpleModule {
+    private static final Set<Class<?>> CODED_TYPES = Set.of(Comment.class, CommentSummary.class, FacetCount.class);
+
+    public CompactCodesModule() {
+        super("CompactCodesModule");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                             List<BeanPropertyWriter> properties) {
+                if (CODED_TYPES.contains(beanDesc.getBeanClass())) {
+                    for (BeanPropertyWriter property : properties) {
+                        List<String> codes = CommentCodes.forProperty(property.getName());
+                        if (codes != null) {
+                            property.assignSerializer(new CodeSerializer(codes));
+                        }
+                    }
+                }
+                return properties;
+            }
+        });
+        // Request bodies are comments only; the records above are never read.
+        setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+                                                         BeanDeserializerBuilder builder) {
+                if (beanDesc.getBeanClass() == Comment.class) {
+                    List<SettableBeanProperty> properties = new ArrayList<>();
+                    builder.getProperties().forEachRemaining(properties::add);
+                    for (SettableBeanProperty property : properties) {
+                        List<String> codes = CommentCodes.forProperty(property.getName());
+                        if (codes != null) {
+                            builder.addOrReplaceProperty(property.withValueDeserializer(new CodeDeserializer(codes)),
+                                    true);
+                        }
+                    }
+                }
+                return builder;
+            }
+        });
+    }
+
+    static final class CodeSerializer extends StdSerializer<Object> {
+        private final List<String> codes;
+
+        CodeSerializer(List<String> codes) {
+            super(Object.class);
+            this.codes = codes;
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            int code = codes.indexOf(value);
+            if (code >= 0) {
+                gen.writeNumber(code);
+            } else {
+                gen.writeString(value.toString());
+            }
+        }
+    }
+
+    static final class CodeDeserializer extends StdDeserializer<String> {
+        private final List<String> codes;
+
+        CodeDeserializer(List<String> codes) {
+            super(String.class);
+            this.codes = codes;
+        }
+
+        @Override
+        public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                int code = p.getIntValue();
+                if (code < 0 || code >= codes.size()) {
+                    return (String) ctxt.handleWeirdNumberValue(String.class, code, "no value with code %d", code);
+                }
+                return codes.get(code);
+            }
+            return StringDeserializer.instance.deserialize(p, ctxt);
+        }
+    }
+}
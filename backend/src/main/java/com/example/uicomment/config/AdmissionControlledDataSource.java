@@ -0,0 +1,109 @@
+package com.example.uicomment.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Takes a permit for every connection checked out and returns it when the connection is closed, however long
+ * that is after the request that opened it. Waits longer than {@code maxWait} fail with
+ * {@link DbAdmissionRejectedException}.
+ */
+class AdmissionControlledDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+
+    AdmissionControlledDataSource(DataSource target, int permits, Duration maxWait) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return checkedOut(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return checkedOut(() -> super.getConnection(username, password));
+    }
+
+    /**
+     * Closes the pool underneath, which the container and {@code ReplicaPool} would otherwise no longer see.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            throw new DbAdmissionRejectedException();
+        }
+    }
+
+    private Connection checkedOut(Checkout checkout) throws SQLException {
+        Connection target;
+        try {
+            target = checkout.connect();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            try {
+                                target.close();
+                            } finally {
+                                // Closing twice is allowed and must not hand out a second permit.
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        default:
+                            try {
+                                return method.invoke(target, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface Checkout {
+        Connection connect() throws SQLException;
+    }
+}
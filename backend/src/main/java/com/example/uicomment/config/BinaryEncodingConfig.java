@@ -0,0 +1,46 @@
+package com.example.uicomment.config;
+
+import com.example.uicomment.codec.CompactCodesModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * CBOR ({@code application/cbor}) for every JSON endpoint, chosen with {@code Accept}; request bodies may use it
+ * too. Status, priority and category travel as integer codes ({@link com.example.uicomment.codec.CommentCodes})
+ * and dates as epoch milliseconds.
+ */
+@Configuration
+public class BinaryEncodingConfig {
+
+    @Bean
+    public WebMvcConfigurer cborConverterConfigurer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = cborMapper(builder);
+        return new WebMvcConfigurer() {
+            // Appended, so JSON stays the answer to Accept: */* and to requests without Accept.
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper));
+            }
+        };
+    }
+
+    /**
+     * The binary mapper: Spring Boot's Jackson settings on a CBOR factory, plus the compact encodings.
+     */
+    public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .build();
+        return mapper.registerModule(new CompactCodesModule());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.uicomment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Admission control at connection checkout: with virtual threads, callers beyond the pool size queue for a
+ * bounded time and are then shed with a 503 (see {@link DbAdmissionExceptionHandler}) instead of piling up on the
+ * pool. Cache hits and other work that never checks out a connection are not gated at all.
+ * <p>
+ * Every Hikari pool bean is wrapped with one permit per connection; replica pools are not beans and are gated
+ * through {@link #gate}. A connection held for good, such as the one listening for PostgreSQL notifications,
+ * holds its permit for good too, so permits always match the connections that are actually left.
+ */
+@Component
+@ConditionalOnProperty(name = "app.db.admission.enabled", havingValue = "true")
+public class DbAdmission implements BeanPostProcessor {
+    private final Duration maxWait;
+
+    public DbAdmission(@Value("${app.db.admission.max-wait:2s}") Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public DataSource gate(HikariDataSource pool) {
+        return new AdmissionControlledDataSource(pool, pool.getMaximumPoolSize(), maxWait);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof HikariDataSource pool ? gate(pool) : bean;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.uicomment.config;
+
+import jakarta.persistence.PersistenceException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers a shed checkout with 503 and {@code Retry-After}, however the persistence layer wrapped it. Other data
+ * access failures are rethrown and keep their usual handling.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(name = "app.db.admission.enabled", havingValue = "true")
+public class DbAdmissionExceptionHandler {
+
+    @ExceptionHandler({DataAccessException.class, TransactionException.class, PersistenceException.class})
+    public ResponseEntity<Void> handleDataAccessFailure(Exception e) throws Exception {
+        if (!(NestedExceptionUtils.getMostSpecificCause(e) instanceof DbAdmissionRejectedException)) {
+            throw e;
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.uicomment.config;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * No connection became free within {@code app.db.admission.max-wait}. The SQL state puts it in the connection
+ * exception class, so Hibernate and Spring translate it like any other failed checkout.
+ */
+public class DbAdmissionRejectedException extends SQLTransientConnectionException {
+
+    public DbAdmissionRejectedException() {
+        super("No database connection available within the admission wait", "08001");
+    }
+}
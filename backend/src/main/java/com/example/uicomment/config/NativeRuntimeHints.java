@@ -0,0 +1,48 @@
+package com.example.uicomment.config;
+
+import com.example.uicomment.dto.CommentSummary;
+import com.example.uicomment.dto.FacetCount;
+import com.example.uicomment.event.CommentChangeEvent;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.CommentFacets;
+import com.example.uicomment.repository.AssigneeCount;
+import com.example.uicomment.repository.CollectionVersion;
+import com.example.uicomment.repository.PageStatusCount;
+import com.example.uicomment.repository.TileAggregate;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Reflection the AOT engine cannot see for a native image. Controller bodies are registered by Spring itself;
+ * what is left is Jackson outside controllers (export lines, SSE data, the cluster bus envelope), the records
+ * Hibernate instantiates from {@code select new ...} queries, and the connection proxy of admission control.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+    // Package-private, so only reachable by name.
+    private static final String EVENT_ENVELOPE = "com.example.uicomment.cluster.EventEnvelope";
+
+    private static final List<Class<?>> CONSTRUCTOR_RESULTS = List.of(
+            CommentSummary.class, CollectionVersion.class, TileAggregate.class, CommentFacets.class,
+            FacetCount.class, PageStatusCount.class, AssigneeCount.class);
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Same effect as @RegisterReflectionForBinding: fields, accessors and constructors of the whole graph.
+        bindingRegistrar.registerReflectionHints(hints.reflection(), Comment.class, CommentChangeEvent.class);
+        hints.reflection().registerType(TypeReference.of(EVENT_ENVELOPE),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS,
+                MemberCategory.DECLARED_FIELDS);
+        for (Class<?> type : CONSTRUCTOR_RESULTS) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.proxies().registerJdkProxy(Connection.class);
+    }
+}
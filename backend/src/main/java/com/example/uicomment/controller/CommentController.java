@@ -1,44 +1,263 @@
 package com.example.uicomment.controller;
 
+import com.example.uicomment.dto.BatchItemResult;
+import com.example.uicomment.dto.CommentCacheStats;
+import com.example.uicomment.dto.CommentChanges;
+import com.example.uicomment.dto.CommentPage;
+import com.example.uicomment.dto.CommentSearchResult;
+import com.example.uicomment.dto.CommentStats;
+import com.example.uicomment.dto.PageCommentStats;
+import com.example.uicomment.dto.PatchResult;
+import com.example.uicomment.dto.Viewport;
+import com.example.uicomment.maintenance.CommentMaintenanceService;
+import com.example.uicomment.maintenance.MaintenanceJob;
 import com.example.uicomment.model.Comment;
+import com.example.uicomment.push.CommentPushService;
+import com.example.uicomment.repository.CollectionVersion;
+import com.example.uicomment.search.CommentSearchService;
+import com.example.uicomment.service.ChangeTokenExpiredException;
+import com.example.uicomment.service.CommentChangeService;
+import com.example.uicomment.service.CommentExportService;
 import com.example.uicomment.service.CommentService;
+import com.example.uicomment.service.CommentView;
+import com.example.uicomment.service.ExportFormat;
+import com.example.uicomment.stats.CommentStatsService;
+import com.example.uicomment.writebehind.AckMode;
+import com.example.uicomment.writebehind.CommentWriteBuffer;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/comments")
 public class CommentController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String PREFER_HEADER = "Prefer";
+    // Clients may keep responses but must revalidate (If-None-Match) before each reuse.
+    public static final String REVALIDATE = "no-cache";
+    static final String CBOR_TAG_SUFFIX = "+cbor";
+
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private CommentExportService commentExportService;
+
+    @Autowired
+    private CommentPushService commentPushService;
+
+    @Autowired
+    private CommentSearchService commentSearchService;
+
+    @Autowired
+    private CommentStatsService commentStatsService;
+
+    @Autowired
+    private CommentWriteBuffer commentWriteBuffer;
+
+    @Autowired
+    private CommentMaintenanceService commentMaintenanceService;
+
+    @Autowired
+    private CommentChangeService commentChangeService;
+
+    // Absent without a web context (cluster nodes in tests); the default reads the Accept header like MVC does.
+    @Autowired
+    private ObjectProvider<ContentNegotiationManager> contentNegotiationManager;
+
     @PostMapping
     public ResponseEntity<Comment> createComment(@RequestBody Comment comment) {
         return ResponseEntity.ok(commentService.createComment(comment));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createComments(@RequestBody List<Comment> comments) {
+        return ResponseEntity.ok(commentService.createComments(comments));
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> updateComments(@RequestBody List<Comment> updates) {
+        return ResponseEntity.ok(commentService.updateComments(updates));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> deleteComments(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(commentService.deleteComments(ids));
+    }
+
+    /**
+     * Soft-deletes every comment of a page and/or with a status in the background. At least one filter is
+     * required; poll the returned job at its {@code Location}.
+     */
+    @DeleteMapping
+    public ResponseEntity<MaintenanceJob> bulkDeleteComments(@RequestParam(required = false) String url,
+                                                             @RequestParam(required = false) String status) {
+        return accepted(commentMaintenanceService.startBulkDelete(url, status));
+    }
+
+    @PostMapping("/archive")
+    public ResponseEntity<MaintenanceJob> archiveComments() {
+        return accepted(commentMaintenanceService.startArchive());
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<MaintenanceJob> getJob(@PathVariable String jobId) {
+        return commentMaintenanceService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping
-    public ResponseEntity<List<Comment>> getAllComments() {
-        return ResponseEntity.ok(commentService.getAllComments());
+    public ResponseEntity<List<Comment>> getAllComments(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "100") int limit,
+                                                        ServletWebRequest request) {
+        if (notModified(request, commentService.getCollectionVersion())) {
+            return null;
+        }
+        return toResponse(commentService.getAllComments(cursor, limit));
     }
 
+    /**
+     * The ETag is the comment's version, the same tag {@code PATCH} accepts in {@code If-Match}. CBOR responses
+     * tag it with {@value #CBOR_TAG_SUFFIX}: a strong validator must differ between representations.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Comment> getCommentById(@PathVariable Long id) {
+    public ResponseEntity<Comment> getCommentById(@PathVariable Long id, ServletWebRequest request) {
         Optional<Comment> comment = commentService.getCommentById(id);
-        return comment.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        if (comment.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Comment found = comment.get();
+        String eTag = found.getVersion() != null ? versionTag(found.getVersion(), negotiatesCbor(request)) : null;
+        long lastModified = found.getUpdatedAt() != null ? found.getUpdatedAt().getTime() : -1;
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        varyOnAccept(request.getResponse());
+        if (request.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok(found);
     }
 
     @GetMapping("/page")
-    public ResponseEntity<List<Comment>> getCommentsByPageUrl(@RequestParam String url) {
-        return ResponseEntity.ok(commentService.getCommentsByPageUrl(url));
+    public ResponseEntity<? extends List<?>> getCommentsByPageUrl(@RequestParam String url,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "100") int limit,
+                                                                  @RequestParam(defaultValue = "full") String view,
+                                                                  ServletWebRequest request) {
+        CommentView commentView = CommentView.parse(view);
+        if (notModified(request, commentService.getCollectionVersionByPageUrl(url))) {
+            return null;
+        }
+        if (commentView == CommentView.SUMMARY) {
+            return toResponse(commentService.getCommentSummariesByPageUrl(url, cursor, limit));
+        }
+        return toResponse(commentService.getCommentsByPageUrl(url, cursor, limit));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Comment>> getCommentsByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(commentService.getCommentsByStatus(status));
+    public ResponseEntity<? extends List<?>> getCommentsByStatus(@PathVariable String status,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "100") int limit,
+                                                                 @RequestParam(defaultValue = "full") String view,
+                                                                 ServletWebRequest request) {
+        CommentView commentView = CommentView.parse(view);
+        if (notModified(request, commentService.getCollectionVersionByStatus(status))) {
+            return null;
+        }
+        if (commentView == CommentView.SUMMARY) {
+            return toResponse(commentService.getCommentSummariesByStatus(status, cursor, limit));
+        }
+        return toResponse(commentService.getCommentsByStatus(status, cursor, limit));
+    }
+
+    @GetMapping("/viewport")
+    public ResponseEntity<Viewport> getViewport(@RequestParam String url,
+                                                @RequestParam int minX,
+                                                @RequestParam int minY,
+                                                @RequestParam int maxX,
+                                                @RequestParam int maxY,
+                                                @RequestParam(required = false) Integer clusterLevel) {
+        return ResponseEntity.ok(commentService.getViewport(url, minX, minY, maxX, maxY, clusterLevel));
+    }
+
+    /**
+     * Comments created, updated or deleted after {@code since}, a token from the previous call; without it, all
+     * live comments. 410 means the token is too old to be answered and the client must start over.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<CommentChanges> getChanges(@RequestParam(required = false) String since,
+                                                     @RequestParam(required = false) String url,
+                                                     @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(commentChangeService.getChanges(since, url, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CommentSearchResult> searchComments(@RequestParam(required = false) String q,
+                                                              @RequestParam(required = false) String status,
+                                                              @RequestParam(required = false) String priority,
+                                                              @RequestParam(defaultValue = "0") int page,
+                                                              @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentSearchService.search(q, status, priority, page, size));
+    }
+
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuildSearchIndex() {
+        return ResponseEntity.ok(Map.of("indexed", commentSearchService.rebuild()));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<CommentStats> getStats() {
+        return ResponseEntity.ok(commentStatsService.getStats());
+    }
+
+    @GetMapping("/stats/page")
+    public ResponseEntity<PageCommentStats> getPageStats(@RequestParam String url) {
+        return ResponseEntity.ok(commentStatsService.getPageStats(url));
+    }
+
+    @GetMapping("/export")
+    public void exportComments(@RequestParam(defaultValue = "ndjson") String format,
+                               @RequestParam(required = false) String status,
+                               @RequestParam(required = false) String url,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+                               HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"comments." + exportFormat.getExtension() + "\"");
+        commentExportService.export(exportFormat, status, url, from, to, response.getOutputStream());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamComments(@RequestParam String url) {
+        return commentPushService.subscribe(url)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CommentCacheStats> getCacheStats() {
+        return ResponseEntity.ok(commentService.getCacheStats());
     }
 
     @PutMapping("/{id}")
@@ -48,9 +267,154 @@ public class CommentController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Single-statement partial update. The expected version comes from {@code If-Match} (or the body's
+     * {@code version}); 409 means the comment changed since that version was read.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchComment(@PathVariable Long id, @RequestBody Comment updates,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ifMatch != null ? parseVersionTag(ifMatch) : updates.getVersion();
+        PatchResult result = commentService.patchComment(id, updates, expectedVersion);
+        switch (result.status()) {
+            case NOT_FOUND:
+                return ResponseEntity.notFound().build();
+            case CONFLICT:
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            default:
+                ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent();
+                if (result.version() != null) {
+                    response.eTag(versionTag(result.version()));
+                }
+                return response.build();
+        }
+    }
+
+    /**
+     * Write-behind variant for pin drags: with {@code Prefer: respond-async}, position and status changes without
+     * a version precondition are buffered and coalesced (see {@link CommentWriteBuffer}). The answer is 202 once
+     * buffered, or 204/404 once written when {@code app.write-buffer.ack=flushed}. Anything else, or a full
+     * buffer, takes the synchronous path.
+     */
+    @PatchMapping(value = "/{id}", headers = PREFER_HEADER)
+    public CompletableFuture<ResponseEntity<Void>> patchCommentBuffered(@PathVariable Long id,
+                                                                        @RequestBody Comment updates,
+                                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                        @RequestHeader(PREFER_HEADER) String prefer) {
+        boolean bufferable = prefer.toLowerCase(Locale.ROOT).contains("respond-async")
+                && ifMatch == null
+                && updates.getVersion() == null
+                && CommentWriteBuffer.isBufferable(updates);
+        Optional<CompletableFuture<BatchItemResult.Status>> written = bufferable
+                ? commentWriteBuffer.submit(id, updates)
+                : Optional.empty();
+        if (written.isEmpty()) {
+            return CompletableFuture.completedFuture(patchComment(id, updates, ifMatch));
+        }
+        if (commentWriteBuffer.getAckMode() == AckMode.BUFFERED) {
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().build());
+        }
+        return written.get().thenApply(status -> status == BatchItemResult.Status.NOT_FOUND
+                ? ResponseEntity.notFound().<Void>build()
+                : ResponseEntity.noContent().<Void>build());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteComment(@PathVariable Long id) {
         commentService.deleteComment(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Cursors that fail to decode are client errors, not server faults.
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Void> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().build();
+    }
+
+    private static ResponseEntity<MaintenanceJob> accepted(MaintenanceJob job) {
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/comments/jobs/" + job.getId())
+                .body(job);
+    }
+
+    @ExceptionHandler(ChangeTokenExpiredException.class)
+    public ResponseEntity<Void> handleExpiredChangeToken(ChangeTokenExpiredException e) {
+        return ResponseEntity.status(HttpStatus.GONE).build();
+    }
+
+    public static String versionTag(Long version) {
+        return versionTag(version, false);
+    }
+
+    public static String versionTag(Long version, boolean cbor) {
+        return "\"" + version + (cbor ? CBOR_TAG_SUFFIX : "") + "\"";
+    }
+
+    public static Long parseVersionTag(String tag) {
+        String value = tag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        if (value.endsWith(CBOR_TAG_SUFFIX)) {
+            value = value.substring(0, value.length() - CBOR_TAG_SUFFIX.length());
+        }
+        return Long.parseLong(value);
+    }
+
+    /**
+     * Whether the response will be CBOR. JSON's converter comes first, so a type JSON also satisfies
+     * ({@code *}{@code /*}, {@code application/*}) means JSON.
+     */
+    private boolean negotiatesCbor(ServletWebRequest request) {
+        try {
+            for (MediaType type : contentNegotiationManager.getIfAvailable(ContentNegotiationManager::new)
+                    .resolveMediaTypes(request)) {
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return false;
+                }
+                if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                    return true;
+                }
+            }
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return false;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the validators of a list response and answers 304 when {@code If-None-Match} still matches. Only the
+     * ETag decides: deletes do not move {@code Last-Modified}, so {@code If-Modified-Since} is not trusted here.
+     * The weak ETag names the data, not the encoding, so caches must also key on {@code Accept} (JSON or CBOR).
+     */
+    private static boolean notModified(ServletWebRequest request, CollectionVersion version) {
+        HttpServletResponse response = request.getResponse();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        varyOnAccept(response);
+        if (version.lastModified() != null) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, version.lastModified().getTime());
+        }
+        return request.checkNotModified(version.eTag());
+    }
+
+    // Appended: CORS processing has already listed Origin and the preflight headers, which must stay.
+    private static void varyOnAccept(HttpServletResponse response) {
+        for (String vary : response.getHeaders(HttpHeaders.VARY)) {
+            for (String name : vary.split(",")) {
+                if (name.trim().equalsIgnoreCase(HttpHeaders.ACCEPT) || name.trim().equals("*")) {
+                    return;
+                }
+            }
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    private static <T> ResponseEntity<List<T>> toResponse(CommentPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
 }
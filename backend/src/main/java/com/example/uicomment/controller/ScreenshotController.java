@@ -0,0 +1,121 @@
+package com.example.uicomment.controller;
+
+import com.example.uicomment.dto.ScreenshotUpload;
+import com.example.uicomment.screenshot.BlobResponder;
+import com.example.uicomment.screenshot.BlobStore;
+import com.example.uicomment.screenshot.BlobTooLargeException;
+import com.example.uicomment.screenshot.ImageType;
+import com.example.uicomment.screenshot.StoredBlob;
+import com.example.uicomment.screenshot.ThumbnailGenerator;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/screenshots")
+public class ScreenshotController {
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ThumbnailGenerator thumbnailGenerator;
+
+    // Raw image body: streamed from the socket straight into the blob store.
+    @PostMapping(consumes = {"image/png", "image/jpeg", "image/gif", "image/webp",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ScreenshotUpload> upload(HttpServletRequest request) throws IOException {
+        return ingest(request.getInputStream());
+    }
+
+    // Multipart form: the container spools the part to disk, never to heap (file-size-threshold=0).
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ScreenshotUpload> uploadPart(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ingest(in);
+        }
+    }
+
+    @GetMapping("/{hash}")
+    public void getScreenshot(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Optional<Path> blob = blobStore.find(hash);
+        if (blob.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        BlobResponder.send(request, response, blob.get(), etag(hash), contentTypeOf(blob.get()));
+    }
+
+    @GetMapping("/{hash}/thumbnail")
+    public void getThumbnail(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Optional<Path> thumbnail = blobStore.findThumbnail(hash);
+        if (thumbnail.isEmpty()) {
+            // Not generated yet, or skipped while the queue was full; try again in the background.
+            if (blobStore.find(hash).isPresent()) {
+                thumbnailGenerator.schedule(hash);
+            }
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        BlobResponder.send(request, response, thumbnail.get(), etag(hash + "-thumb"), ImageType.PNG.getContentType());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Void> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().build();
+    }
+
+    @ExceptionHandler({BlobTooLargeException.class, MaxUploadSizeExceededException.class})
+    public ResponseEntity<Void> handleTooLarge(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+    }
+
+    private ResponseEntity<ScreenshotUpload> ingest(InputStream body) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(body);
+        in.mark(ImageType.HEADER_LENGTH);
+        ImageType type = ImageType.sniff(in.readNBytes(ImageType.HEADER_LENGTH))
+                .orElseThrow(() -> new IllegalArgumentException("Not a PNG, JPEG, GIF or WebP image"));
+        in.reset();
+
+        StoredBlob blob = blobStore.store(in);
+        if (blobStore.findThumbnail(blob.hash()).isEmpty()) {
+            thumbnailGenerator.schedule(blob.hash());
+        }
+        String url = "/api/screenshots/" + blob.hash();
+        ScreenshotUpload upload = new ScreenshotUpload(blob.hash(), blob.size(), type.getContentType(), url,
+                url + "/thumbnail", blob.duplicate());
+        return ResponseEntity.created(URI.create(url)).body(upload);
+    }
+
+    private static String contentTypeOf(Path blob) throws IOException {
+        byte[] header = new byte[ImageType.HEADER_LENGTH];
+        int read;
+        try (InputStream in = Files.newInputStream(blob)) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+        return ImageType.sniff(Arrays.copyOf(header, read))
+                .map(ImageType::getContentType)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
+
+    private static String etag(String value) {
+        return "\"" + value + "\"";
+    }
+}
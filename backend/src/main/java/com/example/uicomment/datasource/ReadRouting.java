@@ -0,0 +1,61 @@
+package com.example.uicomment.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing state. Only has an effect with replicas enabled; without them every connection is a primary
+ * connection anyway.
+ * <p>
+ * The route is picked when a transaction runs its first statement, so state must be in place by then.
+ */
+public final class ReadRouting {
+    private static final ThreadLocal<Boolean> PRIMARY = ThreadLocal.withInitial(() -> false);
+    // Replica the current request reads from, so that an ETag and the body it describes come from the same one.
+    private static final ThreadLocal<String[]> REQUEST_REPLICA = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static boolean isPrimaryPinned() {
+        return PRIMARY.get();
+    }
+
+    /**
+     * Runs reads on the primary even inside a read-only transaction.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        boolean previous = PRIMARY.get();
+        PRIMARY.set(true);
+        try {
+            return reads.get();
+        } finally {
+            if (!previous) {
+                PRIMARY.remove();
+            }
+        }
+    }
+
+    static void enterRequest(boolean primary) {
+        REQUEST_REPLICA.set(new String[1]);
+        if (primary) {
+            PRIMARY.set(true);
+        }
+    }
+
+    static void exitRequest() {
+        REQUEST_REPLICA.remove();
+        PRIMARY.remove();
+    }
+
+    static String requestReplica() {
+        String[] replica = REQUEST_REPLICA.get();
+        return replica == null ? null : replica[0];
+    }
+
+    static void rememberReplica(String name) {
+        String[] replica = REQUEST_REPLICA.get();
+        if (replica != null) {
+            replica[0] = name;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.uicomment.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes for replica routing: a client that just wrote reads from the primary for
+ * {@code app.datasource.replicas.stickiness}, so it never sees a replica that has not replayed its own change.
+ * <p>
+ * Every write request is answered with the time until which the client is pinned, both as the
+ * {@value #HEADER} header and as a cookie. Browsers send the cookie back on their own; other clients, and the
+ * overlay on foreign origins where the cookie is not sent, echo the header.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Read-Primary-Until";
+    static final String COOKIE = "read_primary_until";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long stickinessMillis;
+
+    public ReadYourWritesFilter(@Value("${app.datasource.replicas.stickiness:5s}") Duration stickiness) {
+        this.stickinessMillis = stickiness.toMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean pinned = pinnedAt(request, now);
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            // Set before the body is written; a failed write only costs the client a few primary reads.
+            String until = Long.toString(now + stickinessMillis);
+            response.setHeader(HEADER, until);
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, until)
+                    .path("/api")
+                    .maxAge(Duration.ofSeconds(Math.max(1, (stickinessMillis + 999) / 1000)))
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build()
+                    .toString());
+            pinned = true;
+        }
+        ReadRouting.enterRequest(pinned);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.exitRequest();
+        }
+    }
+
+    /**
+     * Tokens further ahead than the stickiness were not issued here and are ignored, so a client cannot pin
+     * itself to the primary for good.
+     */
+    private boolean pinnedAt(HttpServletRequest request, long now) {
+        long until = parse(request.getHeader(HEADER));
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    until = Math.max(until, parse(cookie.getValue()));
+                }
+            }
+        }
+        return until > now && until <= now + stickinessMillis;
+    }
+
+    private static long parse(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.uicomment.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read replicas taken round-robin, skipping those that failed their last health check or replay more than
+ * {@code maxLag} behind. With none usable, reads fall back to the primary.
+ * <p>
+ * Replicas start out of rotation and join after their first check, so a replica that is down at startup does not
+ * hold up the application. Lag is the age of the last replayed transaction, or zero when everything received has
+ * been replayed; an idle primary therefore does not make its replicas look behind.
+ */
+public class ReplicaPool implements AutoCloseable {
+    static final String LAG_QUERY = "select case when not pg_is_in_recovery() then 0"
+            + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+            + " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final double maxLagSeconds;
+    private final LagProbe probe;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final ScheduledExecutorService checker;
+
+    public ReplicaPool(Map<String, DataSource> dataSources, Duration maxLag, Duration checkInterval) {
+        this(dataSources, maxLag, dataSource -> queryLag(dataSource, checkInterval), checkInterval);
+    }
+
+    ReplicaPool(Map<String, DataSource> dataSources, Duration maxLag, LagProbe probe, Duration checkInterval) {
+        dataSources.forEach((name, dataSource) -> replicas.add(new Replica(name, dataSource)));
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.probe = probe;
+        if (checkInterval == null) {
+            this.checker = null;
+            return;
+        }
+        this.checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = checkInterval.toMillis();
+        checker.scheduleWithFixedDelay(this::checkAll, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Name of the next usable replica, or empty when reads have to go to the primary.
+     */
+    public Optional<String> next() {
+        int size = replicas.size();
+        if (size == 0) {
+            return Optional.empty();
+        }
+        int start = Math.floorMod(cursor.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.usable) {
+                return Optional.of(replica.name);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean isUsable(String name) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name)) {
+                return replica.usable;
+            }
+        }
+        return false;
+    }
+
+    public Map<String, DataSource> dataSources() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            dataSources.put(replica.name, replica.dataSource);
+        }
+        return dataSources;
+    }
+
+    public int usableCount() {
+        return (int) replicas.stream().filter(replica -> replica.usable).count();
+    }
+
+    void checkAll() {
+        for (Replica replica : replicas) {
+            check(replica);
+        }
+    }
+
+    private void check(Replica replica) {
+        boolean usable;
+        try {
+            double lagSeconds = probe.lagSeconds(replica.dataSource);
+            usable = lagSeconds <= maxLagSeconds;
+            if (!usable && replica.usable) {
+                log.warn("Replica {} is {}s behind, reading from the others until it catches up",
+                        replica.name, lagSeconds);
+            }
+        } catch (SQLException | RuntimeException e) {
+            usable = false;
+            if (replica.usable) {
+                log.warn("Replica {} failed its health check, taking it out of rotation: {}",
+                        replica.name, e.getMessage());
+            }
+        }
+        if (usable && !replica.usable) {
+            log.info("Replica {} is in rotation", replica.name);
+        }
+        replica.usable = usable;
+    }
+
+    private static double queryLag(DataSource dataSource, Duration timeout) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, timeout.toSeconds()));
+            try (ResultSet result = statement.executeQuery(LAG_QUERY)) {
+                result.next();
+                return result.getDouble(1);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface LagProbe {
+        double lagSeconds(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean usable;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
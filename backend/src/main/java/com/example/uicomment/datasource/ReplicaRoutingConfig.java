@@ -0,0 +1,87 @@
+package com.example.uicomment.datasource;
+
+import com.example.uicomment.config.DbAdmission;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured pool with a primary pool (same {@code spring.datasource.*} settings) plus one pool
+ * per replica URL, behind a routing data source that JPA and everything else inject.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Replica pools copy the primary's Hikari settings, metrics included, apart from URL, credentials and size.
+     * The primary is injected as a plain {@code DataSource} because admission control may have wrapped it.
+     */
+    @Bean
+    public ReplicaPool replicaPool(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                   ObjectProvider<DbAdmission> admission,
+                                   @Value("${app.datasource.replicas.urls}") List<String> urls,
+                                   @Value("${app.datasource.replicas.username:${spring.datasource.username:}}")
+                                   String username,
+                                   @Value("${app.datasource.replicas.password:${spring.datasource.password:}}")
+                                   String password,
+                                   @Value("${app.datasource.replicas.maximum-pool-size:10}") int maxPoolSize,
+                                   @Value("${app.datasource.replicas.max-lag:1s}") Duration maxLag,
+                                   @Value("${app.datasource.replicas.check-interval:1s}") Duration checkInterval)
+            throws SQLException {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("app.datasource.replicas.urls must list at least one replica");
+        }
+        HikariDataSource primaryPool = primaryDataSource.unwrap(HikariDataSource.class);
+        DbAdmission gate = admission.getIfAvailable();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primaryPool.copyStateTo(config);
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(urls.get(i).trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(maxPoolSize);
+            config.setMinimumIdle(Math.min(config.getMinimumIdle(), maxPoolSize));
+            // Don't connect at startup; the first health check brings the replica into rotation.
+            config.setInitializationFailTimeout(-1);
+            HikariDataSource replica = new HikariDataSource(config);
+            replicas.put(config.getPoolName(), gate != null ? gate.gate(replica) : replica);
+        }
+        return new ReplicaPool(replicas, maxLag, checkInterval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaPool replicaPool) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaPool);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
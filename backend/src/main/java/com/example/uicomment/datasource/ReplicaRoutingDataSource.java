@@ -0,0 +1,47 @@
+package com.example.uicomment.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Routes connections of read-only transactions to a replica and everything else to the primary. Must sit behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager opens its
+ * connection before it marks the transaction read-only, and the proxy holds off until the first statement.
+ * <p>
+ * Within a request, reads stay on the replica picked first while it remains usable.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+
+    private final ReplicaPool replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaPool replicas) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>(replicas.dataSources());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadRouting.isPrimaryPinned()) {
+            return PRIMARY;
+        }
+        String replica = ReadRouting.requestReplica();
+        if (replica != null && replicas.isUsable(replica)) {
+            return replica;
+        }
+        replica = replicas.next().orElse(null);
+        if (replica == null) {
+            return PRIMARY;
+        }
+        ReadRouting.rememberReplica(replica);
+        return replica;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.uicomment.dto;
+
+/**
+ * Outcome of one item in a batch request; {@code index} is the item's position in the request body.
+ */
+public record BatchItemResult(int index, Long id, Status status, String error) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        INVALID
+    }
+
+    public static BatchItemResult invalid(int index, Long id, String error) {
+        return new BatchItemResult(index, id, Status.INVALID, error);
+    }
+}
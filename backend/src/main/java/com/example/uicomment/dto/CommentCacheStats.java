@@ -0,0 +1,11 @@
+package com.example.uicomment.dto;
+
+/**
+ * Cumulative counters for {@link com.example.uicomment.cache.CommentCache}. Evictions count size and
+ * TTL removals only; write invalidations are not included.
+ */
+public record CommentCacheStats(Counters byId, Counters byPage) {
+
+    public record Counters(long hits, long misses, long evictions, long size) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.uicomment.dto;
+
+import com.example.uicomment.model.Comment;
+
+import java.util.List;
+
+/**
+ * One slice of the change feed: current state of comments created or updated, and ids of comments deleted, after
+ * the request's token. Pass {@code token} as {@code since} next time; {@code hasMore} means the next slice can be
+ * fetched right away. A comment may be sent again in a later slice, so applying a slice must be idempotent.
+ */
+public record CommentChanges(List<Comment> changed, List<Long> deleted, String token, boolean hasMore) {
+}
@@ -0,0 +1,9 @@
+package com.example.uicomment.dto;
+
+import java.util.List;
+
+/**
+ * One keyset-paginated slice of comments or comment summaries. {@code nextCursor} is null on the last page.
+ */
+public record CommentPage<T>(List<T> items, String nextCursor) {
+}
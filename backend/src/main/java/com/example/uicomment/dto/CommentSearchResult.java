@@ -0,0 +1,14 @@
+package com.example.uicomment.dto;
+
+import com.example.uicomment.model.Comment;
+
+import java.util.List;
+
+/**
+ * One page of search results, best match first. {@code total} counts all matches.
+ */
+public record CommentSearchResult(int total, List<Hit> hits) {
+
+    public record Hit(Comment comment, float score) {
+    }
+}
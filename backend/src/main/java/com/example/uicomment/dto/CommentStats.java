@@ -0,0 +1,15 @@
+package com.example.uicomment.dto;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comment counts for dashboards. {@code facets} is the full status x priority x category breakdown; the
+ * {@code by*} maps are its totals per dimension, plus counts per assignee. {@code reconciledAt} is when the
+ * counters were last recounted from the database.
+ */
+public record CommentStats(long total, Map<String, Long> byStatus, Map<String, Long> byPriority,
+                           Map<String, Long> byCategory, Map<String, Long> byAssignee, List<FacetCount> facets,
+                           Date reconciledAt) {
+}
@@ -0,0 +1,13 @@
+package com.example.uicomment.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Date;
+
+/**
+ * What the overlay needs to draw a pin. Selected directly by the repository, so list queries skip the
+ * text columns; {@code createdAt} is only read to build the next-page cursor.
+ */
+public record CommentSummary(Long id, Integer positionX, Integer positionY, String status, String priority,
+                             @JsonIgnore Date createdAt) {
+}
@@ -0,0 +1,8 @@
+package com.example.uicomment.dto;
+
+/**
+ * Number of comments with one combination of status, priority and category. Missing values are reported as
+ * {@code "NONE"} in stats responses.
+ */
+public record FacetCount(String status, String priority, String category, Long count) {
+}
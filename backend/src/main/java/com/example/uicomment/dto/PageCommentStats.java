@@ -0,0 +1,9 @@
+package com.example.uicomment.dto;
+
+import java.util.Map;
+
+/**
+ * Comment counts of one page, in total and per status.
+ */
+public record PageCommentStats(long total, Map<String, Long> byStatus) {
+}
@@ -0,0 +1,14 @@
+package com.example.uicomment.dto;
+
+/**
+ * Outcome of a single-statement patch. {@code version} is the new row version when it is known without
+ * reading the row back (i.e. when the caller supplied the expected version).
+ */
+public record PatchResult(Status status, Long version) {
+
+    public enum Status {
+        UPDATED,
+        NOT_FOUND,
+        CONFLICT
+    }
+}
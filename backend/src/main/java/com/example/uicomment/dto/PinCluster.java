@@ -0,0 +1,8 @@
+package com.example.uicomment.dto;
+
+/**
+ * Pins grouped into one grid cell of a viewport, drawn at their centroid. {@code commentId} is set when the
+ * cell holds a single pin, so clients can draw it as a normal pin.
+ */
+public record PinCluster(int x, int y, long count, Long commentId) {
+}
@@ -0,0 +1,9 @@
+package com.example.uicomment.dto;
+
+/**
+ * Result of a screenshot upload. Store {@code url} in {@code Comment.screenshotUrl}; {@code thumbnailUrl}
+ * may answer 404 for a moment while the thumbnail is generated.
+ */
+public record ScreenshotUpload(String hash, long size, String contentType, String url, String thumbnailUrl,
+                               boolean duplicate) {
+}
@@ -0,0 +1,10 @@
+package com.example.uicomment.dto;
+
+import java.util.List;
+
+/**
+ * Pins inside a viewport, or clusters of them when a cluster level was requested. {@code truncated} means
+ * more pins matched than are returned; ask again with a cluster level or a smaller viewport.
+ */
+public record Viewport(List<CommentSummary> pins, List<PinCluster> clusters, boolean truncated) {
+}
@@ -0,0 +1,46 @@
+package com.example.uicomment.event;
+
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.CommentFacets;
+
+/**
+ * Published by {@link com.example.uicomment.service.CommentService} for every comment write. Listeners that
+ * react to committed state should use {@code @TransactionalEventListener(fallbackExecution = true)}.
+ * <p>
+ * {@code comment} is null when the writer only knew the id (single-statement patches); {@code pageKey} is
+ * always set.
+ * {@code previous} is set on updates that may have changed the comment's {@link CommentFacets}; it is null
+ * when they cannot have changed. {@code current} holds the facets after the write whenever {@code previous}
+ * is set, so counters move without reading the comment back.
+ * <p>
+ * {@code remote} marks events relayed from another node by {@code ClusterEventRelay}; the write was already
+ * committed there, and local caches were evicted before the event was published.
+ */
+public record CommentChangeEvent(Type type, Long commentId, String pageKey, Comment comment, CommentFacets previous,
+                                 CommentFacets current, boolean remote) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static CommentChangeEvent of(Type type, Comment comment) {
+        return new CommentChangeEvent(type, comment.getId(), comment.getPageKey(), comment, null, null, false);
+    }
+
+    public static CommentChangeEvent updated(Comment comment, CommentFacets previous) {
+        return new CommentChangeEvent(Type.UPDATED, comment.getId(), comment.getPageKey(), comment, previous,
+                previous == null ? null : CommentFacets.of(comment), false);
+    }
+
+    // A single-statement patch: only the id and the applied fields are known.
+    public static CommentChangeEvent updated(Long commentId, String pageKey, CommentFacets previous, Comment updates) {
+        return new CommentChangeEvent(Type.UPDATED, commentId, pageKey, null, previous,
+                previous == null ? null : previous.with(updates), false);
+    }
+
+    public CommentChangeEvent asRemote() {
+        return new CommentChangeEvent(type, commentId, pageKey, comment, previous, current, true);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.uicomment.maintenance;
+
+import com.example.uicomment.cache.CommentCache;
+import com.example.uicomment.event.CommentChangeEvent;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.PageKey;
+import com.example.uicomment.repository.ArchivedCommentRepository;
+import com.example.uicomment.repository.ChangeSequence;
+import com.example.uicomment.repository.CommentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Background bulk work on the comments table: bulk (soft) delete by page or status, and archival.
+ * <p>
+ * Archival copies comments in {@code app.archive.statuses} that have not changed for {@code app.archive.retention}
+ * to {@code comments_archive} and soft-deletes them, and purges soft-deleted rows older than the retention. The
+ * soft-deleted rows are the change feed's tombstones, so they are only purged once change tokens that predate
+ * them have expired. Every job works in chunks of {@code app.archive.chunk-size} rows, one short transaction per
+ * chunk, so no lock is held for long. Jobs run one at a time on a single worker thread; their progress is kept in
+ * memory for the last {@link #MAX_JOBS} jobs.
+ */
+@Service
+public class CommentMaintenanceService {
+    public static final int MAX_JOBS = 100;
+    private static final Logger log = LoggerFactory.getLogger(CommentMaintenanceService.class);
+
+    private final Duration retention;
+    private final int chunkSize;
+    private final List<String> archiveStatuses;
+    private final ExecutorService worker;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, MaintenanceJob> jobs = Collections.synchronizedMap(
+            new LinkedHashMap<String, MaintenanceJob>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, MaintenanceJob> eldest) {
+                    return size() > MAX_JOBS;
+                }
+            });
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ArchivedCommentRepository archivedCommentRepository;
+
+    @Autowired
+    private CommentCache commentCache;
+
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public CommentMaintenanceService(@Value("${app.archive.enabled:true}") boolean archiveEnabled,
+                                     @Value("${app.archive.retention:90d}") Duration retention,
+                                     @Value("${app.archive.interval:1h}") Duration interval,
+                                     @Value("${app.archive.chunk-size:500}") int chunkSize,
+                                     @Value("${app.archive.statuses:RESOLVED,CLOSED}") List<String> archiveStatuses) {
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.archiveStatuses = archiveStatuses;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-archive-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (archiveEnabled) {
+            long period = interval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::startArchive, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Soft-deletes every comment of a page, with a status, or both.
+     *
+     * @throws IllegalArgumentException when neither filter is given
+     */
+    public MaintenanceJob startBulkDelete(String pageUrl, String status) {
+        if (pageUrl == null && status == null) {
+            throw new IllegalArgumentException("A page URL or status is required");
+        }
+        Map<String, String> criteria = new LinkedHashMap<>();
+        if (pageUrl != null) {
+            criteria.put("url", pageUrl);
+        }
+        if (status != null) {
+            criteria.put("status", status);
+        }
+        String pageKey = pageUrl != null ? PageKey.of(pageUrl) : null;
+        MaintenanceJob job = new MaintenanceJob(MaintenanceJob.Type.BULK_DELETE, criteria);
+        return submit(job, () -> runBulkDelete(job, pageKey, status));
+    }
+
+    // At most one archival is queued or running; asking again returns that one.
+    public synchronized MaintenanceJob startArchive() {
+        synchronized (jobs) {
+            Optional<MaintenanceJob> pending = jobs.values().stream()
+                    .filter(job -> job.getType() == MaintenanceJob.Type.ARCHIVE && !job.isFinished())
+                    .findFirst();
+            if (pending.isPresent()) {
+                return pending.get();
+            }
+        }
+        MaintenanceJob job = new MaintenanceJob(MaintenanceJob.Type.ARCHIVE,
+                Map.of("retention", retention.toString(), "statuses", String.join(",", archiveStatuses)));
+        return submit(job, () -> runArchive(job));
+    }
+
+    public Optional<MaintenanceJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        // A chunk cut short rolls back; the job simply did not finish.
+        worker.shutdownNow();
+    }
+
+    private MaintenanceJob submit(MaintenanceJob job, Runnable body) {
+        jobs.put(job.getId(), job);
+        worker.execute(() -> {
+            try {
+                body.run();
+                job.complete();
+                log.info("{} job {} finished: {} rows", job.getType(), job.getId(), job.getProcessed());
+            } catch (RuntimeException e) {
+                job.fail(e);
+                log.warn("{} job {} failed after {} rows", job.getType(), job.getId(), job.getProcessed(), e);
+            }
+        });
+        return job;
+    }
+
+    private void runBulkDelete(MaintenanceJob job, String pageKey, String status) {
+        job.start(commentRepository.countForBulkDelete(pageKey, status));
+        Date deletedAt = new Date();
+        while (true) {
+            List<Comment> chunk = inTransaction(() -> {
+                List<Comment> rows = commentRepository.findForBulkDelete(pageKey, status, PageRequest.of(0, chunkSize));
+                if (!rows.isEmpty()) {
+                    commentRepository.softDeleteByIdIn(idsOf(rows), deletedAt, changeSequence.next());
+                    publishDeleted(rows);
+                }
+                return rows;
+            });
+            if (chunk.isEmpty()) {
+                return;
+            }
+            chunk.forEach(commentCache::evict);
+            job.addProcessed(chunk.size());
+        }
+    }
+
+    private void runArchive(MaintenanceJob job) {
+        Date cutoff = new Date(System.currentTimeMillis() - retention.toMillis());
+        job.start(commentRepository.countArchivable(archiveStatuses, cutoff));
+        while (true) {
+            List<Comment> chunk = inTransaction(() -> {
+                List<Comment> rows = commentRepository.findArchivable(archiveStatuses, cutoff,
+                        PageRequest.of(0, chunkSize));
+                if (!rows.isEmpty()) {
+                    List<Long> ids = idsOf(rows);
+                    archivedCommentRepository.copyFromComments(ids);
+                    // Left as tombstones for the change feed; purged with the others after the retention.
+                    commentRepository.softDeleteByIdIn(ids, new Date(), changeSequence.next());
+                    publishDeleted(rows);
+                }
+                return rows;
+            });
+            if (chunk.isEmpty()) {
+                break;
+            }
+            chunk.forEach(commentCache::evict);
+            job.addProcessed(chunk.size());
+        }
+        // Tombstones were already evicted and announced when they were deleted.
+        long purged = 0;
+        while (true) {
+            int deleted = inTransaction(() -> {
+                List<Long> ids = commentRepository.findPurgeableIds(cutoff, chunkSize);
+                return ids.isEmpty() ? 0 : commentRepository.hardDeleteByIdIn(ids);
+            });
+            if (deleted == 0) {
+                break;
+            }
+            purged += deleted;
+        }
+        if (purged > 0) {
+            log.info("Purged {} soft-deleted comments older than {}", purged, retention);
+        }
+    }
+
+    // Listeners (push, search, stats) see the deletes once the chunk commits.
+    private void publishDeleted(List<Comment> rows) {
+        rows.forEach(comment -> eventPublisher.publishEvent(
+                CommentChangeEvent.of(CommentChangeEvent.Type.DELETED, comment)));
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private static List<Long> idsOf(List<Comment> rows) {
+        return rows.stream().map(Comment::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.uicomment.maintenance;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one background bulk delete or archival run, as returned by {@code GET /api/comments/jobs/{id}}.
+ * {@code total} is counted when the job starts; rows written meanwhile can make {@code processed} end above it.
+ */
+public class MaintenanceJob {
+
+    public enum Type {
+        BULK_DELETE,
+        ARCHIVE
+    }
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Type type;
+    private final Map<String, String> criteria;
+    private final Date createdAt = new Date();
+    private final AtomicLong processed = new AtomicLong();
+    private volatile State state = State.QUEUED;
+    private volatile long total;
+    private volatile Date finishedAt;
+    private volatile String error;
+
+    MaintenanceJob(Type type, Map<String, String> criteria) {
+        this.type = type;
+        this.criteria = criteria;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Map<String, String> getCriteria() {
+        return criteria;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    void start(long total) {
+        this.total = total;
+        this.state = State.RUNNING;
+    }
+
+    void addProcessed(long count) {
+        processed.addAndGet(count);
+    }
+
+    void complete() {
+        finishedAt = new Date();
+        state = State.COMPLETED;
+    }
+
+    void fail(Exception e) {
+        error = e.getMessage();
+        finishedAt = new Date();
+        state = State.FAILED;
+    }
+}
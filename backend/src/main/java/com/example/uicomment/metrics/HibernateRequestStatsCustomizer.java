@@ -0,0 +1,48 @@
+package com.example.uicomment.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hooks Hibernate so {@link RequestDbStats} sees every prepared statement and every loaded entity.
+ */
+@Component
+public class HibernateRequestStatsCustomizer implements HibernatePropertiesCustomizer {
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+            RequestDbStats.statementPrepared();
+            return sql;
+        });
+        hibernateProperties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(new PostLoadCountingIntegrator()));
+    }
+
+    private static class PostLoadCountingIntegrator implements Integrator {
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                              SessionFactoryImplementor sessionFactory) {
+            sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class)
+                    .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> RequestDbStats.entityLoaded());
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
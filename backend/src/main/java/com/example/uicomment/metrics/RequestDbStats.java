@@ -0,0 +1,47 @@
+package com.example.uicomment.metrics;
+
+/**
+ * Per-request counters of SQL statements prepared and entities loaded by Hibernate. Counting only happens
+ * between {@link #start()} and {@link #stop()} on the same thread; work on other threads is ignored.
+ */
+public final class RequestDbStats {
+    private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entitiesLoaded;
+
+    private RequestDbStats() {
+    }
+
+    static RequestDbStats start() {
+        RequestDbStats stats = new RequestDbStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    static void statementPrepared() {
+        RequestDbStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestDbStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entitiesLoaded++;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
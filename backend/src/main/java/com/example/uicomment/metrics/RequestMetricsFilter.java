@@ -0,0 +1,125 @@
+package com.example.uicomment.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records per-request payload sizes and database work for the comment API, tagged like
+ * {@code http.server.requests} by method and URI template:
+ * <ul>
+ *   <li>{@code comments.http.request.size} / {@code comments.http.response.size}: body bytes</li>
+ *   <li>{@code comments.db.statements}: SQL statements prepared while handling the request</li>
+ *   <li>{@code comments.db.entities.loaded}: entities Hibernate materialized</li>
+ * </ul>
+ * Latency comes from the built-in {@code http.server.requests} and {@code spring.data.repository.invocations}
+ * timers. The SSE stream is excluded because its body outlives the request thread.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/") || path.equals("/api/comments/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CountingResponse countingResponse = new CountingResponse(response);
+        RequestDbStats stats = RequestDbStats.start();
+        try {
+            chain.doFilter(request, countingResponse);
+        } finally {
+            RequestDbStats.stop();
+            record(request, countingResponse.bytesWritten, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, long responseBytes, RequestDbStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN");
+        if (request.getContentLengthLong() >= 0) {
+            summary("comments.http.request.size", "bytes", tags).record(request.getContentLengthLong());
+        }
+        summary("comments.http.response.size", "bytes", tags).record(responseBytes);
+        summary("comments.db.statements", null, tags).record(stats.getStatements());
+        summary("comments.db.entities.loaded", null, tags).record(stats.getEntitiesLoaded());
+    }
+
+    private DistributionSummary summary(String name, String unit, Tags tags) {
+        return DistributionSummary.builder(name)
+                .baseUnit(unit)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /** Counts bytes written through the output stream; that is the path Spring MVC and the export use. */
+    private static class CountingResponse extends HttpServletResponseWrapper {
+        private long bytesWritten;
+        private ServletOutputStream outputStream;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytesWritten++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytesWritten += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
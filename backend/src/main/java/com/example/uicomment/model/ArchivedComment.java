@@ -0,0 +1,135 @@
+package com.example.uicomment.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+import java.util.Date;
+
+/**
+ * A resolved or closed comment moved out of {@code comments} after the retention window, so the live table and
+ * its indexes only hold comments that are still worked on. Rows are written by
+ * {@code ArchivedCommentRepository.copyFromComments} and keep the original id.
+ */
+@Entity
+@Table(name = "comments_archive", indexes = {
+        @Index(name = "idx_comments_archive_page_key", columnList = "page_key")
+})
+public class ArchivedComment {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String pageUrl;
+
+    @Column(name = "page_key", length = PageKey.LENGTH)
+    private String pageKey;
+
+    @Column(nullable = false)
+    private String content;
+
+    @Column(nullable = false)
+    private Integer positionX;
+
+    @Column(nullable = false)
+    private Integer positionY;
+
+    private String screenshotUrl;
+
+    @Column(length = 50)
+    private String status;
+
+    @Column(length = 50)
+    private String priority;
+
+    private String authorName;
+    private String authorEmail;
+
+    @Column(length = 100)
+    private String category;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date updatedAt;
+
+    private String resolution;
+    private String assignedTo;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "archived_at", nullable = false)
+    private Date archivedAt;
+
+    protected ArchivedComment() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getPageUrl() {
+        return pageUrl;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public Integer getPositionX() {
+        return positionX;
+    }
+
+    public Integer getPositionY() {
+        return positionY;
+    }
+
+    public String getScreenshotUrl() {
+        return screenshotUrl;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public String getAuthorEmail() {
+        return authorEmail;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public String getAssignedTo() {
+        return assignedTo;
+    }
+
+    public Date getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -2,25 +2,54 @@ package com.example.uicomment.model;
 
 import java.util.Date;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "comments")
+@DynamicUpdate
+// Soft-deleted rows stay in the table until purged but are invisible to every entity query and lookup.
+@SQLRestriction("deleted_at is null")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_page_key_created_at", columnList = "page_key, created_at, id"),
+        @Index(name = "idx_comments_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_comments_page_key_tile", columnList = "page_key, tile_y, tile_x"),
+        @Index(name = "idx_comments_status_updated_at", columnList = "status, updated_at"),
+        @Index(name = "idx_comments_deleted_at", columnList = "deleted_at"),
+        @Index(name = "idx_comments_change_seq", columnList = "change_seq, id"),
+        @Index(name = "idx_comments_page_key_change_seq", columnList = "page_key, change_seq, id")
+})
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row. CommentIdSequence
+    // keeps the sequence above ids from before the switch.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String pageUrl;
 
+    // Derived from pageUrl; nullable only so existing rows can be backfilled in place.
+    @JsonIgnore
+    @Column(name = "page_key", length = PageKey.LENGTH)
+    private String pageKey;
+
     @Column(nullable = false)
     private String content;
 
@@ -30,6 +59,15 @@ public class Comment {
     @Column(nullable = false)
     private Integer positionY;
 
+    // Grid cell of the pin (see PinTile); derived like pageKey.
+    @JsonIgnore
+    @Column(name = "tile_x")
+    private Integer tileX;
+
+    @JsonIgnore
+    @Column(name = "tile_y")
+    private Integer tileY;
+
     private String screenshotUrl;
 
     @Column(length = 50)
@@ -45,7 +83,7 @@ public class Comment {
     private String category;
 
     @Temporal(TemporalType.TIMESTAMP)
-    @Column(nullable = false, updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private Date createdAt;
 
     @Temporal(TemporalType.TIMESTAMP)
@@ -55,8 +93,33 @@ public class Comment {
     private String resolution;
     private String assignedTo;
 
+    // Optimistic lock; the default lets ddl-auto add the column to tables that already hold rows.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Set by CommentRepository.softDeleteByIdIn; CommentMaintenanceService purges such rows after the retention.
+    @JsonIgnore
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "deleted_at")
+    private Date deletedAt;
+
+    // Position in the change feed (GET /api/comments/changes); every write stamps a new ChangeSequence value.
+    @JsonIgnore
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
     public Comment() {}
 
+    @PrePersist
+    @PreUpdate
+    public void computeDerivedColumns() {
+        pageKey = PageKey.of(pageUrl);
+        tileX = PinTile.of(positionX);
+        tileY = PinTile.of(positionY);
+    }
+
     public Long getId() {
         return id;
     }
@@ -73,6 +136,10 @@ public class Comment {
         this.pageUrl = pageUrl;
     }
 
+    public String getPageKey() {
+        return pageKey;
+    }
+
     public String getContent() {
         return content;
     }
@@ -93,6 +160,14 @@ public class Comment {
         return positionY;
     }
 
+    public Integer getTileX() {
+        return tileX;
+    }
+
+    public Integer getTileY() {
+        return tileY;
+    }
+
     public void setPositionY(Integer positionY) {
         this.positionY = positionY;
     }
@@ -176,4 +251,24 @@ public class Comment {
     public void setAssignedTo(String assignedTo) {
         this.assignedTo = assignedTo;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Date getDeletedAt() {
+        return deletedAt;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
 }
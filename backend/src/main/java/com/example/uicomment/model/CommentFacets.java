@@ -0,0 +1,35 @@
+package com.example.uicomment.model;
+
+/**
+ * The fields comments are counted by on the dashboard. Update events carry the facets from before the write,
+ * so counters can move a comment from its old buckets to its new ones without another query.
+ */
+public record CommentFacets(String pageKey, String status, String priority, String category, String assignedTo) {
+
+    /**
+     * The page key is not serialized, so a comment relayed from another node arrives without it; it is derived
+     * from the page URL then.
+     */
+    public static CommentFacets of(Comment comment) {
+        String pageKey = comment.getPageKey() != null ? comment.getPageKey() : PageKey.of(comment.getPageUrl());
+        return new CommentFacets(pageKey, comment.getStatus(), comment.getPriority(),
+                comment.getCategory(), comment.getAssignedTo());
+    }
+
+    // These facets after a partial update (non-null fields apply).
+    public CommentFacets with(Comment updates) {
+        return new CommentFacets(pageKey,
+                updates.getStatus() != null ? updates.getStatus() : status,
+                updates.getPriority() != null ? updates.getPriority() : priority,
+                updates.getCategory() != null ? updates.getCategory() : category,
+                updates.getAssignedTo() != null ? updates.getAssignedTo() : assignedTo);
+    }
+
+    // Whether a partial update (non-null fields apply) can change the facets; pageUrl is never updated.
+    public static boolean touchedBy(Comment updates) {
+        return updates.getStatus() != null
+                || updates.getPriority() != null
+                || updates.getCategory() != null
+                || updates.getAssignedTo() != null;
+    }
+}
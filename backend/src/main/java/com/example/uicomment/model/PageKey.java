@@ -0,0 +1,88 @@
+package com.example.uicomment.model;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Canonical, fixed-width lookup key for a page URL.
+ * <p>
+ * URLs that address the same page (different host case, default port, fragment, query parameter
+ * order or {@code utm_*} tracking parameters) map to the same 64-character SHA-256 hex key.
+ */
+public final class PageKey {
+    public static final int LENGTH = 64;
+
+    private PageKey() {}
+
+    public static String of(String pageUrl) {
+        if (pageUrl == null) {
+            return null;
+        }
+        return sha256Hex(normalize(pageUrl));
+    }
+
+    public static String normalize(String pageUrl) {
+        String trimmed = pageUrl.trim();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            return stripFragment(trimmed);
+        }
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return stripFragment(trimmed);
+        }
+
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        int port = uri.getPort();
+        if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+            port = -1;
+        }
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+
+        StringBuilder normalized = new StringBuilder(scheme)
+                .append("://")
+                .append(uri.getHost().toLowerCase(Locale.ROOT));
+        if (port != -1) {
+            normalized.append(':').append(port);
+        }
+        normalized.append(path);
+        String query = canonicalQuery(uri.getRawQuery());
+        if (!query.isEmpty()) {
+            normalized.append('?').append(query);
+        }
+        return normalized.toString();
+    }
+
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        return Arrays.stream(rawQuery.split("&"))
+                .filter(param -> !param.isEmpty())
+                .filter(param -> !param.toLowerCase(Locale.ROOT).startsWith("utm_"))
+                .sorted()
+                .collect(Collectors.joining("&"));
+    }
+
+    private static String stripFragment(String url) {
+        int hash = url.indexOf('#');
+        return hash < 0 ? url : url.substring(0, hash);
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.uicomment.model;
+
+/**
+ * Fixed grid over page coordinates. Each comment stores the tile its pin falls in, so viewport queries
+ * become index range scans on {@code (page_key, tile_y, tile_x)} instead of scanning every pin of the page.
+ */
+public final class PinTile {
+    public static final int SIZE = 256;
+
+    private PinTile() {}
+
+    public static Integer of(Integer position) {
+        return position == null ? null : Math.floorDiv(position, SIZE);
+    }
+}
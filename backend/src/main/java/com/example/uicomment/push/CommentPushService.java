@@ -0,0 +1,134 @@
+package com.example.uicomment.push;
+
+import com.example.uicomment.event.CommentChangeEvent;
+import com.example.uicomment.model.PageKey;
+import com.example.uicomment.service.CommentService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed comment changes to overlays subscribed to the same page, as server-sent events
+ * ({@code created}, {@code updated}, {@code deleted} and {@code resync}).
+ */
+@Component
+public class CommentPushService {
+    private final Map<String, Set<PageSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat;
+
+    @Autowired
+    private CommentService commentService;
+
+    public CommentPushService(@Value("${app.push.buffer-size:64}") int bufferSize,
+                              @Value("${app.push.timeout:10m}") Duration timeout,
+                              @Value("${app.push.max-subscribers:10000}") int maxSubscribers,
+                              @Value("${app.push.sender-threads:4}") int senderThreads,
+                              @Value("${app.push.heartbeat-interval:25s}") Duration heartbeatInterval) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "comment-push-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-push-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the event stream, or empty when the subscriber limit is reached
+     */
+    public Optional<SseEmitter> subscribe(String pageUrl) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return Optional.empty();
+        }
+        String pageKey = PageKey.of(pageUrl);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        PageSubscriber subscriber = new PageSubscriber(pageKey, emitter, bufferSize, sender, () -> {
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(pageKey, (key, set) -> {
+                set.removeIf(s -> s.getEmitter() == emitter);
+                return set.isEmpty() ? null : set;
+            });
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.computeIfAbsent(pageKey, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        return Optional.of(emitter);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<PageSubscriber> targets = subscribers.get(event.pageKey());
+        if (targets == null) {
+            return;
+        }
+        if (event.type() == CommentChangeEvent.Type.DELETED) {
+            offer(targets, event, Map.of("id", event.commentId()));
+        } else if (event.comment() != null) {
+            offer(targets, event, event.comment());
+        } else {
+            // Only the id is known (single-statement patch); read the committed row on a sender thread, not
+            // on the writer's request thread.
+            sender.execute(() -> commentService.getCommentById(event.commentId())
+                    .ifPresent(comment -> offer(targets, event, comment)));
+        }
+    }
+
+    private void offer(Set<PageSubscriber> targets, CommentChangeEvent event, Object data) {
+        PushEvent push = new PushEvent(event.type().name().toLowerCase(Locale.ROOT), data);
+        targets.forEach(subscriber -> subscriber.offer(push));
+    }
+
+    // Tells every subscriber to reload its page, e.g. when changes from other nodes may have been missed.
+    public void resyncAll() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(PushEvent.RESYNC)));
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(PushEvent.HEARTBEAT)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.getEmitter().complete()));
+        sender.shutdown();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.uicomment.push;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open event stream with its own bounded buffer. At most one drain task per subscriber runs at a time, so
+ * events reach the client in order. A slow client can never hold more than {@code capacity} events: on
+ * overflow the backlog is dropped and replaced by a single {@code resync} event telling the client to
+ * reload the page's comments.
+ */
+class PageSubscriber {
+    private final String pageKey;
+    private final SseEmitter emitter;
+    private final BlockingQueue<PushEvent> queue;
+    private final Executor executor;
+    private final Runnable onClose;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    PageSubscriber(String pageKey, SseEmitter emitter, int capacity, Executor executor, Runnable onClose) {
+        this.pageKey = pageKey;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.executor = executor;
+        this.onClose = onClose;
+    }
+
+    String getPageKey() {
+        return pageKey;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    void offer(PushEvent event) {
+        if (closed.get()) {
+            return;
+        }
+        if (!queue.offer(event)) {
+            overflowed.set(true);
+            queue.clear();
+        }
+        scheduleDrain();
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            queue.clear();
+            onClose.run();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            PushEvent next;
+            while (!closed.get() && (next = nextEvent()) != null) {
+                emitter.send(toSse(next));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the emitter already completed)
+            close();
+            emitter.completeWithError(e);
+        } finally {
+            draining.set(false);
+        }
+        if (!closed.get() && (overflowed.get() || !queue.isEmpty())) {
+            scheduleDrain();
+        }
+    }
+
+    private PushEvent nextEvent() {
+        if (overflowed.compareAndSet(true, false)) {
+            return PushEvent.RESYNC;
+        }
+        return queue.poll();
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(PushEvent event) {
+        if (event.name() == null) {
+            return SseEmitter.event().comment("ping");
+        }
+        return SseEmitter.event().name(event.name()).data(event.data());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.uicomment.push;
+
+/**
+ * One server-sent event queued for a subscriber. A null {@code name} is a heartbeat comment line.
+ */
+record PushEvent(String name, Object data) {
+    static final PushEvent HEARTBEAT = new PushEvent(null, null);
+    static final PushEvent RESYNC = new PushEvent("resync", "");
+}
@@ -0,0 +1,39 @@
+package com.example.uicomment.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * WebFlux + R2DBC variant of the comment API: {@code mvn -Preactive spring-boot:run}. Requests never hold a
+ * thread while they wait on the database, so idle overlay connections cost no threads. It serves the core
+ * {@code /api/comments} endpoints with the same contract as {@code CommentController} (see
+ * {@link ReactiveCommentController}) and runs without the JPA stack, caches and background services of the
+ * servlet application.
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        JpaRepositoriesAutoConfiguration.class
+})
+public class ReactiveCommentApplication {
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactiveCommentApplication.class);
+        application.setAdditionalProfiles(PROFILE);
+        application.run(args);
+    }
+
+    // Tomcat is on the classpath for the servlet application and would otherwise be picked first.
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.uicomment.reactive;
+
+import com.example.uicomment.controller.CommentController;
+import com.example.uicomment.dto.CommentPage;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.repository.CollectionVersion;
+import com.example.uicomment.service.CommentView;
+import com.example.uicomment.service.ExportFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * WebFlux handlers for the core of the {@code /api/comments} contract: create, read, list (all, by page, by
+ * status, with the summary view), update, patch, delete and export. Status codes, headers, cursors and ETags
+ * match {@link CommentController}; {@code CommentApiContract} in the tests runs against both. Batch, bulk and
+ * maintenance jobs, viewport, changes, search, stats and the SSE stream are only served by the servlet
+ * application, and {@code Prefer: respond-async} patches are always written synchronously.
+ */
+@RestController
+@RequestMapping("/api/comments")
+public class ReactiveCommentController {
+
+    @Autowired
+    private ReactiveCommentService commentService;
+
+    @PostMapping
+    public Mono<ResponseEntity<Comment>> createComment(@RequestBody Comment comment) {
+        return commentService.createComment(comment).map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<?>>> getAllComments(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "100") int limit,
+                                                        ServerWebExchange exchange) {
+        return ifModified(exchange, commentService.getCollectionVersion(),
+                () -> commentService.getAllComments(cursor, limit).map(ReactiveCommentController::toResponse));
+    }
+
+    /**
+     * The ETag is the comment's version, the same tag {@code PATCH} accepts in {@code If-Match}.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Comment>> getCommentById(@PathVariable Long id, ServerWebExchange exchange) {
+        return commentService.getCommentById(id)
+                .map(found -> {
+                    String eTag = found.getVersion() != null ? CommentController.versionTag(found.getVersion()) : null;
+                    Instant lastModified = found.getUpdatedAt() != null ? found.getUpdatedAt().toInstant() : null;
+                    exchange.getResponse().getHeaders().setCacheControl(CommentController.REVALIDATE);
+                    if (exchange.checkNotModified(eTag, lastModified)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).<Comment>build();
+                    }
+                    return ResponseEntity.ok(found);
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/page")
+    public Mono<ResponseEntity<List<?>>> getCommentsByPageUrl(@RequestParam String url,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "100") int limit,
+                                                              @RequestParam(defaultValue = "full") String view,
+                                                              ServerWebExchange exchange) {
+        CommentView commentView = CommentView.parse(view);
+        Supplier<Mono<? extends CommentPage<?>>> page = commentView == CommentView.SUMMARY
+                ? () -> commentService.getCommentSummariesByPageUrl(url, cursor, limit)
+                : () -> commentService.getCommentsByPageUrl(url, cursor, limit);
+        return ifModified(exchange, commentService.getCollectionVersionByPageUrl(url),
+                () -> page.get().map(ReactiveCommentController::toResponse));
+    }
+
+    @GetMapping("/status/{status}")
+    public Mono<ResponseEntity<List<?>>> getCommentsByStatus(@PathVariable String status,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "100") int limit,
+                                                             @RequestParam(defaultValue = "full") String view,
+                                                             ServerWebExchange exchange) {
+        CommentView commentView = CommentView.parse(view);
+        Supplier<Mono<? extends CommentPage<?>>> page = commentView == CommentView.SUMMARY
+                ? () -> commentService.getCommentSummariesByStatus(status, cursor, limit)
+                : () -> commentService.getCommentsByStatus(status, cursor, limit);
+        return ifModified(exchange, commentService.getCollectionVersionByStatus(status),
+                () -> page.get().map(ReactiveCommentController::toResponse));
+    }
+
+    /**
+     * Streams the export: rows are read from the database only as fast as the client takes them, so neither
+     * memory nor a thread is held for a slow download.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<Flux<DataBuffer>> exportComments(@RequestParam(defaultValue = "ndjson") String format,
+                                                           @RequestParam(required = false) String status,
+                                                           @RequestParam(required = false) String url,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+                                                           ServerWebExchange exchange) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        DataBufferFactory buffers = exchange.getResponse().bufferFactory();
+        Flux<DataBuffer> body = commentService.exportComments(exportFormat, status, url, from, to)
+                .map(line -> buffers.wrap(line.getBytes(StandardCharsets.UTF_8)));
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(exportFormat.getContentType()),
+                        StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"comments." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Comment>> updateComment(@PathVariable Long id, @RequestBody Comment updates) {
+        return commentService.updateComment(id, updates)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Single-statement partial update. The expected version comes from {@code If-Match} (or the body's
+     * {@code version}); 409 means the comment changed since that version was read.
+     */
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Void>> patchComment(@PathVariable Long id, @RequestBody Comment updates,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ifMatch != null ? CommentController.parseVersionTag(ifMatch) : updates.getVersion();
+        return commentService.patchComment(id, updates, expectedVersion).map(result -> {
+            switch (result.status()) {
+                case NOT_FOUND:
+                    return ResponseEntity.notFound().build();
+                case CONFLICT:
+                    return ResponseEntity.status(HttpStatus.CONFLICT).build();
+                default:
+                    ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent();
+                    if (result.version() != null) {
+                        response.eTag(CommentController.versionTag(result.version()));
+                    }
+                    return response.build();
+            }
+        });
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteComment(@PathVariable Long id) {
+        return commentService.deleteComment(id).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    // Cursors, views and formats that fail to parse are client errors, not server faults.
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Void> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * Sets the validators of a list response and answers 304 when {@code If-None-Match} still matches; the page
+     * itself is only read otherwise. As in {@link CommentController}, only the ETag decides.
+     */
+    private static <T> Mono<ResponseEntity<T>> ifModified(ServerWebExchange exchange, Mono<CollectionVersion> version,
+                                                          Supplier<Mono<ResponseEntity<T>>> response) {
+        return version.flatMap(current -> {
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            headers.setCacheControl(CommentController.REVALIDATE);
+            if (current.lastModified() != null) {
+                headers.setLastModified(current.lastModified().getTime());
+            }
+            if (exchange.checkNotModified(current.eTag())) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<T>build());
+            }
+            return response.get();
+        });
+    }
+
+    private static ResponseEntity<List<?>> toResponse(CommentPage<?> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CommentController.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.<List<?>>body(page.items());
+    }
+}
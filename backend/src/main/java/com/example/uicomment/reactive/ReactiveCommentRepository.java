@@ -0,0 +1,337 @@
+package com.example.uicomment.reactive;
+
+import com.example.uicomment.dto.CommentSummary;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.PinTile;
+import com.example.uicomment.repository.ChangeSequence;
+import com.example.uicomment.repository.CollectionVersion;
+import com.example.uicomment.service.CommentCursor;
+import io.r2dbc.spi.Row;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * R2DBC counterpart of {@code CommentRepository} for the endpoints the reactive variant serves. Plain SQL over
+ * {@link DatabaseClient}: the JPA mapping of {@link Comment} does not apply here, so rows are mapped by hand and
+ * soft-deleted rows are filtered explicitly where {@code @SQLRestriction} does it for JPA.
+ * <p>
+ * Timestamps are written and read in the JVM time zone, as Hibernate does for {@link Date} fields, so both
+ * variants can share a database. Ids come from the same {@code comments_seq}: Hibernate's pooled generator uses
+ * the block of 50 ending at each value it draws, so a value drawn here is never in one of its blocks.
+ */
+@Repository
+public class ReactiveCommentRepository {
+    private static final String COLUMNS = "id, page_url, content, position_x, position_y, screenshot_url, status, "
+            + "priority, author_name, author_email, category, created_at, updated_at, resolution, assigned_to, version";
+    private static final String SUMMARY_COLUMNS = "id, position_x, position_y, status, priority, created_at";
+    private static final String LIVE = "deleted_at is null";
+    private static final String INSERT = "insert into comments (id, page_url, page_key, content, position_x, "
+            + "position_y, tile_x, tile_y, screenshot_url, status, priority, author_name, author_email, category, "
+            + "created_at, updated_at, resolution, assigned_to, version, change_seq) values (:id, :pageUrl, :pageKey, "
+            + ":content, :positionX, :positionY, :tileX, :tileY, :screenshotUrl, :status, :priority, :authorName, "
+            + ":authorEmail, :category, :createdAt, :updatedAt, :resolution, :assignedTo, :version, :changeSeq)";
+    private static final int EXPORT_FETCH_SIZE = 500;
+    // Same field set as CommentRepositoryCustomImpl, by column; page_url (and so page_key) is not patchable.
+    private static final Map<String, Function<Comment, Object>> PATCHABLE = new LinkedHashMap<>();
+
+    static {
+        PATCHABLE.put("content", Comment::getContent);
+        PATCHABLE.put("position_x", Comment::getPositionX);
+        PATCHABLE.put("position_y", Comment::getPositionY);
+        PATCHABLE.put("screenshot_url", Comment::getScreenshotUrl);
+        PATCHABLE.put("status", Comment::getStatus);
+        PATCHABLE.put("priority", Comment::getPriority);
+        PATCHABLE.put("author_name", Comment::getAuthorName);
+        PATCHABLE.put("author_email", Comment::getAuthorEmail);
+        PATCHABLE.put("category", Comment::getCategory);
+        PATCHABLE.put("resolution", Comment::getResolution);
+        PATCHABLE.put("assigned_to", Comment::getAssignedTo);
+    }
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private String nextIdSql;
+    private String nextChangeSeqSql;
+
+    @PostConstruct
+    void init() {
+        boolean postgres = databaseClient.getConnectionFactory().getMetadata().getName().contains("PostgreSQL");
+        nextIdSql = "select " + nextValue("comments_seq", postgres);
+        nextChangeSeqSql = "select " + nextValue(ChangeSequence.NAME, postgres);
+    }
+
+    /**
+     * One keyset page in (createdAt, id) order, optionally of one page key or status; null filters are ignored.
+     * Pass {@code limit} one above the page size to learn whether a next page exists.
+     */
+    public Flux<Comment> findPage(String pageKey, String status, CommentCursor after, int limit) {
+        return pageQuery(COLUMNS, pageKey, status, after, limit)
+                .map((row, metadata) -> toComment(row))
+                .all();
+    }
+
+    public Flux<CommentSummary> findSummaryPage(String pageKey, String status, CommentCursor after, int limit) {
+        return pageQuery(SUMMARY_COLUMNS, pageKey, status, after, limit)
+                .map((row, metadata) -> new CommentSummary(row.get("id", Long.class),
+                        row.get("position_x", Integer.class), row.get("position_y", Integer.class),
+                        row.get("status", String.class), row.get("priority", String.class),
+                        toDate(row.get("created_at", LocalDateTime.class))))
+                .all();
+    }
+
+    public Mono<Comment> findById(Long id) {
+        return databaseClient.sql("select " + COLUMNS + " from comments where id = :id and " + LIVE)
+                .bind("id", id)
+                .map((row, metadata) -> toComment(row))
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("select count(*) from comments where id = :id and " + LIVE)
+                .bind("id", id)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .map(count -> count > 0);
+    }
+
+    // Same aggregate as CommentRepository.findCollectionVersion*, so both variants produce the same ETags.
+    public Mono<CollectionVersion> findCollectionVersion(String pageKey, String status) {
+        StringBuilder sql = new StringBuilder("select count(*), max(id), sum(version), max(updated_at) "
+                + "from comments where " + LIVE);
+        if (pageKey != null) {
+            sql.append(" and page_key = :pageKey");
+        }
+        if (status != null) {
+            sql.append(" and status = :status");
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        if (pageKey != null) {
+            spec = spec.bind("pageKey", pageKey);
+        }
+        if (status != null) {
+            spec = spec.bind("status", status);
+        }
+        return spec.map((row, metadata) -> new CollectionVersion(row.get(0, Long.class), row.get(1, Long.class),
+                        toLong(row.get(2, Number.class)), toDate(row.get(3, LocalDateTime.class))))
+                .one();
+    }
+
+    public Mono<Long> nextChangeSeq() {
+        return databaseClient.sql(nextChangeSeqSql)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Inserts the comment under a new id; the derived page key and tile columns are computed here.
+     */
+    public Mono<Comment> insert(Comment comment) {
+        return databaseClient.sql(nextIdSql)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> {
+                    comment.setId(id);
+                    comment.setVersion(0L);
+                    comment.computeDerivedColumns();
+                    DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(INSERT).bind("id", id);
+                    spec = bind(spec, "pageUrl", comment.getPageUrl(), String.class);
+                    spec = bind(spec, "pageKey", comment.getPageKey(), String.class);
+                    spec = bind(spec, "content", comment.getContent(), String.class);
+                    spec = bind(spec, "positionX", comment.getPositionX(), Integer.class);
+                    spec = bind(spec, "positionY", comment.getPositionY(), Integer.class);
+                    spec = bind(spec, "tileX", comment.getTileX(), Integer.class);
+                    spec = bind(spec, "tileY", comment.getTileY(), Integer.class);
+                    spec = bind(spec, "screenshotUrl", comment.getScreenshotUrl(), String.class);
+                    spec = bind(spec, "status", comment.getStatus(), String.class);
+                    spec = bind(spec, "priority", comment.getPriority(), String.class);
+                    spec = bind(spec, "authorName", comment.getAuthorName(), String.class);
+                    spec = bind(spec, "authorEmail", comment.getAuthorEmail(), String.class);
+                    spec = bind(spec, "category", comment.getCategory(), String.class);
+                    spec = bind(spec, "createdAt", toLocal(comment.getCreatedAt()), LocalDateTime.class);
+                    spec = bind(spec, "updatedAt", toLocal(comment.getUpdatedAt()), LocalDateTime.class);
+                    spec = bind(spec, "resolution", comment.getResolution(), String.class);
+                    spec = bind(spec, "assignedTo", comment.getAssignedTo(), String.class);
+                    spec = bind(spec, "version", comment.getVersion(), Long.class);
+                    spec = bind(spec, "changeSeq", comment.getChangeSeq(), Long.class);
+                    return spec.fetch().rowsUpdated().thenReturn(comment);
+                });
+    }
+
+    /**
+     * Same single-statement partial update as {@code CommentRepositoryCustomImpl.patch}: non-null fields only,
+     * the pin tiles kept in step with the position, and the version bumped.
+     *
+     * @return the number of rows updated; 0 if the comment is missing, deleted or not at the expected version
+     */
+    public Mono<Long> patch(Long id, Comment updates, Long expectedVersion, Date updatedAt, long changeSeq) {
+        List<String> assignments = new ArrayList<>();
+        Map<String, Object> values = new LinkedHashMap<>();
+        PATCHABLE.forEach((column, getter) -> {
+            Object value = getter.apply(updates);
+            if (value != null) {
+                assignments.add(column + " = :" + column);
+                values.put(column, value);
+            }
+        });
+        if (updates.getPositionX() != null) {
+            assignments.add("tile_x = :tile_x");
+            values.put("tile_x", PinTile.of(updates.getPositionX()));
+        }
+        if (updates.getPositionY() != null) {
+            assignments.add("tile_y = :tile_y");
+            values.put("tile_y", PinTile.of(updates.getPositionY()));
+        }
+        StringBuilder sql = new StringBuilder("update comments set ");
+        assignments.forEach(assignment -> sql.append(assignment).append(", "));
+        sql.append("updated_at = :updatedAt, change_seq = :changeSeq, version = version + 1 where id = :id and ")
+                .append(LIVE);
+        if (expectedVersion != null) {
+            sql.append(" and version = :expectedVersion");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            spec = spec.bind(value.getKey(), value.getValue());
+        }
+        spec = spec.bind("updatedAt", toLocal(updatedAt))
+                .bind("changeSeq", changeSeq)
+                .bind("id", id);
+        if (expectedVersion != null) {
+            spec = spec.bind("expectedVersion", expectedVersion);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> softDeleteById(Long id, Date deletedAt, long changeSeq) {
+        return databaseClient.sql("update comments set deleted_at = :deletedAt, change_seq = :changeSeq, "
+                        + "version = version + 1 where id = :id and " + LIVE)
+                .bind("deletedAt", toLocal(deletedAt))
+                .bind("changeSeq", changeSeq)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Matching comments in id order, fetched from the driver in chunks as the subscriber requests them. Null
+     * filters are ignored.
+     */
+    public Flux<Comment> streamForExport(String status, String pageKey, Date from, Date to) {
+        StringBuilder sql = new StringBuilder("select " + COLUMNS + " from comments where " + LIVE);
+        if (status != null) {
+            sql.append(" and status = :status");
+        }
+        if (pageKey != null) {
+            sql.append(" and page_key = :pageKey");
+        }
+        if (from != null) {
+            sql.append(" and created_at >= :from");
+        }
+        if (to != null) {
+            sql.append(" and created_at < :to");
+        }
+        sql.append(" order by id");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        if (status != null) {
+            spec = spec.bind("status", status);
+        }
+        if (pageKey != null) {
+            spec = spec.bind("pageKey", pageKey);
+        }
+        if (from != null) {
+            spec = spec.bind("from", toLocal(from));
+        }
+        if (to != null) {
+            spec = spec.bind("to", toLocal(to));
+        }
+        return spec.filter(statement -> statement.fetchSize(EXPORT_FETCH_SIZE))
+                .map((row, metadata) -> toComment(row))
+                .all();
+    }
+
+    private DatabaseClient.GenericExecuteSpec pageQuery(String columns, String pageKey, String status,
+                                                        CommentCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("select " + columns + " from comments where " + LIVE);
+        if (pageKey != null) {
+            sql.append(" and page_key = :pageKey");
+        }
+        if (status != null) {
+            sql.append(" and status = :status");
+        }
+        if (after != null) {
+            sql.append(" and (created_at > :createdAt or (created_at = :createdAt and id > :id))");
+        }
+        sql.append(" order by created_at, id limit :limit");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        if (pageKey != null) {
+            spec = spec.bind("pageKey", pageKey);
+        }
+        if (status != null) {
+            spec = spec.bind("status", status);
+        }
+        if (after != null) {
+            spec = spec.bind("createdAt", toLocal(after.createdAt())).bind("id", after.id());
+        }
+        return spec.bind("limit", limit);
+    }
+
+    private static Comment toComment(Row row) {
+        Comment comment = new Comment();
+        comment.setId(row.get("id", Long.class));
+        comment.setPageUrl(row.get("page_url", String.class));
+        comment.setContent(row.get("content", String.class));
+        comment.setPositionX(row.get("position_x", Integer.class));
+        comment.setPositionY(row.get("position_y", Integer.class));
+        comment.setScreenshotUrl(row.get("screenshot_url", String.class));
+        comment.setStatus(row.get("status", String.class));
+        comment.setPriority(row.get("priority", String.class));
+        comment.setAuthorName(row.get("author_name", String.class));
+        comment.setAuthorEmail(row.get("author_email", String.class));
+        comment.setCategory(row.get("category", String.class));
+        comment.setCreatedAt(toDate(row.get("created_at", LocalDateTime.class)));
+        comment.setUpdatedAt(toDate(row.get("updated_at", LocalDateTime.class)));
+        comment.setResolution(row.get("resolution", String.class));
+        comment.setAssignedTo(row.get("assigned_to", String.class));
+        comment.setVersion(row.get("version", Long.class));
+        comment.computeDerivedColumns();
+        return comment;
+    }
+
+    private static String nextValue(String sequence, boolean postgres) {
+        return postgres ? "nextval('" + sequence + "')" : "next value for " + sequence;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                          Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return date == null ? null : LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return dateTime == null ? null : Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    // sum(bigint) comes back as numeric, not bigint.
+    private static Long toLong(Number value) {
+        return value == null ? null : value.longValue();
+    }
+}
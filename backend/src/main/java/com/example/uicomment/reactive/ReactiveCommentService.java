@@ -0,0 +1,172 @@
+package com.example.uicomment.reactive;
+
+import com.example.uicomment.dto.CommentPage;
+import com.example.uicomment.dto.CommentSummary;
+import com.example.uicomment.dto.PatchResult;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.PageKey;
+import com.example.uicomment.repository.CollectionVersion;
+import com.example.uicomment.service.CommentCursor;
+import com.example.uicomment.service.CommentExportService;
+import com.example.uicomment.service.CommentService;
+import com.example.uicomment.service.ExportFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reactive counterpart of {@link CommentService} with the same semantics: keyset pages, soft deletes, single
+ * statement patches with an optional version precondition, and a change sequence stamped on every write. There
+ * is no read cache and no change events; each node reads the database directly.
+ */
+@Service
+public class ReactiveCommentService {
+
+    @Autowired
+    private ReactiveCommentRepository commentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public Mono<CommentPage<Comment>> getAllComments(String cursor, int limit) {
+        int size = CommentService.clampPageSize(limit);
+        return toPage(commentRepository.findPage(null, null, decode(cursor), size + 1), size, CommentCursor::after);
+    }
+
+    public Mono<Comment> getCommentById(Long id) {
+        return commentRepository.findById(id);
+    }
+
+    public Mono<CommentPage<Comment>> getCommentsByPageUrl(String pageUrl, String cursor, int limit) {
+        int size = CommentService.clampPageSize(limit);
+        return toPage(commentRepository.findPage(PageKey.of(pageUrl), null, decode(cursor), size + 1), size,
+                CommentCursor::after);
+    }
+
+    public Mono<CommentPage<CommentSummary>> getCommentSummariesByPageUrl(String pageUrl, String cursor, int limit) {
+        int size = CommentService.clampPageSize(limit);
+        return toPage(commentRepository.findSummaryPage(PageKey.of(pageUrl), null, decode(cursor), size + 1), size,
+                CommentCursor::after);
+    }
+
+    public Mono<CommentPage<Comment>> getCommentsByStatus(String status, String cursor, int limit) {
+        int size = CommentService.clampPageSize(limit);
+        return toPage(commentRepository.findPage(null, status, decode(cursor), size + 1), size, CommentCursor::after);
+    }
+
+    public Mono<CommentPage<CommentSummary>> getCommentSummariesByStatus(String status, String cursor, int limit) {
+        int size = CommentService.clampPageSize(limit);
+        return toPage(commentRepository.findSummaryPage(null, status, decode(cursor), size + 1), size,
+                CommentCursor::after);
+    }
+
+    public Mono<CollectionVersion> getCollectionVersion() {
+        return commentRepository.findCollectionVersion(null, null);
+    }
+
+    public Mono<CollectionVersion> getCollectionVersionByPageUrl(String pageUrl) {
+        return commentRepository.findCollectionVersion(PageKey.of(pageUrl), null);
+    }
+
+    public Mono<CollectionVersion> getCollectionVersionByStatus(String status) {
+        return commentRepository.findCollectionVersion(null, status);
+    }
+
+    public Mono<Comment> createComment(Comment comment) {
+        Date now = new Date();
+        comment.setVersion(null);
+        comment.setCreatedAt(now);
+        comment.setUpdatedAt(now);
+        return commentRepository.nextChangeSeq().flatMap(changeSeq -> {
+            comment.setChangeSeq(changeSeq);
+            return commentRepository.insert(comment);
+        });
+    }
+
+    /**
+     * Applies the non-null fields of {@code updates} and returns the updated comment; empty if there is none.
+     * One UPDATE and one read in a transaction, instead of the read-modify-write of the JPA variant.
+     */
+    @Transactional
+    public Mono<Comment> updateComment(Long id, Comment updates) {
+        return commentRepository.nextChangeSeq()
+                .flatMap(changeSeq -> commentRepository.patch(id, updates, null, new Date(), changeSeq))
+                .flatMap(updated -> updated == 0 ? Mono.empty() : commentRepository.findById(id));
+    }
+
+    /**
+     * See {@link CommentService#patchComment}: with an expected version the update only applies if nobody
+     * changed the comment since, and the row is then read only to tell a conflict apart from a missing comment.
+     */
+    public Mono<PatchResult> patchComment(Long id, Comment updates, Long expectedVersion) {
+        return commentRepository.nextChangeSeq()
+                .flatMap(changeSeq -> commentRepository.patch(id, updates, expectedVersion, new Date(), changeSeq))
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        return Mono.just(new PatchResult(PatchResult.Status.UPDATED,
+                                expectedVersion == null ? null : expectedVersion + 1));
+                    }
+                    if (expectedVersion == null) {
+                        return Mono.just(new PatchResult(PatchResult.Status.NOT_FOUND, null));
+                    }
+                    return commentRepository.existsById(id).map(exists -> new PatchResult(
+                            exists ? PatchResult.Status.CONFLICT : PatchResult.Status.NOT_FOUND, null));
+                });
+    }
+
+    // Soft delete, as in the JPA variant; deleting a missing comment is not an error.
+    public Mono<Void> deleteComment(Long id) {
+        return commentRepository.nextChangeSeq()
+                .flatMap(changeSeq -> commentRepository.softDeleteById(id, new Date(), changeSeq))
+                .then();
+    }
+
+    /**
+     * Export lines in the format of {@link CommentExportService}, produced as the client consumes them: rows are
+     * requested from the driver only as fast as the response is written.
+     */
+    @Transactional(readOnly = true)
+    public Flux<String> exportComments(ExportFormat format, String status, String pageUrl, Date from, Date to) {
+        Flux<Comment> comments = commentRepository.streamForExport(status, PageKey.of(pageUrl), from, to);
+        if (format == ExportFormat.CSV) {
+            return Flux.concat(Mono.just(CommentExportService.CSV_HEADER + "\n"),
+                    comments.map(CommentExportService::csvRow));
+        }
+        return comments.map(this::toJsonLine);
+    }
+
+    private String toJsonLine(Comment comment) {
+        try {
+            return objectMapper.writeValueAsString(comment) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static CommentCursor decode(String cursor) {
+        return cursor == null || cursor.isEmpty() ? null : CommentCursor.decode(cursor);
+    }
+
+    private static <T> Mono<CommentPage<T>> toPage(Flux<T> rows, int size, Function<T, CommentCursor> cursorOf) {
+        return rows.collectList().map(list -> {
+            if (list.size() <= size) {
+                return new CommentPage<>(list, null);
+            }
+            List<T> items = new ArrayList<>(list.subList(0, size));
+            return new CommentPage<>(items, cursorOf.apply(items.get(size - 1)).encode());
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.uicomment.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+// Same CORS policy as the servlet application's WebConfig.
+@Configuration
+public class ReactiveWebConfig {
+
+    @Bean
+    public WebFluxConfigurer corsConfigurer() {
+        return new WebFluxConfigurer() {
+            @Override
+            public void addCorsMappings(CorsRegistry registry) {
+                registry.addMapping("/**")
+                        .allowedOriginPatterns("*")
+                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH", "HEAD")
+                        .allowedHeaders("*")
+                        .allowCredentials(true)
+                        .exposedHeaders("*")
+                        .maxAge(3600);
+            }
+        };
+    }
+}
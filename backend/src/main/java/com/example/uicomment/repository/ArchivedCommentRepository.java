@@ -0,0 +1,23 @@
+package com.example.uicomment.repository;
+
+import com.example.uicomment.model.ArchivedComment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ArchivedCommentRepository extends JpaRepository<ArchivedComment, Long> {
+    // Copies rows server-side with INSERT ... SELECT; the caller deletes them from comments in the same transaction.
+    @Modifying
+    @Query(value = "insert into comments_archive (id, page_url, page_key, content, positionx, positiony, "
+            + "screenshot_url, status, priority, author_name, author_email, category, created_at, updated_at, "
+            + "resolution, assigned_to, archived_at) "
+            + "select id, page_url, page_key, content, positionx, positiony, screenshot_url, status, priority, "
+            + "author_name, author_email, category, created_at, updated_at, resolution, assigned_to, current_timestamp "
+            + "from comments where id in (:ids)", nativeQuery = true)
+    int copyFromComments(@Param("ids") Collection<Long> ids);
+}
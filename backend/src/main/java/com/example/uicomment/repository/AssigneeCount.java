@@ -0,0 +1,7 @@
+package com.example.uicomment.repository;
+
+/**
+ * Number of comments assigned to one person.
+ */
+public record AssigneeCount(String assignedTo, Long count) {
+}
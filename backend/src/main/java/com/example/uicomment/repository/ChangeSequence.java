@@ -0,0 +1,78 @@
+package com.example.uicomment.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Database sequence behind {@code Comment.changeSeq}. One value is drawn per write transaction and shared by all
+ * rows it touches; the change feed orders by (change_seq, id), so equal values are fine. Being a database
+ * sequence, it is monotonic across all nodes.
+ * <p>
+ * Hibernate does not create sequences no id uses. When it manages the schema ({@code ddl-auto} create or update)
+ * the sequence is created here, and rows written before the column existed are stamped on startup; otherwise
+ * migration 007 does both.
+ */
+@Component
+public class ChangeSequence {
+    public static final String NAME = "comment_change_seq";
+    private static final Set<String> SCHEMA_MANAGED = Set.of("create", "create-drop", "update");
+    private static final Logger log = LoggerFactory.getLogger(ChangeSequence.class);
+
+    private final boolean schemaManaged;
+    private String nextValueSql;
+    private String nextValueExpression;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public ChangeSequence(@Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        this.schemaManaged = SCHEMA_MANAGED.contains(ddlAuto);
+    }
+
+    @PostConstruct
+    void init() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        nextValueSql = dialect.getSequenceSupport().getSequenceNextValString(NAME);
+        nextValueExpression = dialect.getSequenceSupport().getSelectSequenceNextValString(NAME);
+        if (schemaManaged) {
+            jdbcTemplate.execute("create sequence if not exists " + NAME);
+        }
+    }
+
+    // Runs inside the caller's transaction, on its connection.
+    public long next() {
+        return ((Number) entityManager.createNativeQuery(nextValueSql).getSingleResult()).longValue();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void stampUnsequencedRows() {
+        if (!schemaManaged) {
+            return;
+        }
+        int stamped = jdbcTemplate.update("update comments set change_seq = " + nextValueExpression
+                + " where change_seq is null");
+        if (stamped > 0) {
+            log.info("Stamped {} existing comments with a change sequence", stamped);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.uicomment.repository;
+
+import java.util.Date;
+
+/**
+ * Change marker for a set of comments, computed by one aggregate query without loading rows. Any insert
+ * raises {@code maxId}, any update bumps a row's {@code @Version} and so {@code versionSum}, and any delete
+ * lowers {@code count}, so the ETag changes whenever the set does.
+ * <p>
+ * {@code lastModified} does not move on deletes; it is informational and must not be used on its own to
+ * answer {@code If-Modified-Since}.
+ */
+public record CollectionVersion(Long count, Long maxId, Long versionSum, Date lastModified) {
+
+    // Weak: the same state may be sent gzip-encoded or not, which a strong tag would have to tell apart.
+    public String eTag() {
+        return "W/\"" + count + "-" + (maxId != null ? maxId : 0) + "-" + (versionSum != null ? versionSum : 0) + "\"";
+    }
+}
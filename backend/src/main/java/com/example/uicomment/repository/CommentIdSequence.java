@@ -0,0 +1,69 @@
+package com.example.uicomment.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Keeps {@code comments_seq} above every existing id. Comments used to take identity ids, and when Hibernate
+ * manages the schema ({@code ddl-auto} create or update) it creates the sequence at 1, so the first inserts on an
+ * upgraded database would collide with the old rows. On startup, before any insert, the sequence is moved past
+ * {@code MAX(id)} if it is not already; otherwise migration 003 does the same.
+ */
+@Component
+public class CommentIdSequence {
+    public static final String NAME = "comments_seq";
+    // Must match the allocation size of Comment's @SequenceGenerator.
+    static final int ALLOCATION_SIZE = 50;
+    private static final Set<String> SCHEMA_MANAGED = Set.of("create", "create-drop", "update");
+    private static final Logger log = LoggerFactory.getLogger(CommentIdSequence.class);
+
+    private final boolean schemaManaged;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public CommentIdSequence(@Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        this.schemaManaged = SCHEMA_MANAGED.contains(ddlAuto);
+    }
+
+    @PostConstruct
+    void init() {
+        if (schemaManaged) {
+            moveAboveExistingIds();
+        }
+    }
+
+    /**
+     * Hibernate's pooled optimizer hands out the {@value #ALLOCATION_SIZE} ids ending at the value the sequence
+     * returns, so that value must be at least {@code MAX(id) + ALLOCATION_SIZE}. Drawing it to check only skips
+     * one block.
+     */
+    void moveAboveExistingIds() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from comments", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        Long next = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(NAME),
+                Long.class);
+        long floor = maxId + ALLOCATION_SIZE;
+        if (next != null && next >= floor) {
+            return;
+        }
+        jdbcTemplate.execute("alter sequence " + NAME + " restart with " + floor);
+        log.info("Moved {} from {} to {}, above the existing comment ids", NAME, next, floor);
+    }
+}
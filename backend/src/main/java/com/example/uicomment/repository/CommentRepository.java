@@ -1,13 +1,202 @@
 package com.example.uicomment.repository;
 
+import com.example.uicomment.dto.CommentSummary;
+import com.example.uicomment.dto.FacetCount;
 import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.CommentFacets;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByPageUrl(String pageUrl);
-    List<Comment> findByStatus(String status);
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
+    // Keyset pagination on (createdAt, id); pass PageRequest.of(0, size) to bound the slice.
+    @Query("select c from Comment c order by c.createdAt asc, c.id asc")
+    List<Comment> findFirstPage(Pageable pageable);
+
+    @Query("select c from Comment c where c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id) "
+            + "order by c.createdAt asc, c.id asc")
+    List<Comment> findPageAfter(@Param("createdAt") Date createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("select c from Comment c where c.pageKey = :pageKey order by c.createdAt asc, c.id asc")
+    List<Comment> findFirstPageByPageKey(@Param("pageKey") String pageKey, Pageable pageable);
+
+    @Query("select c from Comment c where c.pageKey = :pageKey "
+            + "and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id)) "
+            + "order by c.createdAt asc, c.id asc")
+    List<Comment> findPageByPageKeyAfter(@Param("pageKey") String pageKey, @Param("createdAt") Date createdAt,
+                                         @Param("id") Long id, Pageable pageable);
+
+    // Summary projections of the page and status queries above; only the pin columns are selected.
+    @Query("select new com.example.uicomment.dto.CommentSummary(c.id, c.positionX, c.positionY, c.status, "
+            + "c.priority, c.createdAt) from Comment c where c.pageKey = :pageKey order by c.createdAt asc, c.id asc")
+    List<CommentSummary> findFirstSummaryPageByPageKey(@Param("pageKey") String pageKey, Pageable pageable);
+
+    @Query("select new com.example.uicomment.dto.CommentSummary(c.id, c.positionX, c.positionY, c.status, "
+            + "c.priority, c.createdAt) from Comment c where c.pageKey = :pageKey "
+            + "and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id)) "
+            + "order by c.createdAt asc, c.id asc")
+    List<CommentSummary> findSummaryPageByPageKeyAfter(@Param("pageKey") String pageKey,
+                                                       @Param("createdAt") Date createdAt,
+                                                       @Param("id") Long id, Pageable pageable);
+
+    @Query("select new com.example.uicomment.dto.CommentSummary(c.id, c.positionX, c.positionY, c.status, "
+            + "c.priority, c.createdAt) from Comment c where c.status = :status order by c.createdAt asc, c.id asc")
+    List<CommentSummary> findFirstSummaryPageByStatus(@Param("status") String status, Pageable pageable);
+
+    @Query("select new com.example.uicomment.dto.CommentSummary(c.id, c.positionX, c.positionY, c.status, "
+            + "c.priority, c.createdAt) from Comment c where c.status = :status "
+            + "and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id)) "
+            + "order by c.createdAt asc, c.id asc")
+    List<CommentSummary> findSummaryPageByStatusAfter(@Param("status") String status,
+                                                      @Param("createdAt") Date createdAt,
+                                                      @Param("id") Long id, Pageable pageable);
+
+    // Rows written before page_key or the tile columns existed; see PageKeyBackfill.
+    List<Comment> findByPageKeyIsNullOrTileXIsNull(Pageable pageable);
+
+    /**
+     * Pins of one page inside a rectangle. The tile bounds must cover the rectangle; they let the
+     * (page_key, tile_y, tile_x) index narrow the scan before the exact position filter.
+     */
+    @Query("select new com.example.uicomment.dto.CommentSummary(c.id, c.positionX, c.positionY, c.status, "
+            + "c.priority, c.createdAt) from Comment c where c.pageKey = :pageKey "
+            + "and c.tileY between :minTileY and :maxTileY and c.tileX between :minTileX and :maxTileX "
+            + "and c.positionX between :minX and :maxX and c.positionY between :minY and :maxY "
+            + "order by c.id asc")
+    List<CommentSummary> findSummariesInViewport(@Param("pageKey") String pageKey,
+                                                 @Param("minTileX") int minTileX, @Param("maxTileX") int maxTileX,
+                                                 @Param("minTileY") int minTileY, @Param("maxTileY") int maxTileY,
+                                                 @Param("minX") int minX, @Param("maxX") int maxX,
+                                                 @Param("minY") int minY, @Param("maxY") int maxY,
+                                                 Pageable pageable);
+
+    // Per-tile pin counts and position sums over the same rectangle, for clustering.
+    @Query("select new com.example.uicomment.repository.TileAggregate(c.tileX, c.tileY, count(c), "
+            + "sum(c.positionX), sum(c.positionY), min(c.id)) from Comment c where c.pageKey = :pageKey "
+            + "and c.tileY between :minTileY and :maxTileY and c.tileX between :minTileX and :maxTileX "
+            + "and c.positionX between :minX and :maxX and c.positionY between :minY and :maxY "
+            + "group by c.tileX, c.tileY")
+    List<TileAggregate> aggregateTilesInViewport(@Param("pageKey") String pageKey,
+                                                 @Param("minTileX") int minTileX, @Param("maxTileX") int maxTileX,
+                                                 @Param("minTileY") int minTileY, @Param("maxTileY") int maxTileY,
+                                                 @Param("minX") int minX, @Param("maxX") int maxX,
+                                                 @Param("minY") int minY, @Param("maxY") int maxY);
+
+    @Query("select c from Comment c where c.status = :status order by c.createdAt asc, c.id asc")
+    List<Comment> findFirstPageByStatus(@Param("status") String status, Pageable pageable);
+
+    @Query("select c from Comment c where c.status = :status "
+            + "and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id)) "
+            + "order by c.createdAt asc, c.id asc")
+    List<Comment> findPageByStatusAfter(@Param("status") String status, @Param("createdAt") Date createdAt,
+                                        @Param("id") Long id, Pageable pageable);
+
+    // Change markers for conditional GETs of the list endpoints; see CollectionVersion.
+    @Query("select new com.example.uicomment.repository.CollectionVersion(count(c), max(c.id), sum(c.version), "
+            + "max(c.updatedAt)) from Comment c")
+    CollectionVersion findCollectionVersion();
+
+    @Query("select new com.example.uicomment.repository.CollectionVersion(count(c), max(c.id), sum(c.version), "
+            + "max(c.updatedAt)) from Comment c where c.pageKey = :pageKey")
+    CollectionVersion findCollectionVersionByPageKey(@Param("pageKey") String pageKey);
+
+    @Query("select new com.example.uicomment.repository.CollectionVersion(count(c), max(c.id), sum(c.version), "
+            + "max(c.updatedAt)) from Comment c where c.status = :status")
+    CollectionVersion findCollectionVersionByStatus(@Param("status") String status);
+
+    @Query("select new com.example.uicomment.model.CommentFacets(c.pageKey, c.status, c.priority, c.category, "
+            + "c.assignedTo) from Comment c where c.id = :id")
+    Optional<CommentFacets> findFacetsById(@Param("id") Long id);
+
+    // Full recounts behind the dashboard counters; see CommentStatsService.
+    @Query("select new com.example.uicomment.dto.FacetCount(c.status, c.priority, c.category, count(c)) "
+            + "from Comment c group by c.status, c.priority, c.category")
+    List<FacetCount> countByFacets();
+
+    @Query("select new com.example.uicomment.repository.PageStatusCount(c.pageKey, c.status, count(c)) "
+            + "from Comment c group by c.pageKey, c.status")
+    List<PageStatusCount> countByPageKeyAndStatus();
+
+    @Query("select new com.example.uicomment.repository.AssigneeCount(c.assignedTo, count(c)) "
+            + "from Comment c where c.assignedTo is not null group by c.assignedTo")
+    List<AssigneeCount> countByAssignee();
+
+    /**
+     * Soft delete in one UPDATE; the rows stay behind as tombstones for the change feed. Pending changes are
+     * flushed first and the persistence context is cleared after, so no managed copy of a deleted row is served
+     * from it.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Comment c set c.deletedAt = :deletedAt, c.changeSeq = :changeSeq, c.version = c.version + 1 "
+            + "where c.id in :ids and c.deletedAt is null")
+    int softDeleteByIdIn(@Param("ids") Collection<Long> ids, @Param("deletedAt") Date deletedAt,
+                         @Param("changeSeq") long changeSeq);
+
+    // Chunks for the bulk delete job; null filters are ignored.
+    @Query("select c from Comment c where (:pageKey is null or c.pageKey = :pageKey) "
+            + "and (:status is null or c.status = :status) order by c.id asc")
+    List<Comment> findForBulkDelete(@Param("pageKey") String pageKey, @Param("status") String status,
+                                    Pageable pageable);
+
+    @Query("select count(c) from Comment c where (:pageKey is null or c.pageKey = :pageKey) "
+            + "and (:status is null or c.status = :status)")
+    long countForBulkDelete(@Param("pageKey") String pageKey, @Param("status") String status);
+
+    // Chunks for archival, served by the (status, updated_at) index.
+    @Query("select c from Comment c where c.status in :statuses and c.updatedAt < :cutoff order by c.id asc")
+    List<Comment> findArchivable(@Param("statuses") Collection<String> statuses, @Param("cutoff") Date cutoff,
+                                 Pageable pageable);
+
+    @Query("select count(c) from Comment c where c.status in :statuses and c.updatedAt < :cutoff")
+    long countArchivable(@Param("statuses") Collection<String> statuses, @Param("cutoff") Date cutoff);
+
+    // Native: soft-deleted rows are invisible to entity queries.
+    @Query(value = "select id from comments where deleted_at < :cutoff order by id limit :limit", nativeQuery = true)
+    List<Long> findPurgeableIds(@Param("cutoff") Date cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from comments where id in (:ids)", nativeQuery = true)
+    int hardDeleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Change feed in (change_seq, id) order, tombstones included, hence native; see CommentChangeService.
+    @Query(value = "select * from comments where change_seq > :seq or (change_seq = :seq and id > :id) "
+            + "order by change_seq, id limit :limit", nativeQuery = true)
+    List<Comment> findChangesAfter(@Param("seq") long seq, @Param("id") long id, @Param("limit") int limit);
+
+    @Query(value = "select * from comments where page_key = :pageKey "
+            + "and (change_seq > :seq or (change_seq = :seq and id > :id)) "
+            + "order by change_seq, id limit :limit", nativeQuery = true)
+    List<Comment> findChangesAfterByPageKey(@Param("pageKey") String pageKey, @Param("seq") long seq,
+                                            @Param("id") long id, @Param("limit") int limit);
+
+    /**
+     * Scrolls over matching comments for bulk export. Null filters are ignored. The caller must consume the
+     * stream inside a transaction and close it; rows are fetched from the driver in chunks of the fetch size.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from Comment c where (:status is null or c.status = :status) "
+            + "and (:pageKey is null or c.pageKey = :pageKey) "
+            + "and (:from is null or c.createdAt >= :from) "
+            + "and (:to is null or c.createdAt < :to) "
+            + "order by c.id asc")
+    Stream<Comment> streamForExport(@Param("status") String status, @Param("pageKey") String pageKey,
+                                    @Param("from") Date from, @Param("to") Date to);
 }
@@ -0,0 +1,16 @@
+package com.example.uicomment.repository;
+
+import com.example.uicomment.model.Comment;
+
+import java.util.Date;
+
+public interface CommentRepositoryCustom {
+
+    /**
+     * Issues a single UPDATE that sets only the non-null fields of {@code updates}, bumps the version and sets
+     * {@code updatedAt} and {@code changeSeq}. When {@code expectedVersion} is given the row must still carry that version.
+     *
+     * @return the number of rows changed: 0 when no row matched the id (and version)
+     */
+    int patch(Long id, Comment updates, Long expectedVersion, Date updatedAt, long changeSeq);
+}
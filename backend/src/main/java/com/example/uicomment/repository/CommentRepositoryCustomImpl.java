@@ -0,0 +1,69 @@
+package com.example.uicomment.repository;
+
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.PinTile;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
+    // Same field set as CommentService's partial PUT; pageUrl (and so pageKey) is not patchable.
+    private static final Map<String, Function<Comment, Object>> PATCHABLE = new LinkedHashMap<>();
+
+    static {
+        PATCHABLE.put("content", Comment::getContent);
+        PATCHABLE.put("positionX", Comment::getPositionX);
+        PATCHABLE.put("positionY", Comment::getPositionY);
+        PATCHABLE.put("screenshotUrl", Comment::getScreenshotUrl);
+        PATCHABLE.put("status", Comment::getStatus);
+        PATCHABLE.put("priority", Comment::getPriority);
+        PATCHABLE.put("authorName", Comment::getAuthorName);
+        PATCHABLE.put("authorEmail", Comment::getAuthorEmail);
+        PATCHABLE.put("category", Comment::getCategory);
+        PATCHABLE.put("resolution", Comment::getResolution);
+        PATCHABLE.put("assignedTo", Comment::getAssignedTo);
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patch(Long id, Comment updates, Long expectedVersion, Date updatedAt, long changeSeq) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Comment> update = cb.createCriteriaUpdate(Comment.class);
+        Root<Comment> root = update.from(Comment.class);
+
+        PATCHABLE.forEach((attribute, getter) -> {
+            Object value = getter.apply(updates);
+            if (value != null) {
+                update.set(attribute, value);
+            }
+        });
+        // Bulk updates skip entity callbacks, so keep the pin tile in step with the position here.
+        if (updates.getPositionX() != null) {
+            update.set(root.<Integer>get("tileX"), PinTile.of(updates.getPositionX()));
+        }
+        if (updates.getPositionY() != null) {
+            update.set(root.<Integer>get("tileY"), PinTile.of(updates.getPositionY()));
+        }
+        update.set(root.<Date>get("updatedAt"), updatedAt);
+        update.set(root.<Long>get("changeSeq"), changeSeq);
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+
+        // Spelled out: bulk updates are not guaranteed to carry the entity's @SQLRestriction.
+        Predicate match = cb.and(cb.equal(root.get("id"), id), cb.isNull(root.get("deletedAt")));
+        if (expectedVersion != null) {
+            match = cb.and(match, cb.equal(root.get("version"), expectedVersion));
+        }
+        update.where(match);
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.uicomment.repository;
+
+/**
+ * Number of comments of one page with one status.
+ */
+public record PageStatusCount(String pageKey, String status, Long count) {
+}
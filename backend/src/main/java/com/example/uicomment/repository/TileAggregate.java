@@ -0,0 +1,8 @@
+package com.example.uicomment.repository;
+
+/**
+ * Pins of one page that fall into one tile of a viewport: how many, the sum of their positions (for the
+ * centroid) and the lowest id (the pin itself when the tile holds just one).
+ */
+public record TileAggregate(Integer tileX, Integer tileY, Long count, Long sumX, Long sumY, Long minId) {
+}
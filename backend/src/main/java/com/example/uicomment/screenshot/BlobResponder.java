@@ -0,0 +1,96 @@
+package com.example.uicomment.screenshot;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes an immutable blob to the response with conditional GET ({@code If-None-Match}), single byte-range
+ * requests ({@code Range}, {@code If-Range}) and zero-copy transfer.
+ * <p>
+ * On Tomcat's NIO connector the file is handed to the connector's sendfile support, so bytes go from the
+ * page cache to the socket without entering the JVM. Elsewhere (tests, other containers) the body is copied
+ * with {@link FileChannel#transferTo}.
+ */
+public final class BlobResponder {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Content-addressed: the bytes behind a URL never change.
+    private static final String CACHE_FOREVER = "public, max-age=31536000, immutable";
+
+    private BlobResponder() {}
+
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path file, String etag,
+                            String contentType) throws IOException {
+        long length = Files.size(file);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_FOREVER);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(etag))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && length > 0 && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Multi-range responses are optional; a full 200 response is a valid answer.
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    if (start >= length || start > end) {
+                        throw new IllegalArgumentException("Unsatisfiable range");
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType);
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toFile().getCanonicalPath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.uicomment.screenshot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed blob store on local disk. A blob is named by the SHA-256 of its bytes and kept under
+ * {@code <root>/<first two hex chars>/<hash>}, so storing the same screenshot twice keeps one copy.
+ * <p>
+ * Uploads are streamed through a fixed direct buffer into a temporary file while hashing, then moved into
+ * place atomically; no upload is ever held in heap.
+ */
+@Component
+public class BlobStore {
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+    private final long maxSize;
+
+    public BlobStore(@Value("${app.screenshots.dir:${java.io.tmpdir}/ui-comment-screenshots}") Path root,
+                     @Value("${app.screenshots.max-size:10MB}") DataSize maxSize) throws IOException {
+        this.root = root;
+        this.incoming = Files.createDirectories(root.resolve("incoming"));
+        this.maxSize = maxSize.toBytes();
+    }
+
+    /**
+     * @throws BlobTooLargeException if the stream is longer than {@code app.screenshots.max-size}
+     */
+    public StoredBlob store(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        long size = 0;
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ReadableByteChannel source = Channels.newChannel(in);
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                while (source.read(buffer) >= 0) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxSize) {
+                        throw new BlobTooLargeException(maxSize);
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (Files.exists(target)) {
+                return new StoredBlob(hash, size, true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Another upload of the same content won the race.
+                return new StoredBlob(hash, size, true);
+            }
+            return new StoredBlob(hash, size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Optional<Path> find(String hash) {
+        if (!isHash(hash)) {
+            return Optional.empty();
+        }
+        Path path = pathOf(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    public Optional<Path> findThumbnail(String hash) {
+        if (!isHash(hash)) {
+            return Optional.empty();
+        }
+        Path path = thumbnailPathOf(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    Path thumbnailPathOf(String hash) {
+        return pathOf(hash).resolveSibling(hash + ".thumb.png");
+    }
+
+    Path incomingDir() {
+        return incoming;
+    }
+
+    public static boolean isHash(String value) {
+        return value != null && HASH.matcher(value).matches();
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.uicomment.screenshot;
+
+public class BlobTooLargeException extends RuntimeException {
+    public BlobTooLargeException(long maxSize) {
+        super("Blob exceeds " + maxSize + " bytes");
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.uicomment.screenshot;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Image formats accepted as screenshots, recognized by their leading bytes rather than the declared
+ * content type.
+ */
+public enum ImageType {
+    PNG("image/png"),
+    JPEG("image/jpeg"),
+    GIF("image/gif"),
+    WEBP("image/webp");
+
+    public static final int HEADER_LENGTH = 12;
+
+    private final String contentType;
+
+    ImageType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static Optional<ImageType> sniff(byte[] header) {
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G')) {
+            return Optional.of(PNG);
+        }
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return Optional.of(JPEG);
+        }
+        if (startsWith(header, 0, 'G', 'I', 'F', '8')) {
+            return Optional.of(GIF);
+        }
+        if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+            return Optional.of(WEBP);
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] header, int offset, int... expected) {
+        if (header.length < offset + expected.length) {
+            return false;
+        }
+        int[] actual = new int[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            actual[i] = header[offset + i] & 0xFF;
+        }
+        return Arrays.equals(actual, expected);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.uicomment.screenshot;
+
+/**
+ * A blob in the store. {@code duplicate} is true when identical content was already stored.
+ */
+public record StoredBlob(String hash, long size, boolean duplicate) {
+}
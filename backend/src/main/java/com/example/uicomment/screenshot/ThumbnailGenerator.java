@@ -0,0 +1,109 @@
+package com.example.uicomment.screenshot;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders PNG thumbnails off the request thread. Decoding a screenshot needs the whole bitmap in heap, so
+ * the pool and its queue are small and fixed; when both are full the thumbnail is skipped and retried the
+ * next time it is requested.
+ */
+@Component
+public class ThumbnailGenerator {
+    public static final int MAX_WIDTH = 320;
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailGenerator.class);
+
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    public ThumbnailGenerator(@Value("${app.screenshots.thumbnail-threads:2}") int threads,
+                              @Value("${app.screenshots.thumbnail-queue:100}") int queueSize) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-thumbnail-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @return false if the queue is full and the thumbnail was not scheduled
+     */
+    public boolean schedule(String hash) {
+        try {
+            executor.execute(() -> generate(hash));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.debug("Thumbnail queue full, skipping {}", hash);
+            return false;
+        }
+    }
+
+    void generate(String hash) {
+        Optional<Path> source = blobStore.find(hash);
+        Path target = blobStore.thumbnailPathOf(hash);
+        if (source.isEmpty() || Files.exists(target)) {
+            return;
+        }
+        try {
+            BufferedImage image = ImageIO.read(source.get().toFile());
+            if (image == null) {
+                // No ImageIO reader for the format (WebP); clients fall back to the full image.
+                return;
+            }
+            Path temp = Files.createTempFile(blobStore.incomingDir(), "thumb-", ".tmp");
+            try {
+                ImageIO.write(scale(image), "png", temp.toFile());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Generated concurrently; either copy is fine.
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to generate thumbnail for {}", hash, e);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image) {
+        int width = Math.min(MAX_WIDTH, image.getWidth());
+        int height = Math.max(1, (int) Math.round(image.getHeight() * (width / (double) image.getWidth())));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.uicomment.search;
+
+import com.example.uicomment.model.Comment;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Embedded Lucene index over comment text. Only the id is stored; callers load the comments themselves.
+ * <p>
+ * Writes are visible to the next search (the searcher is refreshed lazily when something changed) and are
+ * committed to the directory every {@code app.search.commit-interval} and on shutdown. With no
+ * {@code app.search.index-dir} the index lives in memory, matching the default in-memory database.
+ */
+@Component
+public class CommentSearchIndex {
+    static final String ID = "id";
+    static final String STATUS = "status";
+    static final String PRIORITY = "priority";
+    private static final Logger log = LoggerFactory.getLogger(CommentSearchIndex.class);
+    // Field boosts: the comment text matters most, the page URL least.
+    private static final Map<String, Float> TEXT_FIELDS = Map.of(
+            "content", 3f,
+            "resolution", 2f,
+            "category", 1.5f,
+            "assignedTo", 1.5f,
+            "pageUrl", 1f);
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final ScheduledExecutorService committer;
+
+    public CommentSearchIndex(@Value("${app.search.index-dir:}") String indexDir,
+                              @Value("${app.search.commit-interval:30s}") Duration commitInterval) throws IOException {
+        this.directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-search-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = commitInterval.toMillis();
+        committer.scheduleWithFixedDelay(this::commit, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void index(Comment comment) {
+        try {
+            writer.updateDocument(new Term(ID, comment.getId().toString()), toDocument(comment));
+            dirty.set(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void delete(Long id) {
+        try {
+            writer.deleteDocuments(new Term(ID, id.toString()));
+            dirty.set(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void deleteAll() {
+        try {
+            writer.deleteAll();
+            dirty.set(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int size() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * Ranked search. {@code text} uses Lucene's simple query syntax ({@code "phrase"}, {@code -exclude},
+     * {@code prefix*}, {@code a | b}); all terms must match by default. A blank text matches every comment.
+     * Status and priority are exact filters that do not affect ranking.
+     */
+    public SearchHits search(String text, String status, String priority, int offset, int limit) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(parse(text), BooleanClause.Occur.MUST);
+        if (status != null && !status.isBlank()) {
+            query.add(new TermQuery(new Term(STATUS, status)), BooleanClause.Occur.FILTER);
+        }
+        if (priority != null && !priority.isBlank()) {
+            query.add(new TermQuery(new Term(PRIORITY, priority)), BooleanClause.Occur.FILTER);
+        }
+        Query built = query.build();
+        try {
+            if (dirty.compareAndSet(true, false)) {
+                searcherManager.maybeRefreshBlocking();
+            }
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(built, offset + limit);
+                List<SearchHits.Hit> hits = new ArrayList<>(limit);
+                for (int i = offset; i < top.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = top.scoreDocs[i];
+                    Document doc = searcher.storedFields().document(scoreDoc.doc, Set.of(ID));
+                    hits.add(new SearchHits.Hit(Long.parseLong(doc.get(ID)), scoreDoc.score));
+                }
+                return new SearchHits(searcher.count(built), hits);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Query parse(String text) {
+        if (text == null || text.isBlank()) {
+            return new MatchAllDocsQuery();
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, TEXT_FIELDS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        return parser.parse(text);
+    }
+
+    private static Document toDocument(Comment comment) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, comment.getId().toString(), Field.Store.YES));
+        addText(doc, "content", comment.getContent());
+        addText(doc, "resolution", comment.getResolution());
+        addText(doc, "category", comment.getCategory());
+        addText(doc, "assignedTo", comment.getAssignedTo());
+        addText(doc, "pageUrl", comment.getPageUrl());
+        if (comment.getStatus() != null) {
+            doc.add(new StringField(STATUS, comment.getStatus(), Field.Store.NO));
+        }
+        if (comment.getPriority() != null) {
+            doc.add(new StringField(PRIORITY, comment.getPriority(), Field.Store.NO));
+        }
+        return doc;
+    }
+
+    private static void addText(Document doc, String field, String value) {
+        if (value != null) {
+            doc.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Search index commit failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        committer.shutdownNow();
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
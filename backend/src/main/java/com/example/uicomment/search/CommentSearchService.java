@@ -0,0 +1,149 @@
+package com.example.uicomment.search;
+
+import com.example.uicomment.dto.CommentSearchResult;
+import com.example.uicomment.event.CommentChangeEvent;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.repository.CommentRepository;
+import com.example.uicomment.service.CommentService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over comments. The index follows committed {@link CommentChangeEvent}s and can be
+ * rebuilt from the database; it is rebuilt automatically on startup when empty.
+ */
+@Service
+public class CommentSearchService {
+    public static final int MAX_PAGE_SIZE = 100;
+    // Deep pages cost a full top-N collection; past this, refine the query instead.
+    public static final int MAX_RESULT_WINDOW = 10_000;
+    private static final Logger log = LoggerFactory.getLogger(CommentSearchService.class);
+
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "comment-search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    private CommentSearchIndex searchIndex;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @throws IllegalArgumentException when the requested page lies beyond {@link #MAX_RESULT_WINDOW}
+     */
+    public CommentSearchResult search(String text, String status, String priority, int page, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int offset = Math.max(0, page) * limit;
+        if (offset + limit > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Result window exceeds " + MAX_RESULT_WINDOW);
+        }
+        SearchHits hits = searchIndex.search(text, status, priority, offset, limit);
+        List<Long> ids = hits.hits().stream().map(SearchHits.Hit::id).collect(Collectors.toList());
+        Map<Long, Comment> comments = commentRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Comment::getId, Function.identity()));
+
+        List<CommentSearchResult.Hit> results = new ArrayList<>(ids.size());
+        for (SearchHits.Hit hit : hits.hits()) {
+            // A comment deleted after the index was read is simply left out.
+            Comment comment = comments.get(hit.id());
+            if (comment != null) {
+                results.add(new CommentSearchResult.Hit(comment, hit.score()));
+            }
+        }
+        return new CommentSearchResult(hits.total(), results);
+    }
+
+    /**
+     * Replaces the index with the current contents of the database, scrolling rows like the export does.
+     *
+     * @return the number of comments indexed
+     */
+    public long rebuild() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Long indexed = readOnly.execute(status -> {
+            searchIndex.deleteAll();
+            long count = 0;
+            try (Stream<Comment> comments = commentRepository.streamForExport(null, null, null, null)) {
+                Iterator<Comment> iterator = comments.iterator();
+                while (iterator.hasNext()) {
+                    Comment comment = iterator.next();
+                    searchIndex.index(comment);
+                    entityManager.detach(comment);
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Rebuilt search index with {} comments", indexed);
+        return indexed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (searchIndex.size() == 0 && commentRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Index writes run in commit order on a single thread, so the lookup an id-only patch needs stays off the
+     * writer's request thread and cannot overtake a later delete.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangeEvent event) {
+        indexer.execute(() -> apply(event));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexer.shutdown();
+    }
+
+    private void apply(CommentChangeEvent event) {
+        try {
+            if (event.type() == CommentChangeEvent.Type.DELETED) {
+                searchIndex.delete(event.commentId());
+            } else if (event.comment() != null) {
+                searchIndex.index(event.comment());
+            } else {
+                // Only the id is known (single-statement patch); index the committed row.
+                commentService.getCommentById(event.commentId()).ifPresent(searchIndex::index);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to index comment {}; a rebuild picks it up", event.commentId(), e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.uicomment.search;
+
+import java.util.List;
+
+/**
+ * One page of ranked comment ids; {@code total} counts every match, not just this page.
+ */
+public record SearchHits(int total, List<Hit> hits) {
+
+    public record Hit(long id, float score) {
+    }
+}
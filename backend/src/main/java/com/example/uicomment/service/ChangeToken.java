@@ -0,0 +1,28 @@
+package com.example.uicomment.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the change feed: everything up to (changeSeq, id) has been delivered. {@code issuedAt} bounds the
+ * age of the changes not yet delivered; once it is older than the tombstone retention, deletions may have been
+ * purged and the token is refused. Clients only ever see the opaque encoded form.
+ */
+public record ChangeToken(long changeSeq, long id, long issuedAt) {
+
+    public String encode() {
+        String raw = changeSeq + ":" + id + ":" + issuedAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static ChangeToken decode(String token) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed change token");
+        }
+        return new ChangeToken(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.uicomment.service;
+
+public class ChangeTokenExpiredException extends RuntimeException {
+    public ChangeTokenExpiredException() {
+        super("Change token is older than the tombstone retention; start over without one");
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.uicomment.service;
+
+import com.example.uicomment.datasource.ReadRouting;
+import com.example.uicomment.dto.CommentChanges;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.PageKey;
+import com.example.uicomment.repository.CommentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Change feed over {@code Comment.changeSeq}, with soft-deleted rows as tombstones.
+ * <p>
+ * Sequence values are drawn before commit, so a transaction can commit after one holding a higher value. A token
+ * therefore only moves past changes older than {@code app.changes.settle}; newer ones are sent but sent again
+ * next time. This holds as long as write transactions are shorter than the settle time and node clocks agree
+ * within it.
+ */
+@Service
+public class CommentChangeService {
+    private final long settleMillis;
+    private final long retentionMillis;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    public CommentChangeService(@Value("${app.changes.settle:2s}") Duration settle,
+                                @Value("${app.archive.retention:90d}") Duration retention) {
+        this.settleMillis = settle.toMillis();
+        this.retentionMillis = retention.toMillis();
+    }
+
+    /**
+     * @param since   token of the previous call, or null for a snapshot of all live comments
+     * @param pageUrl restricts the feed to one page when given; use the same value with every token
+     * @throws IllegalArgumentException    if the token is malformed
+     * @throws ChangeTokenExpiredException if tombstones the token still needs may have been purged
+     */
+    @Transactional(readOnly = true)
+    public CommentChanges getChanges(String since, String pageUrl, int limit) {
+        // A lagging replica could still miss rows older than the settle time, and the token would skip them.
+        return ReadRouting.onPrimary(() -> readChanges(since, pageUrl, limit));
+    }
+
+    private CommentChanges readChanges(String since, String pageUrl, int limit) {
+        int size = CommentService.clampPageSize(limit);
+        long now = System.currentTimeMillis();
+        boolean snapshot = since == null || since.isEmpty();
+        ChangeToken from = snapshot ? new ChangeToken(0, 0, 0) : ChangeToken.decode(since);
+        if (!snapshot && from.issuedAt() < now - retentionMillis) {
+            throw new ChangeTokenExpiredException();
+        }
+
+        List<Comment> fetched = pageUrl == null
+                ? commentRepository.findChangesAfter(from.changeSeq(), from.id(), size + 1)
+                : commentRepository.findChangesAfterByPageKey(PageKey.of(pageUrl), from.changeSeq(), from.id(),
+                        size + 1);
+        List<Comment> page = fetched.size() > size ? fetched.subList(0, size) : fetched;
+
+        long settledBefore = now - settleMillis;
+        List<Comment> changed = new ArrayList<>(page.size());
+        List<Long> deleted = new ArrayList<>();
+        Comment last = null;
+        int covered = 0;
+        boolean settled = true;
+        for (Comment row : page) {
+            if (row.getDeletedAt() == null) {
+                changed.add(row);
+            } else if (!snapshot) {
+                deleted.add(row.getId());
+            }
+            settled = settled && changedAt(row) < settledBefore;
+            if (settled) {
+                last = row;
+                covered++;
+            }
+        }
+        // Changes past the token are no older than the first one it leaves out.
+        long issuedAt = covered < fetched.size() ? Math.min(settledBefore, changedAt(fetched.get(covered)))
+                : settledBefore;
+        ChangeToken next = last == null
+                ? new ChangeToken(from.changeSeq(), from.id(), Math.max(from.issuedAt(), issuedAt))
+                : new ChangeToken(last.getChangeSeq(), last.getId(), issuedAt);
+        boolean hasMore = fetched.size() > size && covered == size;
+        return new CommentChanges(changed, deleted, next.encode(), hasMore);
+    }
+
+    private static long changedAt(Comment row) {
+        return (row.getDeletedAt() != null ? row.getDeletedAt() : row.getUpdatedAt()).getTime();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.uicomment.service;
+
+import com.example.uicomment.dto.CommentSummary;
+import com.example.uicomment.model.Comment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Keyset position on (createdAt, id). Clients only ever see the opaque encoded form.
+ */
+public record CommentCursor(Date createdAt, Long id) {
+
+    public static CommentCursor after(Comment comment) {
+        return new CommentCursor(comment.getCreatedAt(), comment.getId());
+    }
+
+    public static CommentCursor after(CommentSummary summary) {
+        return new CommentCursor(summary.createdAt(), summary.id());
+    }
+
+    public String encode() {
+        String raw = createdAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static CommentCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new CommentCursor(
+                new Date(Long.parseLong(raw.substring(0, separator))),
+                Long.parseLong(raw.substring(separator + 1)));
+    }
+}
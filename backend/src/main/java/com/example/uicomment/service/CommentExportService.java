@@ -0,0 +1,101 @@
+package com.example.uicomment.service;
+
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.PageKey;
+import com.example.uicomment.repository.CommentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes comments row by row while scrolling the database cursor, so memory use does not grow with
+ * the size of the table. Each row is detached once written to keep the persistence context empty.
+ */
+@Service
+public class CommentExportService {
+    public static final String CSV_HEADER = "id,pageUrl,content,positionX,positionY,screenshotUrl,status,priority,"
+            + "authorName,authorEmail,category,createdAt,updatedAt,resolution,assignedTo";
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, String status, String pageUrl, Date from, Date to, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long rows = 0;
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<Comment> comments = commentRepository.streamForExport(status, PageKey.of(pageUrl), from, to)) {
+            Iterator<Comment> iterator = comments.iterator();
+            while (iterator.hasNext()) {
+                Comment comment = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writer.write(csvRow(comment));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(comment));
+                    writer.write('\n');
+                }
+                entityManager.detach(comment);
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * One CSV line, newline included, in the column order of {@link #CSV_HEADER}.
+     */
+    public static String csvRow(Comment c) {
+        Object[] values = {
+                c.getId(), c.getPageUrl(), c.getContent(), c.getPositionX(), c.getPositionY(), c.getScreenshotUrl(),
+                c.getStatus(), c.getPriority(), c.getAuthorName(), c.getAuthorEmail(), c.getCategory(),
+                formatDate(c.getCreatedAt()), formatDate(c.getUpdatedAt()), c.getResolution(), c.getAssignedTo()
+        };
+        StringBuilder row = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            row.append(csvEscape(values[i]));
+        }
+        return row.append('\n').toString();
+    }
+
+    private static String formatDate(Date date) {
+        return date == null ? null : date.toInstant().toString();
+    }
+
+    static String csvEscape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,45 +1,393 @@
 package com.example.uicomment.service;
 
+import com.example.uicomment.cache.CommentCache;
+import com.example.uicomment.dto.BatchItemResult;
+import com.example.uicomment.dto.CommentCacheStats;
+import com.example.uicomment.dto.CommentPage;
+import com.example.uicomment.dto.CommentSummary;
+import com.example.uicomment.dto.PatchResult;
+import com.example.uicomment.dto.PinCluster;
+import com.example.uicomment.dto.Viewport;
+import com.example.uicomment.event.CommentChangeEvent;
 import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.CommentFacets;
+import com.example.uicomment.model.PageKey;
+import com.example.uicomment.model.PinTile;
+import com.example.uicomment.repository.ChangeSequence;
+import com.example.uicomment.repository.CollectionVersion;
 import com.example.uicomment.repository.CommentRepository;
+import com.example.uicomment.repository.TileAggregate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CommentService {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_VIEWPORT_PINS = 2000;
+    public static final int MAX_CLUSTER_LEVEL = 8;
+
     @Autowired
     private CommentRepository commentRepository;
 
-    public List<Comment> getAllComments() {
-        return commentRepository.findAll();
+    @Autowired
+    private CommentCache commentCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    @Transactional(readOnly = true)
+    public CommentPage<Comment> getAllComments(String cursor, int limit) {
+        int size = clampPageSize(limit);
+        if (cursor == null || cursor.isEmpty()) {
+            return toPage(commentRepository.findFirstPage(overFetch(size)), size, CommentCursor::after);
+        }
+        CommentCursor after = CommentCursor.decode(cursor);
+        return toPage(commentRepository.findPageAfter(after.createdAt(), after.id(), overFetch(size)), size,
+                CommentCursor::after);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Comment> getCommentById(Long id) {
-        return commentRepository.findById(id);
+        return commentCache.getById(id, commentRepository::findById);
     }
 
-    public List<Comment> getCommentsByPageUrl(String pageUrl) {
-        return commentRepository.findByPageUrl(pageUrl);
+    @Transactional(readOnly = true)
+    public CommentPage<Comment> getCommentsByPageUrl(String pageUrl, String cursor, int limit) {
+        int size = clampPageSize(limit);
+        String pageKey = PageKey.of(pageUrl);
+        return commentCache.getPage(pageKey, cursor, size, Comment.class, () -> {
+            if (cursor == null || cursor.isEmpty()) {
+                return toPage(commentRepository.findFirstPageByPageKey(pageKey, overFetch(size)), size,
+                        CommentCursor::after);
+            }
+            CommentCursor after = CommentCursor.decode(cursor);
+            return toPage(commentRepository.findPageByPageKeyAfter(pageKey, after.createdAt(), after.id(),
+                    overFetch(size)), size, CommentCursor::after);
+        });
     }
 
-    public List<Comment> getCommentsByStatus(String status) {
-        return commentRepository.findByStatus(status);
+    /**
+     * Like {@link #getCommentsByPageUrl} but selects only the columns needed to draw pins; clients load the
+     * full comment with {@link #getCommentById} when a pin is opened.
+     */
+    @Transactional(readOnly = true)
+    public CommentPage<CommentSummary> getCommentSummariesByPageUrl(String pageUrl, String cursor, int limit) {
+        int size = clampPageSize(limit);
+        String pageKey = PageKey.of(pageUrl);
+        return commentCache.getPage(pageKey, cursor, size, CommentSummary.class, () -> {
+            if (cursor == null || cursor.isEmpty()) {
+                return toPage(commentRepository.findFirstSummaryPageByPageKey(pageKey, overFetch(size)), size,
+                        CommentCursor::after);
+            }
+            CommentCursor after = CommentCursor.decode(cursor);
+            return toPage(commentRepository.findSummaryPageByPageKeyAfter(pageKey, after.createdAt(), after.id(),
+                    overFetch(size)), size, CommentCursor::after);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public CommentPage<Comment> getCommentsByStatus(String status, String cursor, int limit) {
+        int size = clampPageSize(limit);
+        if (cursor == null || cursor.isEmpty()) {
+            return toPage(commentRepository.findFirstPageByStatus(status, overFetch(size)), size, CommentCursor::after);
+        }
+        CommentCursor after = CommentCursor.decode(cursor);
+        return toPage(commentRepository.findPageByStatusAfter(status, after.createdAt(), after.id(), overFetch(size)),
+                size, CommentCursor::after);
+    }
+
+    @Transactional(readOnly = true)
+    public CommentPage<CommentSummary> getCommentSummariesByStatus(String status, String cursor, int limit) {
+        int size = clampPageSize(limit);
+        if (cursor == null || cursor.isEmpty()) {
+            return toPage(commentRepository.findFirstSummaryPageByStatus(status, overFetch(size)), size,
+                    CommentCursor::after);
+        }
+        CommentCursor after = CommentCursor.decode(cursor);
+        return toPage(commentRepository.findSummaryPageByStatusAfter(status, after.createdAt(), after.id(),
+                overFetch(size)), size, CommentCursor::after);
+    }
+
+    /**
+     * Change markers for conditional GETs of the list endpoints. The page marker is cached with the page's
+     * slices and the marker of all comments until any write; the status marker is one aggregate query.
+     */
+    @Transactional(readOnly = true)
+    public CollectionVersion getCollectionVersion() {
+        return commentCache.getCollectionVersion(commentRepository::findCollectionVersion);
+    }
+
+    @Transactional(readOnly = true)
+    public CollectionVersion getCollectionVersionByPageUrl(String pageUrl) {
+        String pageKey = PageKey.of(pageUrl);
+        return commentCache.getPageVersion(pageKey, () -> commentRepository.findCollectionVersionByPageKey(pageKey));
+    }
+
+    @Transactional(readOnly = true)
+    public CollectionVersion getCollectionVersionByStatus(String status) {
+        return commentRepository.findCollectionVersionByStatus(status);
+    }
+
+    /**
+     * Pins of a page inside the rectangle {@code [minX, maxX] x [minY, maxY]}, at most {@link #MAX_VIEWPORT_PINS}.
+     * With a cluster level, pins are grouped into square cells of {@code PinTile.SIZE << clusterLevel} pixels
+     * and only per-cell counts and centroids are returned. Viewports are not cached; they rarely repeat.
+     *
+     * @throws IllegalArgumentException for an inverted rectangle or an out-of-range cluster level
+     */
+    @Transactional(readOnly = true)
+    public Viewport getViewport(String pageUrl, int minX, int minY, int maxX, int maxY, Integer clusterLevel) {
+        if (minX > maxX || minY > maxY) {
+            throw new IllegalArgumentException("Viewport minimum exceeds maximum");
+        }
+        if (clusterLevel != null && (clusterLevel < 0 || clusterLevel > MAX_CLUSTER_LEVEL)) {
+            throw new IllegalArgumentException("Cluster level must be between 0 and " + MAX_CLUSTER_LEVEL);
+        }
+        String pageKey = PageKey.of(pageUrl);
+        int minTileX = PinTile.of(minX);
+        int maxTileX = PinTile.of(maxX);
+        int minTileY = PinTile.of(minY);
+        int maxTileY = PinTile.of(maxY);
+
+        if (clusterLevel == null) {
+            List<CommentSummary> rows = commentRepository.findSummariesInViewport(pageKey, minTileX, maxTileX,
+                    minTileY, maxTileY, minX, maxX, minY, maxY, PageRequest.of(0, MAX_VIEWPORT_PINS + 1));
+            if (rows.size() > MAX_VIEWPORT_PINS) {
+                return new Viewport(new ArrayList<>(rows.subList(0, MAX_VIEWPORT_PINS)), List.of(), true);
+            }
+            return new Viewport(rows, List.of(), false);
+        }
+        List<TileAggregate> tiles = commentRepository.aggregateTilesInViewport(pageKey, minTileX, maxTileX,
+                minTileY, maxTileY, minX, maxX, minY, maxY);
+        return new Viewport(List.of(), cluster(tiles, clusterLevel), false);
     }
 
     public Comment createComment(Comment comment) {
+        comment.setVersion(null);
         comment.setCreatedAt(new Date());
         comment.setUpdatedAt(new Date());
-        return commentRepository.save(comment);
+        comment.setChangeSeq(changeSequence.next());
+        Comment saved = commentRepository.save(comment);
+        commentCache.evictPage(saved.getPageKey());
+        eventPublisher.publishEvent(CommentChangeEvent.of(CommentChangeEvent.Type.CREATED, saved));
+        return saved;
     }
 
+    @Transactional
     public Comment updateComment(Long id, Comment updates) {
         Optional<Comment> optional = commentRepository.findById(id);
         if (!optional.isPresent()) return null;
         Comment comment = optional.get();
+        // Drawn before the entity is dirty: the sequence query would flush it, and the commit update it again.
+        long changeSeq = changeSequence.next();
+        CommentFacets previous = CommentFacets.of(comment);
+        applyUpdates(comment, updates);
+        comment.setUpdatedAt(new Date());
+        comment.setChangeSeq(changeSeq);
+        Comment saved = commentRepository.save(comment);
+        afterCommit(() -> commentCache.evict(saved));
+        eventPublisher.publishEvent(CommentChangeEvent.updated(saved, previous));
+        return saved;
+    }
+
+    /**
+     * Partial update in one UPDATE statement, without reading the row first. With an expected version the
+     * update only applies if nobody changed the comment since; the row is read only to tell a version
+     * conflict apart from a missing comment. Patches of counted fields first read the comment's facets for
+     * the change event. The page to evict comes from those facets, else from the cached comment; only an
+     * uncached plain edit or move reads them after the update.
+     */
+    @Transactional
+    public PatchResult patchComment(Long id, Comment updates, Long expectedVersion) {
+        CommentFacets previous = CommentFacets.touchedBy(updates)
+                ? commentRepository.findFacetsById(id).orElse(null)
+                : null;
+        int updated = commentRepository.patch(id, updates, expectedVersion, new Date(), changeSequence.next());
+        if (updated == 0) {
+            boolean conflict = expectedVersion != null && commentRepository.existsById(id);
+            return new PatchResult(conflict ? PatchResult.Status.CONFLICT : PatchResult.Status.NOT_FOUND, null);
+        }
+        String pageKey = previous != null ? previous.pageKey() : commentCache.cachedPageKey(id)
+                .orElseGet(() -> commentRepository.findFacetsById(id).map(CommentFacets::pageKey).orElse(null));
+        afterCommit(() -> {
+            commentCache.evictById(id);
+            commentCache.evictPage(pageKey);
+        });
+        eventPublisher.publishEvent(CommentChangeEvent.updated(id, pageKey, previous, updates));
+        return new PatchResult(PatchResult.Status.UPDATED, expectedVersion == null ? null : expectedVersion + 1);
+    }
+
+    /**
+     * Soft delete: the row is hidden from every query at once and purged after the archive retention (see
+     * {@code CommentMaintenanceService}).
+     */
+    @Transactional
+    public void deleteComment(Long id) {
+        // Loaded first so the cached slices of its page can be dropped and listeners get the deleted comment.
+        commentRepository.findById(id).ifPresent(comment -> {
+            commentRepository.softDeleteByIdIn(List.of(id), new Date(), changeSequence.next());
+            afterCommit(() -> commentCache.evict(comment));
+            eventPublisher.publishEvent(CommentChangeEvent.of(CommentChangeEvent.Type.DELETED, comment));
+        });
+    }
+
+    /**
+     * Inserts all valid comments in one transaction; Hibernate groups the INSERTs into JDBC batches.
+     * Items missing a required field are reported as {@code INVALID} and skipped.
+     */
+    @Transactional
+    public List<BatchItemResult> createComments(List<Comment> comments) {
+        checkBatchSize(comments.size());
+        List<BatchItemResult> results = new ArrayList<>(comments.size());
+        List<Comment> valid = new ArrayList<>(comments.size());
+        Date now = new Date();
+        long changeSeq = changeSequence.next();
+        for (int i = 0; i < comments.size(); i++) {
+            Comment comment = comments.get(i);
+            String missing = missingRequiredFields(comment);
+            if (missing != null) {
+                results.add(BatchItemResult.invalid(i, null, "Missing required field(s): " + missing));
+                continue;
+            }
+            comment.setId(null);
+            comment.setVersion(null);
+            comment.setCreatedAt(now);
+            comment.setUpdatedAt(now);
+            comment.setChangeSeq(changeSeq);
+            valid.add(comment);
+            results.add(null);
+        }
+        commentRepository.saveAll(valid);
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, new BatchItemResult(i, valid.get(next++).getId(), BatchItemResult.Status.CREATED, null));
+            }
+        }
+        evictPagesAfterCommit(valid);
+        publish(CommentChangeEvent.Type.CREATED, valid);
+        return results;
+    }
+
+    /**
+     * Applies partial updates (non-null fields, matched by {@code id}) with one SELECT for all rows;
+     * the resulting UPDATEs are flushed as JDBC batches at commit.
+     */
+    @Transactional
+    public List<BatchItemResult> updateComments(List<Comment> updates) {
+        checkBatchSize(updates.size());
+        Map<Long, Comment> existing = loadById(updates.stream().map(Comment::getId).collect(Collectors.toList()));
+        List<BatchItemResult> results = new ArrayList<>(updates.size());
+        List<Comment> changed = new ArrayList<>(updates.size());
+        // Facets before the first change to each comment; an id listed twice still yields one event.
+        Map<Long, CommentFacets> previous = new LinkedHashMap<>();
+        Date now = new Date();
+        long changeSeq = changeSequence.next();
+        for (int i = 0; i < updates.size(); i++) {
+            Comment update = updates.get(i);
+            if (update.getId() == null) {
+                results.add(BatchItemResult.invalid(i, null, "Missing id"));
+                continue;
+            }
+            Comment comment = existing.get(update.getId());
+            if (comment == null) {
+                results.add(new BatchItemResult(i, update.getId(), BatchItemResult.Status.NOT_FOUND, null));
+                continue;
+            }
+            previous.putIfAbsent(comment.getId(), CommentFacets.of(comment));
+            applyUpdates(comment, update);
+            comment.setUpdatedAt(now);
+            comment.setChangeSeq(changeSeq);
+            changed.add(comment);
+            results.add(new BatchItemResult(i, comment.getId(), BatchItemResult.Status.UPDATED, null));
+        }
+        evictPagesAfterCommit(changed);
+        previous.forEach((id, facets) -> eventPublisher.publishEvent(
+                CommentChangeEvent.updated(existing.get(id), facets)));
+        return results;
+    }
+
+    @Transactional
+    public List<BatchItemResult> deleteComments(List<Long> ids) {
+        checkBatchSize(ids.size());
+        Map<Long, Comment> existing = loadById(ids);
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            BatchItemResult.Status status = existing.containsKey(id)
+                    ? BatchItemResult.Status.DELETED
+                    : BatchItemResult.Status.NOT_FOUND;
+            results.add(new BatchItemResult(i, id, status, null));
+        }
+        if (!existing.isEmpty()) {
+            commentRepository.softDeleteByIdIn(existing.keySet(), new Date(), changeSequence.next());
+        }
+        evictPagesAfterCommit(existing.values());
+        publish(CommentChangeEvent.Type.DELETED, existing.values());
+        return results;
+    }
+
+    public CommentCacheStats getCacheStats() {
+        return commentCache.stats();
+    }
+
+    public static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // One extra row tells us whether a next page exists without a count query.
+    private static Pageable overFetch(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    private static <T> CommentPage<T> toPage(List<T> rows, int size, Function<T, CommentCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CommentPage<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, size));
+        return new CommentPage<>(items, cursorOf.apply(items.get(size - 1)).encode());
+    }
+
+    // Tiles are the finest cluster cells; level n merges 2^n x 2^n tiles into one cell.
+    static List<PinCluster> cluster(List<TileAggregate> tiles, int level) {
+        Map<List<Integer>, TileAggregate> cells = new LinkedHashMap<>();
+        for (TileAggregate tile : tiles) {
+            List<Integer> cell = List.of(tile.tileX() >> level, tile.tileY() >> level);
+            cells.merge(cell, tile, (a, b) -> new TileAggregate(a.tileX(), a.tileY(), a.count() + b.count(),
+                    a.sumX() + b.sumX(), a.sumY() + b.sumY(), Math.min(a.minId(), b.minId())));
+        }
+        List<PinCluster> clusters = new ArrayList<>(cells.size());
+        for (TileAggregate cell : cells.values()) {
+            clusters.add(new PinCluster((int) (cell.sumX() / cell.count()), (int) (cell.sumY() / cell.count()),
+                    cell.count(), cell.count() == 1 ? cell.minId() : null));
+        }
+        return clusters;
+    }
+
+    private static void applyUpdates(Comment comment, Comment updates) {
         // Update only non-null fields
         if (updates.getContent() != null) {
             comment.setContent(updates.getContent());
@@ -74,11 +422,51 @@ public class CommentService {
         if (updates.getAssignedTo() != null) {
             comment.setAssignedTo(updates.getAssignedTo());
         }
-        comment.setUpdatedAt(new Date());
-        return commentRepository.save(comment);
     }
 
-    public void deleteComment(Long id) {
-        commentRepository.deleteById(id);
+    private static String missingRequiredFields(Comment comment) {
+        List<String> missing = new ArrayList<>();
+        if (comment.getPageUrl() == null) missing.add("pageUrl");
+        if (comment.getContent() == null) missing.add("content");
+        if (comment.getPositionX() == null) missing.add("positionX");
+        if (comment.getPositionY() == null) missing.add("positionY");
+        return missing.isEmpty() ? null : String.join(", ", missing);
+    }
+
+    private static void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size " + size + " exceeds " + MAX_BATCH_SIZE);
+        }
+    }
+
+    private Map<Long, Comment> loadById(Collection<Long> ids) {
+        Map<Long, Comment> byId = new HashMap<>();
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        commentRepository.findAllById(distinct).forEach(comment -> byId.put(comment.getId(), comment));
+        return byId;
+    }
+
+    private void evictPagesAfterCommit(Iterable<Comment> comments) {
+        List<Comment> affected = new ArrayList<>();
+        comments.forEach(affected::add);
+        afterCommit(() -> affected.forEach(commentCache::evict));
+    }
+
+    private void publish(CommentChangeEvent.Type type, Collection<Comment> comments) {
+        comments.forEach(comment -> eventPublisher.publishEvent(CommentChangeEvent.of(type, comment)));
+    }
+
+    // Readers must not re-cache the pre-commit state, so evictions inside a transaction wait for the commit.
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
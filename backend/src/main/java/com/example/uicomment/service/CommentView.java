@@ -0,0 +1,19 @@
+package com.example.uicomment.service;
+
+import java.util.Locale;
+
+/**
+ * Shape of list responses: full comments, or {@link com.example.uicomment.dto.CommentSummary} rows for
+ * drawing pins.
+ */
+public enum CommentView {
+    FULL,
+    SUMMARY;
+
+    /**
+     * @throws IllegalArgumentException for unknown views
+     */
+    public static CommentView parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.uicomment.service;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @throws IllegalArgumentException for unsupported formats
+     */
+    public static ExportFormat parse(String format) {
+        return valueOf(format.trim().toUpperCase(Locale.ROOT));
+    }
+}
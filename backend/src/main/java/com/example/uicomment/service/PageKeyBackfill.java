@@ -0,0 +1,49 @@
+package com.example.uicomment.service;
+
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.repository.CommentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills {@code page_key} and the pin tile columns for rows created before those columns existed. Each chunk
+ * commits in its own transaction so a large table is never locked for the whole run; the columns are set by
+ * {@link Comment#computeDerivedColumns()} before the chunk is saved.
+ */
+@Component
+public class PageKeyBackfill {
+    private static final Logger log = LoggerFactory.getLogger(PageKeyBackfill.class);
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status -> {
+                List<Comment> chunk = commentRepository.findByPageKeyIsNullOrTileXIsNull(PageRequest.of(0, CHUNK_SIZE));
+                chunk.forEach(Comment::computeDerivedColumns);
+                commentRepository.saveAll(chunk);
+                return chunk.size();
+            });
+            total += updated;
+        } while (updated == CHUNK_SIZE);
+        if (total > 0) {
+            log.info("Backfilled page_key and tiles for {} comments", total);
+        }
+    }
+}
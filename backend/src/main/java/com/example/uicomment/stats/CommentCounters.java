@@ -0,0 +1,152 @@
+package com.example.uicomment.stats;
+
+import com.example.uicomment.dto.FacetCount;
+import com.example.uicomment.model.CommentFacets;
+import com.example.uicomment.repository.AssigneeCount;
+import com.example.uicomment.repository.PageStatusCount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Comment counts in striped {@link LongAdder}s, so concurrent writers do not contend on a single cell.
+ * Each count is one map lookup. Per-dimension totals are rolled up on read from the status x priority x category
+ * cube, which holds one cell per combination actually in use and stays small.
+ */
+final class CommentCounters {
+    static final String NONE = "NONE";
+
+    private final LongAdder total = new LongAdder();
+    private final Map<FacetKey, LongAdder> facets = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> pages = new ConcurrentHashMap<>();
+    private final Map<PageStatusKey, LongAdder> pageStatuses = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> assignees = new ConcurrentHashMap<>();
+
+    static CommentCounters load(List<FacetCount> facetCounts, List<PageStatusCount> pageStatusCounts,
+                                List<AssigneeCount> assigneeCounts) {
+        CommentCounters counters = new CommentCounters();
+        for (FacetCount row : facetCounts) {
+            counters.total.add(row.count());
+            adder(counters.facets, new FacetKey(label(row.status()), label(row.priority()), label(row.category())))
+                    .add(row.count());
+        }
+        for (PageStatusCount row : pageStatusCounts) {
+            if (row.pageKey() != null) {
+                adder(counters.pages, row.pageKey()).add(row.count());
+                adder(counters.pageStatuses, new PageStatusKey(row.pageKey(), label(row.status()))).add(row.count());
+            }
+        }
+        for (AssigneeCount row : assigneeCounts) {
+            adder(counters.assignees, row.assignedTo()).add(row.count());
+        }
+        return counters;
+    }
+
+    void add(CommentFacets comment, long delta) {
+        total.add(delta);
+        adder(facets, new FacetKey(label(comment.status()), label(comment.priority()), label(comment.category())))
+                .add(delta);
+        if (comment.pageKey() != null) {
+            adder(pages, comment.pageKey()).add(delta);
+            adder(pageStatuses, new PageStatusKey(comment.pageKey(), label(comment.status()))).add(delta);
+        }
+        if (comment.assignedTo() != null) {
+            adder(assignees, comment.assignedTo()).add(delta);
+        }
+    }
+
+    void move(CommentFacets from, CommentFacets to) {
+        if (!from.equals(to)) {
+            add(from, -1);
+            add(to, 1);
+        }
+    }
+
+    long total() {
+        return total.sum();
+    }
+
+    long page(String pageKey) {
+        return sum(pages.get(pageKey));
+    }
+
+    // One lookup per status in use; statuses are a handful.
+    Map<String, Long> pageByStatus(String pageKey) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (String status : byStatus().keySet()) {
+            long count = sum(pageStatuses.get(new PageStatusKey(pageKey, status)));
+            if (count != 0) {
+                counts.put(status, count);
+            }
+        }
+        return counts;
+    }
+
+    List<FacetCount> facets() {
+        List<FacetCount> counts = new ArrayList<>();
+        facets.forEach((key, adder) -> {
+            long count = adder.sum();
+            if (count != 0) {
+                counts.add(new FacetCount(key.status(), key.priority(), key.category(), count));
+            }
+        });
+        return counts;
+    }
+
+    Map<String, Long> byStatus() {
+        return rollUp(FacetKey::status);
+    }
+
+    Map<String, Long> byPriority() {
+        return rollUp(FacetKey::priority);
+    }
+
+    Map<String, Long> byCategory() {
+        return rollUp(FacetKey::category);
+    }
+
+    Map<String, Long> byAssignee() {
+        Map<String, Long> counts = new TreeMap<>();
+        assignees.forEach((assignee, adder) -> {
+            long count = adder.sum();
+            if (count != 0) {
+                counts.put(assignee, count);
+            }
+        });
+        return counts;
+    }
+
+    private Map<String, Long> rollUp(Function<FacetKey, String> dimension) {
+        Map<String, Long> counts = new TreeMap<>();
+        facets.forEach((key, adder) -> {
+            long count = adder.sum();
+            if (count != 0) {
+                counts.merge(dimension.apply(key), count, Long::sum);
+            }
+        });
+        return counts;
+    }
+
+    private static <K> LongAdder adder(Map<K, LongAdder> counts, K key) {
+        return counts.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static long sum(LongAdder adder) {
+        return adder != null ? adder.sum() : 0;
+    }
+
+    private static String label(String value) {
+        return value != null ? value : NONE;
+    }
+
+    private record FacetKey(String status, String priority, String category) {
+    }
+
+    private record PageStatusKey(String pageKey, String status) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.uicomment.stats;
+
+import com.example.uicomment.datasource.ReadRouting;
+import com.example.uicomment.dto.CommentStats;
+import com.example.uicomment.dto.PageCommentStats;
+import com.example.uicomment.event.CommentChangeEvent;
+import com.example.uicomment.model.CommentFacets;
+import com.example.uicomment.model.PageKey;
+import com.example.uicomment.repository.CommentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard counts kept in memory and moved by committed {@link CommentChangeEvent}s, so reads cost no query.
+ * <p>
+ * The counters are recounted from the database on startup and every {@code app.stats.reconcile-interval}.
+ * That bounds any drift: events that race with a recount, and writes of other nodes when no cluster bus is
+ * configured, are only picked up by the next recount.
+ */
+@Service
+public class CommentStatsService {
+    private static final Logger log = LoggerFactory.getLogger(CommentStatsService.class);
+
+    private final ScheduledExecutorService reconciler;
+    private volatile CommentCounters counters = new CommentCounters();
+    private volatile Date reconciledAt;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public CommentStatsService(@Value("${app.stats.reconcile-interval:10m}") Duration reconcileInterval) {
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-stats-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = reconcileInterval.toMillis();
+        reconciler.scheduleWithFixedDelay(this::reconcileQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public CommentStats getStats() {
+        CommentCounters current = counters;
+        return new CommentStats(current.total(), current.byStatus(), current.byPriority(), current.byCategory(),
+                current.byAssignee(), current.facets(), reconciledAt);
+    }
+
+    public PageCommentStats getPageStats(String pageUrl) {
+        String pageKey = PageKey.of(pageUrl);
+        CommentCounters current = counters;
+        return new PageCommentStats(current.page(pageKey), current.pageByStatus(pageKey));
+    }
+
+    /**
+     * Replaces the counters with a recount of the database: three GROUP BY queries in one read-only transaction.
+     * The recount reads from the primary; one from a lagging replica would miss changes already counted.
+     */
+    public synchronized void reconcile() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        counters = ReadRouting.onPrimary(() -> readOnly.execute(status -> CommentCounters.load(
+                commentRepository.countByFacets(), commentRepository.countByPageKeyAndStatus(),
+                commentRepository.countByAssignee())));
+        reconciledAt = new Date();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangeEvent event) {
+        CommentCounters current = counters;
+        switch (event.type()) {
+            case CREATED -> current.add(CommentFacets.of(event.comment()), 1);
+            case DELETED -> current.add(CommentFacets.of(event.comment()), -1);
+            case UPDATED -> {
+                if (event.previous() != null) {
+                    current.move(event.previous(), event.current());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reconciler.shutdownNow();
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile comment counters", e);
+        }
+    }
+}
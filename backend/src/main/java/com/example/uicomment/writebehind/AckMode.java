@@ -0,0 +1,17 @@
+package com.example.uicomment.writebehind;
+
+import java.util.Locale;
+
+/**
+ * When a buffered update is acknowledged ({@code app.write-buffer.ack}).
+ */
+public enum AckMode {
+    // 202 Accepted as soon as the update is buffered; lost if the process dies before the next flush.
+    BUFFERED,
+    // 204 No Content once the batch holding the update has committed; the request waits up to one interval.
+    FLUSHED;
+
+    public static AckMode parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
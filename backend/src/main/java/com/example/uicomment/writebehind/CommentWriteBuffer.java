@@ -0,0 +1,166 @@
+package com.example.uicomment.writebehind;
+
+import com.example.uicomment.dto.BatchItemResult;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.service.CommentService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind buffer for high-frequency pin updates (position and status), e.g. while a pin is dragged.
+ * <p>
+ * Updates are merged per comment id, last write wins per field, and written every
+ * {@code app.write-buffer.flush-interval} or as soon as {@code app.write-buffer.flush-size} comments are
+ * pending, through {@link CommentService#updateComments} in batches of at most
+ * {@code app.write-buffer.max-batch}. A burst of N moves of one pin costs one UPDATE. Whatever is pending is
+ * written on shutdown; a crash loses at most one interval of buffered writes, which is why clients opt in per
+ * request.
+ */
+@Component
+public class CommentWriteBuffer {
+    private static final Logger log = LoggerFactory.getLogger(CommentWriteBuffer.class);
+
+    private final Map<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final boolean enabled;
+    private final AckMode ackMode;
+    private final int flushSize;
+    private final int maxBatch;
+    private final int maxPending;
+    private final ScheduledExecutorService flusher;
+
+    @Autowired
+    private CommentService commentService;
+
+    public CommentWriteBuffer(@Value("${app.write-buffer.enabled:true}") boolean enabled,
+                              @Value("${app.write-buffer.ack:buffered}") String ackMode,
+                              @Value("${app.write-buffer.flush-interval:200ms}") Duration flushInterval,
+                              @Value("${app.write-buffer.flush-size:500}") int flushSize,
+                              @Value("${app.write-buffer.max-batch:500}") int maxBatch,
+                              @Value("${app.write-buffer.max-pending:10000}") int maxPending) {
+        this.enabled = enabled;
+        this.ackMode = AckMode.parse(ackMode);
+        this.flushSize = flushSize;
+        this.maxBatch = Math.min(maxBatch, CommentService.MAX_BATCH_SIZE);
+        this.maxPending = maxPending;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-write-buffer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Only these fields may be buffered; anything else needs the synchronous path.
+    public static boolean isBufferable(Comment updates) {
+        return updates.getContent() == null
+                && updates.getScreenshotUrl() == null
+                && updates.getPriority() == null
+                && updates.getCategory() == null
+                && updates.getResolution() == null
+                && updates.getAssignedTo() == null
+                && updates.getAuthorName() == null
+                && updates.getAuthorEmail() == null
+                && (updates.getPositionX() != null || updates.getPositionY() != null || updates.getStatus() != null);
+    }
+
+    /**
+     * Buffers the non-null position and status fields of {@code updates}.
+     *
+     * @return completes with the outcome once the update is written ({@code UPDATED} or {@code NOT_FOUND}),
+     * or empty when buffering is disabled or the buffer is full and the caller should write synchronously
+     */
+    public Optional<CompletableFuture<BatchItemResult.Status>> submit(Long id, Comment updates) {
+        if (!enabled || (pending.size() >= maxPending && !pending.containsKey(id))) {
+            return Optional.empty();
+        }
+        PendingUpdate update = pending.compute(id,
+                (key, existing) -> (existing != null ? existing : new PendingUpdate(key)).merge(updates));
+        if (pending.size() >= flushSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+        return Optional.of(update.getFlushed());
+    }
+
+    public AckMode getAckMode() {
+        return ackMode;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes everything pending now. Updates buffered while a flush runs go into the next one.
+     */
+    public synchronized void flush() {
+        flushRequested.set(false);
+        List<PendingUpdate> batch = new ArrayList<>(Math.min(pending.size(), maxBatch));
+        Iterator<Long> ids = pending.keySet().iterator();
+        while (ids.hasNext()) {
+            PendingUpdate update = pending.remove(ids.next());
+            if (update == null) {
+                continue;
+            }
+            batch.add(update);
+            if (batch.size() == maxBatch) {
+                write(batch);
+                batch = new ArrayList<>(maxBatch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void write(List<PendingUpdate> batch) {
+        List<Comment> updates = new ArrayList<>(batch.size());
+        batch.forEach(update -> updates.add(update.toComment()));
+        try {
+            List<BatchItemResult> results = commentService.updateComments(updates);
+            for (BatchItemResult result : results) {
+                batch.get(result.index()).getFlushed().complete(result.status());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} buffered comment updates", batch.size(), e);
+            batch.forEach(update -> update.getFlushed().completeExceptionally(e));
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush comment write buffer", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.uicomment.writebehind;
+
+import com.example.uicomment.dto.BatchItemResult;
+import com.example.uicomment.model.Comment;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Buffered changes to one comment. Later writes overwrite earlier ones field by field, and every writer merged
+ * into the entry shares its {@code flushed} future.
+ */
+final class PendingUpdate {
+    private final Long id;
+    private Integer positionX;
+    private Integer positionY;
+    private String status;
+    private final CompletableFuture<BatchItemResult.Status> flushed = new CompletableFuture<>();
+
+    PendingUpdate(Long id) {
+        this.id = id;
+    }
+
+    PendingUpdate merge(Comment updates) {
+        if (updates.getPositionX() != null) {
+            positionX = updates.getPositionX();
+        }
+        if (updates.getPositionY() != null) {
+            positionY = updates.getPositionY();
+        }
+        if (updates.getStatus() != null) {
+            status = updates.getStatus();
+        }
+        return this;
+    }
+
+    Comment toComment() {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setPositionX(positionX);
+        comment.setPositionY(positionY);
+        comment.setStatus(status);
+        return comment;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    CompletableFuture<BatchItemResult.Status> getFlushed() {
+        return flushed;
+    }
+}
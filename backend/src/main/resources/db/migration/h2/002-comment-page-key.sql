@@ -0,0 +1,8 @@
+-- Adds the normalized page lookup key and its indexes.
+-- Only needed when spring.jpa.hibernate.ddl-auto is not "update"; page_key values for
+-- existing rows are filled by PageKeyBackfill on the next application start.
+
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS page_key VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_comments_page_key_status ON comments (page_key, status);
+CREATE INDEX IF NOT EXISTS idx_comments_status_created_at ON comments (status, created_at);
@@ -0,0 +1,7 @@
+-- Comment ids now come from a pooled sequence (allocation size 50) instead of an identity column,
+-- which lets Hibernate batch inserts. The sequence must start above every existing id: Hibernate's
+-- pooled optimizer hands out the 50 ids ending at the value NEXT VALUE FOR returns.
+-- Under ddl-auto=update CommentIdSequence moves the sequence the same way on startup.
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM comments);
@@ -0,0 +1,9 @@
+-- Grid tile of each pin (256 px cells, see PinTile) for viewport queries. Existing rows are filled
+-- here; PageKeyBackfill also fills any row still missing a tile on the next application start.
+
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS tile_x INTEGER;
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS tile_y INTEGER;
+
+UPDATE comments SET tile_x = FLOOR(positionx / 256.0), tile_y = FLOOR(positiony / 256.0) WHERE tile_x IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_comments_page_key_tile ON comments (page_key, tile_y, tile_x);
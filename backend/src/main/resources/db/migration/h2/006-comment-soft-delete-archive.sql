@@ -0,0 +1,29 @@
+-- Soft delete (deleted_at) and the archive table for resolved/closed comments; see CommentMaintenanceService.
+-- (status, updated_at) serves the archival scan, deleted_at the purge of old soft-deleted rows.
+
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_comments_status_updated_at ON comments (status, updated_at);
+CREATE INDEX IF NOT EXISTS idx_comments_deleted_at ON comments (deleted_at);
+
+CREATE TABLE IF NOT EXISTS comments_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    page_url VARCHAR(255) NOT NULL,
+    page_key VARCHAR(64),
+    content VARCHAR(255) NOT NULL,
+    positionx INTEGER NOT NULL,
+    positiony INTEGER NOT NULL,
+    screenshot_url VARCHAR(255),
+    status VARCHAR(50),
+    priority VARCHAR(50),
+    author_name VARCHAR(255),
+    author_email VARCHAR(255),
+    category VARCHAR(100),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    resolution VARCHAR(255),
+    assigned_to VARCHAR(255),
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_comments_archive_page_key ON comments_archive (page_key);
@@ -0,0 +1,12 @@
+-- Change sequence for GET /api/comments/changes; see CommentChangeService. Every insert, update and
+-- (soft) delete stamps change_seq from comment_change_seq. Existing rows are stamped here, and ChangeSequence
+-- stamps any row still missing it on the next application start.
+
+CREATE SEQUENCE IF NOT EXISTS comment_change_seq START WITH 1 INCREMENT BY 1;
+
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS change_seq BIGINT;
+
+UPDATE comments SET change_seq = NEXT VALUE FOR comment_change_seq WHERE change_seq IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_comments_change_seq ON comments (change_seq, id);
+CREATE INDEX IF NOT EXISTS idx_comments_page_key_change_seq ON comments (page_key, change_seq, id);
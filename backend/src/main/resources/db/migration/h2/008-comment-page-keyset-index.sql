@@ -0,0 +1,7 @@
+-- A page's comments are read in (created_at, id) keyset order; this index serves that scan and its cursor
+-- directly, where (page_key, status) could only find the page's rows and leave them to be sorted.
+-- ddl-auto=update creates the new index but never drops the old one, so apply this in either mode.
+
+CREATE INDEX IF NOT EXISTS idx_comments_page_key_created_at ON comments (page_key, created_at, id);
+
+DROP INDEX IF EXISTS idx_comments_page_key_status;
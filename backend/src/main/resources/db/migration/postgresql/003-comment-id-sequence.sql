@@ -0,0 +1,7 @@
+-- Comment ids now come from a pooled sequence (allocation size 50) instead of an identity column,
+-- which lets Hibernate batch inserts. The sequence must start above every existing id: Hibernate's
+-- pooled optimizer hands out the 50 ids ending at the value nextval() returns.
+-- Under ddl-auto=update CommentIdSequence moves the sequence the same way on startup.
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+SELECT setval('comments_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM comments));
@@ -0,0 +1,3 @@
+-- Optimistic-lock version for comments. The default fills existing rows with 0.
+
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
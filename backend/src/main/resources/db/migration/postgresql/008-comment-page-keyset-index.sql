@@ -0,0 +1,8 @@
+-- A page's comments are read in (created_at, id) keyset order; this index serves that scan and its cursor
+-- directly, where (page_key, status) could only find the page's rows and leave them to be sorted.
+-- ddl-auto=update creates the new index but never drops the old one, so apply this in either mode.
+-- CONCURRENTLY keeps the table writable while the index builds (run outside a transaction).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_page_key_created_at ON comments (page_key, created_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_comments_page_key_status;
@@ -0,0 +1,37 @@
+-- Schema for the reactive variant on an embedded H2 database, where Hibernate is not there to create it.
+-- Same table, sequences and indexes as the servlet application ends up with (Comment, migrations 002-007).
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comment_change_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS comments (
+    id BIGINT NOT NULL PRIMARY KEY,
+    page_url VARCHAR(255) NOT NULL,
+    page_key VARCHAR(64),
+    content VARCHAR(255) NOT NULL,
+    position_x INTEGER NOT NULL,
+    position_y INTEGER NOT NULL,
+    tile_x INTEGER,
+    tile_y INTEGER,
+    screenshot_url VARCHAR(255),
+    status VARCHAR(50),
+    priority VARCHAR(50),
+    author_name VARCHAR(255),
+    author_email VARCHAR(255),
+    category VARCHAR(100),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    resolution VARCHAR(255),
+    assigned_to VARCHAR(255),
+    version BIGINT DEFAULT 0 NOT NULL,
+    deleted_at TIMESTAMP,
+    change_seq BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_comments_page_key_created_at ON comments (page_key, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_comments_status_created_at ON comments (status, created_at);
+CREATE INDEX IF NOT EXISTS idx_comments_page_key_tile ON comments (page_key, tile_y, tile_x);
+CREATE INDEX IF NOT EXISTS idx_comments_status_updated_at ON comments (status, updated_at);
+CREATE INDEX IF NOT EXISTS idx_comments_deleted_at ON comments (deleted_at);
+CREATE INDEX IF NOT EXISTS idx_comments_change_seq ON comments (change_seq, id);
+CREATE INDEX IF NOT EXISTS idx_comments_page_key_change_seq ON comments (page_key, change_seq, id);
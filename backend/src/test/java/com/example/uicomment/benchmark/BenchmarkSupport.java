@@ -0,0 +1,42 @@
+package com.example.uicomment.benchmark;
+
+import com.example.uicomment.UiCommentApplication;
+import com.example.uicomment.repository.CommentSeeder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Starts the application against a private in-memory H2 database and bulk-loads comments for benchmarks.
+ */
+final class BenchmarkSupport {
+    static final int PAGES = 1000;
+
+    private BenchmarkSupport() {
+    }
+
+    static ConfigurableApplicationContext start(String name, WebApplicationType type, String... properties) {
+        return new SpringApplicationBuilder(UiCommentApplication.class)
+                .web(type)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + name + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    static String pageUrl(int page) {
+        return "https://bench.example.com/app/page-" + page;
+    }
+
+    /** Inserts {@code rows} comments spread evenly over {@link #PAGES} pages, bypassing JPA. */
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        CommentSeeder.seed(context.getBean(JdbcTemplate.class), rows,
+                id -> new CommentSeeder.Pin(pageUrl(id % PAGES), id % 1200, id % 800));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.uicomment.benchmark;
+
+import com.example.uicomment.service.CommentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Full MVC round trips (dispatch, service, JSON) through MockMvc against 10k seeded comments,
+ * with the read cache enabled as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentControllerBenchmark {
+    private static final int ROWS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkSupport.start("controller", WebApplicationType.SERVLET);
+        BenchmarkSupport.seed(context, ROWS);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getById() throws Exception {
+        return mockMvc.perform(get("/api/comments/{id}", ThreadLocalRandom.current().nextInt(1, ROWS + 1)))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getByPage() throws Exception {
+        String url = BenchmarkSupport.pageUrl(ThreadLocalRandom.current().nextInt(BenchmarkSupport.PAGES));
+        return mockMvc.perform(get("/api/comments/page").param("url", url)
+                .param("limit", String.valueOf(CommentService.DEFAULT_PAGE_SIZE))).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult create() throws Exception {
+        String body = "{\"pageUrl\":\"" + BenchmarkSupport.pageUrl(0) + "\",\"content\":\"Benchmark\","
+                + "\"positionX\":10,\"positionY\":20}";
+        return mockMvc.perform(post("/api/comments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn();
+    }
+}
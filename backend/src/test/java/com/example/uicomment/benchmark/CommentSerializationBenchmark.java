@@ -0,0 +1,109 @@
+package com.example.uicomment.benchmark;
+
+import com.example.uicomment.config.BinaryEncodingConfig;
+import com.example.uicomment.model.Comment;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of comment lists as returned by the list endpoints, using the same
+ * ObjectMapper defaults Spring Boot applies, as JSON and as the CBOR served for {@code Accept: application/cbor}.
+ * The encoded size is reported next to the serialize scores as the {@code bytes} secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentSerializationBenchmark {
+    private static final TypeReference<List<Comment>> COMMENT_LIST = new TypeReference<>() {
+    };
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<Comment> comments;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Spring Boot writes dates in JSON as ISO strings; the CBOR mapper switches back to epoch millis.
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper = "cbor".equals(format) ? BinaryEncodingConfig.cborMapper(builder) : builder.build();
+        comments = new ArrayList<>(size);
+        Date now = new Date();
+        for (int i = 1; i <= size; i++) {
+            Comment comment = new Comment();
+            comment.setId((long) i);
+            comment.setPageUrl(BenchmarkSupport.pageUrl(i % 10));
+            comment.setContent("The button label is cut off on narrow screens (" + i + ")");
+            comment.setPositionX(i % 1200);
+            comment.setPositionY(i % 800);
+            comment.setStatus("OPEN");
+            comment.setPriority(i % 3 == 0 ? "HIGH" : "MEDIUM");
+            comment.setCategory(i % 2 == 0 ? "BUG" : "IMPROVEMENT");
+            comment.setAuthorName("Reviewer " + (i % 7));
+            comment.setAuthorEmail("reviewer" + (i % 7) + "@example.com");
+            comment.setCreatedAt(now);
+            comment.setUpdatedAt(now);
+            comment.setVersion(0L);
+            comments.add(comment);
+        }
+        encoded = objectMapper.writeValueAsBytes(comments);
+    }
+
+    @Benchmark
+    public byte[] serialize(EncodedSize encodedSize) throws Exception {
+        byte[] bytes = objectMapper.writeValueAsBytes(comments);
+        encodedSize.record(bytes.length);
+        return bytes;
+    }
+
+    @Benchmark
+    public List<Comment> deserialize() throws Exception {
+        return objectMapper.readValue(encoded, COMMENT_LIST);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public double bytes;
+        private int iterations;
+
+        @Setup
+        public void setUp(BenchmarkParams params) {
+            iterations = params.getMeasurement().getCount();
+        }
+
+        // JMH sums event counters over the measurement iterations, so each iteration reports its share.
+        void record(int length) {
+            bytes = (double) length / iterations;
+        }
+    }
+}
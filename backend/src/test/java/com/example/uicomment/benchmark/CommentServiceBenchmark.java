@@ -0,0 +1,77 @@
+package com.example.uicomment.benchmark;
+
+import com.example.uicomment.dto.CommentPage;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.service.CommentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level throughput against H2 at different table sizes. The read cache is disabled (zero TTL) so
+ * page lookups measure the indexed keyset query rather than a cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CommentServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private CommentService commentService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkSupport.start("service-" + rows, WebApplicationType.NONE, "app.cache.comments.ttl=0s");
+        BenchmarkSupport.seed(context, rows);
+        commentService = context.getBean(CommentService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Comment create() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Comment comment = new Comment();
+        comment.setPageUrl(BenchmarkSupport.pageUrl(random.nextInt(BenchmarkSupport.PAGES)));
+        comment.setContent("Benchmark comment");
+        comment.setPositionX(random.nextInt(1200));
+        comment.setPositionY(random.nextInt(800));
+        return commentService.createComment(comment);
+    }
+
+    @Benchmark
+    public Comment update() {
+        Comment updates = new Comment();
+        updates.setContent("Updated " + System.nanoTime());
+        return commentService.updateComment(ThreadLocalRandom.current().nextLong(1, rows + 1), updates);
+    }
+
+    @Benchmark
+    public CommentPage<Comment> lookupByPage() {
+        String url = BenchmarkSupport.pageUrl(ThreadLocalRandom.current().nextInt(BenchmarkSupport.PAGES));
+        return commentService.getCommentsByPageUrl(url, null, CommentService.DEFAULT_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.uicomment.cluster;
+
+import com.example.uicomment.UiCommentApplication;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.service.CommentService;
+import com.example.uicomment.stats.CommentStatsService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application contexts on one embedded database, joined by the in-memory bus: what one node writes must
+ * reach the caches and counters of the other.
+ */
+class MultiNodeIntegrationTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        String database = "jdbc:h2:mem:cluster-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        String channel = "cluster_test_" + System.nanoTime();
+        nodeA = startNode("node-a", database, channel);
+        nodeB = startNode("node-b", database, channel);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void testWritesOnOneNodeReachTheOther() {
+        CommentService serviceA = nodeA.getBean(CommentService.class);
+        CommentService serviceB = nodeB.getBean(CommentService.class);
+        CommentStatsService statsB = nodeB.getBean(CommentStatsService.class);
+        String page = "http://localhost:5173/cluster";
+
+        // Node B caches the empty page before node A writes to it.
+        assertTrue(serviceB.getCommentsByPageUrl(page, null, 100).items().isEmpty());
+        long totalBefore = statsB.getStats().total();
+
+        Comment created = serviceA.createComment(comment(page, "first"));
+        await(() -> serviceB.getCommentsByPageUrl(page, null, 100).items().size() == 1);
+        await(() -> statsB.getStats().total() == totalBefore + 1);
+        // Relayed comments carry no page key; the page counters must still see them.
+        await(() -> statsB.getPageStats(page).total() == 1);
+        assertEquals(Map.of("OPEN", 1L), statsB.getPageStats(page).byStatus());
+
+        assertEquals("first", serviceB.getCommentById(created.getId()).orElseThrow().getContent());
+        Comment edit = new Comment();
+        edit.setContent("edited");
+        edit.setStatus("RESOLVED");
+        serviceA.updateComment(created.getId(), edit);
+        await(() -> serviceB.getCommentById(created.getId()).map(Comment::getContent).orElse("").equals("edited"));
+        await(() -> statsB.getStats().byStatus().getOrDefault("RESOLVED", 0L) == 1L);
+        await(() -> statsB.getPageStats(page).byStatus().equals(Map.of("RESOLVED", 1L)));
+
+        serviceA.deleteComment(created.getId());
+        await(() -> serviceB.getCommentById(created.getId()).isEmpty());
+        await(() -> statsB.getStats().total() == totalBefore);
+        await(() -> statsB.getPageStats(page).total() == 0);
+    }
+
+    @Test
+    void testPatchKnownOnlyByIdEvictsTheOtherNode() {
+        CommentService serviceA = nodeA.getBean(CommentService.class);
+        CommentService serviceB = nodeB.getBean(CommentService.class);
+        Comment created = serviceA.createComment(comment("http://localhost:5173/patched", "pin"));
+        await(() -> serviceB.getCommentById(created.getId()).isPresent());
+
+        Comment move = new Comment();
+        move.setPositionX(640);
+        serviceA.patchComment(created.getId(), move, null);
+
+        await(() -> serviceB.getCommentById(created.getId()).map(Comment::getPositionX).orElse(0) == 640);
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, String database, String channel) {
+        return new SpringApplicationBuilder(UiCommentApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + database,
+                        "app.cluster.bus=memory",
+                        "app.cluster.channel=" + channel,
+                        "app.cluster.node-id=" + nodeId,
+                        "app.archive.enabled=false")
+                .run();
+    }
+
+    private static Comment comment(String pageUrl, String content) {
+        Comment comment = new Comment();
+        comment.setPageUrl(pageUrl);
+        comment.setContent(content);
+        comment.setPositionX(100);
+        comment.setPositionY(200);
+        comment.setStatus("OPEN");
+        comment.setCreatedAt(new Date());
+        comment.setUpdatedAt(new Date());
+        return comment;
+    }
+
+    // Delivery is asynchronous; a missing relay shows up as a timeout.
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("change did not reach the other node");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
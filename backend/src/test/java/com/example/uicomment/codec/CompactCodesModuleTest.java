@@ -0,0 +1,109 @@
+package com.example.uicomment.codec;
+
+import com.example.uicomment.config.BinaryEncodingConfig;
+import com.example.uicomment.dto.CommentSummary;
+import com.example.uicomment.model.Comment;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactCodesModuleTest {
+
+    private final ObjectMapper cborMapper = BinaryEncodingConfig.cborMapper(Jackson2ObjectMapperBuilder.json());
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void testWritesCodesAndEpochMillis() throws Exception {
+        Comment comment = comment("IN_PROGRESS", "HIGH", "FEATURE");
+
+        JsonNode tree = cborMapper.readTree(cborMapper.writeValueAsBytes(comment));
+
+        assertEquals(1, tree.get("status").intValue());
+        assertEquals(2, tree.get("priority").intValue());
+        assertEquals(1, tree.get("category").intValue());
+        assertEquals(comment.getCreatedAt().getTime(), tree.get("createdAt").longValue());
+        assertEquals("Overlapping label", tree.get("content").textValue());
+    }
+
+    @Test
+    void testKeepsUnknownValuesAsStrings() throws Exception {
+        JsonNode tree = cborMapper.readTree(cborMapper.writeValueAsBytes(comment("WONT_FIX", "MEDIUM", null)));
+
+        assertEquals("WONT_FIX", tree.get("status").textValue());
+        assertEquals(1, tree.get("priority").intValue());
+        assertTrue(tree.get("category").isNull());
+    }
+
+    @Test
+    void testCodesSummaries() throws Exception {
+        CommentSummary summary = new CommentSummary(7L, 10, 20, "CLOSED", "LOW", new Date(1_000L));
+
+        JsonNode tree = cborMapper.readTree(cborMapper.writeValueAsBytes(summary));
+
+        assertEquals(3, tree.get("status").intValue());
+        assertEquals(0, tree.get("priority").intValue());
+        // Only the cursor needs it, so the summary body leaves it out.
+        assertFalse(tree.has("createdAt"));
+    }
+
+    @Test
+    void testRoundTripsComments() throws Exception {
+        Comment comment = comment("RESOLVED", "CRITICAL", "QUESTION");
+
+        Comment read = cborMapper.readValue(cborMapper.writeValueAsBytes(comment), Comment.class);
+
+        assertEquals("RESOLVED", read.getStatus());
+        assertEquals("CRITICAL", read.getPriority());
+        assertEquals("QUESTION", read.getCategory());
+        assertEquals(comment.getCreatedAt(), read.getCreatedAt());
+    }
+
+    @Test
+    void testReadsNamesAndRejectsUnknownCodes() throws Exception {
+        byte[] named = cborMapper.writeValueAsBytes(Map.of("status", "OPEN", "priority", "HIGH"));
+        byte[] unknown = cborMapper.writeValueAsBytes(Map.of("status", "OPEN", "priority", 9));
+
+        assertEquals("HIGH", cborMapper.readValue(named, Comment.class).getPriority());
+        InvalidFormatException e = assertThrows(InvalidFormatException.class,
+                () -> cborMapper.readValue(unknown, Comment.class));
+        assertTrue(e.getMessage().contains("code 9"));
+    }
+
+    @Test
+    void testLeavesJsonUntouched() throws Exception {
+        JsonNode tree = jsonMapper.readTree(jsonMapper.writeValueAsBytes(comment("OPEN", "LOW", "BUG")));
+
+        assertEquals("OPEN", tree.get("status").textValue());
+    }
+
+    @Test
+    void testCborIsSmallerThanJson() throws Exception {
+        List<Comment> comments = List.of(comment("OPEN", "LOW", "BUG"), comment("RESOLVED", "HIGH", "FEATURE"));
+
+        assertTrue(cborMapper.writeValueAsBytes(comments).length < jsonMapper.writeValueAsBytes(comments).length);
+    }
+
+    private static Comment comment(String status, String priority, String category) {
+        Comment comment = new Comment();
+        comment.setId(1L);
+        comment.setPageUrl("http://localhost:5173/");
+        comment.setContent("Overlapping label");
+        comment.setPositionX(10);
+        comment.setPositionY(20);
+        comment.setStatus(status);
+        comment.setPriority(priority);
+        comment.setCategory(category);
+        comment.setCreatedAt(new Date(1_700_000_000_123L));
+        comment.setUpdatedAt(new Date(1_700_000_000_456L));
+        comment.setVersion(0L);
+        return comment;
+    }
+}
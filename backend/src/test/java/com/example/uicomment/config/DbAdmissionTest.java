@@ -0,0 +1,74 @@
+package com.example.uicomment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DbAdmissionTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private final AdmissionControlledDataSource gated =
+            new AdmissionControlledDataSource(target, 1, Duration.ofMillis(10));
+
+    @Test
+    void testPermitIsHeldUntilConnectionCloses() throws Exception {
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+
+        Connection connection = gated.getConnection();
+        assertEquals(0, gated.availablePermits());
+        assertThrows(DbAdmissionRejectedException.class, gated::getConnection);
+
+        connection.close();
+        connection.close();
+        verify(physical, times(2)).close();
+        assertEquals(1, gated.availablePermits());
+    }
+
+    @Test
+    void testFailedCheckoutReturnsPermit() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThrows(SQLException.class, gated::getConnection);
+        assertEquals(1, gated.availablePermits());
+    }
+
+    @Test
+    void testWrapsHikariPoolsWithOnePermitPerConnection() throws Exception {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(3);
+
+        Object wrapped = new DbAdmission(Duration.ofMillis(10)).postProcessAfterInitialization(pool, "dataSource");
+
+        AdmissionControlledDataSource admission = assertInstanceOf(AdmissionControlledDataSource.class, wrapped);
+        assertEquals(3, admission.availablePermits());
+        assertSame(pool, admission.unwrap(HikariDataSource.class));
+        admission.close();
+        assertTrue(pool.isClosed());
+    }
+
+    @Test
+    void testShedCheckoutAnswersServiceUnavailable() throws Exception {
+        DbAdmissionExceptionHandler handler = new DbAdmissionExceptionHandler();
+
+        ResponseEntity<Void> response = handler.handleDataAccessFailure(
+                new CannotCreateTransactionException("Could not open JPA EntityManager",
+                        new DbAdmissionRejectedException()));
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+
+        CannotCreateTransactionException other = new CannotCreateTransactionException("Database down",
+                new SQLException("Connection refused"));
+        assertSame(other, assertThrows(CannotCreateTransactionException.class,
+                () -> handler.handleDataAccessFailure(other)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.uicomment.config;
+
+import com.example.uicomment.dto.CommentSummary;
+import com.example.uicomment.event.CommentChangeEvent;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.repository.CollectionVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void testRegistersJacksonBindingForComment() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Comment.class.getMethod("getPageUrl")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Comment.class.getMethod("setPageUrl", String.class))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CommentChangeEvent.class).test(hints));
+    }
+
+    @Test
+    void testRegistersClusterEnvelopeByName() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.example.uicomment.cluster.EventEnvelope")).test(hints));
+    }
+
+    @Test
+    void testRegistersQueryConstructorResults() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CommentSummary.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(CollectionVersion.class.getConstructors()[0]).test(hints));
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.uicomment.controller;
+
+import com.example.uicomment.model.Comment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code /api/comments} contract both variants serve: the servlet {@link CommentController} and the WebFlux
+ * {@code ReactiveCommentController}. Subclasses only bind a client and clear the table, so every status code,
+ * header and body asserted here holds for both.
+ */
+public abstract class CommentApiContract {
+    private static final String PAGE = "http://localhost:5173/contract";
+
+    protected abstract WebTestClient client();
+
+    protected abstract void deleteAllComments();
+
+    @BeforeEach
+    void clearComments() {
+        deleteAllComments();
+    }
+
+    @Test
+    void testCreateAndGetComment() {
+        Comment created = create(PAGE, "First", "OPEN");
+
+        assertNotNull(created.getId());
+        assertEquals(0L, created.getVersion());
+        client().get().uri("/api/comments/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, CommentController.REVALIDATE)
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(created.getId())
+                .jsonPath("$.pageUrl").isEqualTo(PAGE)
+                .jsonPath("$.content").isEqualTo("First")
+                .jsonPath("$.positionX").isEqualTo(100)
+                .jsonPath("$.status").isEqualTo("OPEN")
+                .jsonPath("$.pageKey").doesNotExist();
+    }
+
+    @Test
+    void testGetCommentRevalidatesWithETag() {
+        Comment created = create(PAGE, "First", "OPEN");
+
+        client().get().uri("/api/comments/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void testGetMissingCommentIsNotFound() {
+        client().get().uri("/api/comments/{id}", 99999L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testListPageWithCursor() {
+        Comment first = create(PAGE, "First", "OPEN");
+        Comment second = create(PAGE, "Second", "OPEN");
+        Comment third = create(PAGE, "Third", "OPEN");
+        create("http://localhost:5173/other", "Elsewhere", "OPEN");
+
+        String cursor = client().get().uri("/api/comments/page?url={url}&limit=2", PAGE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(CommentController.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isEqualTo(first.getId())
+                .jsonPath("$[1].id").isEqualTo(second.getId())
+                .returnResult()
+                .getResponseHeaders()
+                .getFirst(CommentController.NEXT_CURSOR_HEADER);
+
+        client().get().uri("/api/comments/page?url={url}&limit=2&cursor={cursor}", PAGE, cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(CommentController.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(third.getId());
+    }
+
+    @Test
+    void testListPageSummaryView() {
+        Comment created = create(PAGE, "First", "OPEN");
+
+        client().get().uri("/api/comments/page?url={url}&view=summary", PAGE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(created.getId())
+                .jsonPath("$[0].positionX").isEqualTo(100)
+                .jsonPath("$[0].status").isEqualTo("OPEN")
+                .jsonPath("$[0].content").doesNotExist();
+    }
+
+    @Test
+    void testListAllAndByStatus() {
+        create(PAGE, "Open", "OPEN");
+        Comment resolved = create(PAGE, "Resolved", "RESOLVED");
+
+        client().get().uri("/api/comments")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+
+        client().get().uri("/api/comments/status/RESOLVED")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(resolved.getId());
+    }
+
+    @Test
+    void testListRevalidatesUntilTheCollectionChanges() {
+        create(PAGE, "First", "OPEN");
+        String eTag = client().get().uri("/api/comments/status/OPEN")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, CommentController.REVALIDATE)
+                .expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(eTag);
+
+        client().get().uri("/api/comments/status/OPEN")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        create(PAGE, "Second", "OPEN");
+        client().get().uri("/api/comments/status/OPEN")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, not(eTag));
+    }
+
+    @Test
+    void testMalformedCursorIsBadRequest() {
+        client().get().uri("/api/comments?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testUpdateComment() {
+        Comment created = create(PAGE, "First", "OPEN");
+        Comment updates = new Comment();
+        updates.setContent("Edited");
+        updates.setStatus("RESOLVED");
+
+        client().put().uri("/api/comments/{id}", created.getId())
+                .bodyValue(updates)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content").isEqualTo("Edited")
+                .jsonPath("$.status").isEqualTo("RESOLVED")
+                .jsonPath("$.positionX").isEqualTo(100);
+
+        client().get().uri("/api/comments/{id}", created.getId())
+                .exchange()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+        client().put().uri("/api/comments/{id}", 99999L)
+                .bodyValue(updates)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testPatchCommentWithVersion() {
+        Comment created = create(PAGE, "First", "OPEN");
+        Comment move = new Comment();
+        move.setPositionX(300);
+
+        client().patch().uri("/api/comments/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(move)
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        client().patch().uri("/api/comments/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(move)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        client().get().uri("/api/comments/{id}", created.getId())
+                .exchange()
+                .expectBody()
+                .jsonPath("$.positionX").isEqualTo(300)
+                .jsonPath("$.positionY").isEqualTo(200)
+                .jsonPath("$.version").isEqualTo(1);
+    }
+
+    @Test
+    void testPatchMissingCommentIsNotFound() {
+        Comment updates = new Comment();
+        updates.setStatus("RESOLVED");
+
+        client().patch().uri("/api/comments/{id}", 99999L)
+                .bodyValue(updates)
+                .exchange()
+                .expectStatus().isNotFound();
+        client().patch().uri("/api/comments/{id}", 99999L)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(updates)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testDeleteComment() {
+        Comment created = create(PAGE, "First", "OPEN");
+
+        client().delete().uri("/api/comments/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        client().get().uri("/api/comments/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+        client().get().uri("/api/comments/page?url={url}", PAGE)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(0);
+        client().delete().uri("/api/comments/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    void testExportCsv() {
+        create(PAGE, "Plain", "OPEN");
+        create(PAGE, "Has, comma", "RESOLVED");
+
+        String body = client().get().uri("/api/comments/export?format=csv&url={url}", PAGE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text/csv")
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"comments.csv\"")
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("id,pageUrl,content"));
+        assertTrue(lines.get(2).contains("\"Has, comma\""));
+    }
+
+    @Test
+    void testExportNdjsonByStatus() {
+        create(PAGE, "Open", "OPEN");
+        Comment resolved = create(PAGE, "Resolved", "RESOLVED");
+
+        String body = client().get().uri("/api/comments/export?status=RESOLVED")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("application/x-ndjson")
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"id\":" + resolved.getId()));
+    }
+
+    private Comment create(String pageUrl, String content, String status) {
+        Comment comment = new Comment();
+        comment.setPageUrl(pageUrl);
+        comment.setContent(content);
+        comment.setPositionX(100);
+        comment.setPositionY(200);
+        comment.setStatus(status);
+        comment.setPriority("MEDIUM");
+        comment.setAuthorName("Test User");
+        comment.setCategory("BUG");
+        return client().post().uri("/api/comments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(comment)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Comment.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -1,25 +1,41 @@
 package com.example.uicomment.controller;
 
+import com.example.uicomment.cache.CommentCache;
+import com.example.uicomment.codec.CommentCodes;
 import com.example.uicomment.model.Comment;
+import com.example.uicomment.repository.ArchivedCommentRepository;
 import com.example.uicomment.repository.CommentRepository;
+import com.example.uicomment.service.ChangeToken;
+import com.example.uicomment.stats.CommentStatsService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Date;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 @Transactional
 class CommentControllerIntegrationTest {
 
@@ -29,14 +45,32 @@ class CommentControllerIntegrationTest {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private ArchivedCommentRepository archivedCommentRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CommentCache commentCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CommentStatsService commentStatsService;
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Comment testComment;
 
     @BeforeEach
     void setUp() {
         commentRepository.deleteAll();
+        commentCache.clear();
         
         testComment = new Comment();
         testComment.setPageUrl("http://localhost:5173/");
@@ -64,6 +98,52 @@ class CommentControllerIntegrationTest {
                 .andExpect(jsonPath("$.priority").value("MEDIUM"));
     }
 
+    @Test
+    void testCreateCommentsInBatch() throws Exception {
+        Comment invalid = new Comment();
+        invalid.setContent("No position or page");
+
+        mockMvc.perform(post("/api/comments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(testComment, invalid))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andExpect(jsonPath("$[1].error", containsString("pageUrl")));
+
+        assertEquals(1, commentRepository.count());
+    }
+
+    @Test
+    void testUpdateAndDeleteCommentsInBatch() throws Exception {
+        Comment saved = commentRepository.save(testComment);
+        Comment update = new Comment();
+        update.setId(saved.getId());
+        update.setStatus("RESOLVED");
+        Comment missing = new Comment();
+        missing.setId(99999L);
+
+        mockMvc.perform(patch("/api/comments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(update, missing))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+
+        mockMvc.perform(get("/api/comments/" + saved.getId()))
+                .andExpect(jsonPath("$.status").value("RESOLVED"))
+                .andExpect(jsonPath("$.content").value("Test comment"));
+
+        mockMvc.perform(delete("/api/comments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + saved.getId() + ", 99999]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+    }
+
     @Test
     void testGetAllComments() throws Exception {
         commentRepository.save(testComment);
@@ -74,6 +154,39 @@ class CommentControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].content").value("Test comment"));
     }
 
+    @Test
+    void testGetAllCommentsIsKeysetPaginated() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Comment comment = new Comment();
+            comment.setPageUrl("http://localhost:5173/");
+            comment.setContent("Comment " + i);
+            comment.setPositionX(i);
+            comment.setPositionY(i);
+            comment.setCreatedAt(new Date(1000L + i));
+            comment.setUpdatedAt(new Date());
+            commentRepository.save(comment);
+        }
+
+        String cursor = mockMvc.perform(get("/api/comments").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].content").value("Comment 0"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/comments").param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].content").value("Comment 2"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testGetAllCommentsRejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/comments").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetCommentById() throws Exception {
         Comment saved = commentRepository.save(testComment);
@@ -84,6 +197,71 @@ class CommentControllerIntegrationTest {
                 .andExpect(jsonPath("$.content").value("Test comment"));
     }
 
+    @Test
+    void testNegotiatesCbor() throws Exception {
+        Comment saved = commentRepository.save(testComment);
+
+        byte[] body = mockMvc.perform(get("/api/comments/page")
+                .param("url", "http://localhost:5173/")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept"))))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode first = cborMapper.readTree(body).get(0);
+        assertEquals(saved.getId().longValue(), first.get("id").longValue());
+        assertEquals(CommentCodes.STATUSES.indexOf("OPEN"), first.get("status").intValue());
+        assertEquals(saved.getCreatedAt().getTime(), first.get("createdAt").longValue());
+
+        mockMvc.perform(get("/api/comments/" + saved.getId()))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value("OPEN"));
+    }
+
+    @Test
+    void testVaryKeepsCorsValues() throws Exception {
+        Comment saved = commentRepository.save(testComment);
+
+        for (String path : List.of("/api/comments/page?url=http://localhost:5173/", "/api/comments/" + saved.getId())) {
+            List<String> vary = mockMvc.perform(get(path).header("Origin", "http://localhost:5173"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Access-Control-Allow-Origin", "http://localhost:5173"))
+                    .andReturn().getResponse().getHeaders("Vary");
+            String joined = String.join(",", vary);
+            assertThat(joined, containsString("Origin"));
+            assertThat(joined, containsString("Accept"));
+        }
+    }
+
+    @Test
+    void testCborAndJsonHaveDistinctETags() throws Exception {
+        Comment saved = commentRepository.save(testComment);
+        entityManager.flush();
+
+        mockMvc.perform(get("/api/comments/" + saved.getId())
+                .header("Accept", "application/cbor, application/json;q=0.9"))
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"0+cbor\""));
+        mockMvc.perform(get("/api/comments/" + saved.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/comments/" + saved.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", "\"0+cbor\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/comments/" + saved.getId()))
+                .andExpect(header().string("ETag", "\"0\""));
+
+        // Either tag names the version for If-Match.
+        mockMvc.perform(patch("/api/comments/" + saved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-Match", "\"0+cbor\"")
+                .content("{\"positionX\":300}"))
+                .andExpect(status().isNoContent());
+    }
+
     @Test
     void testGetCommentByIdNotFound() throws Exception {
         mockMvc.perform(get("/api/comments/99999"))
@@ -101,6 +279,101 @@ class CommentControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].pageUrl").value("http://localhost:5173/"));
     }
 
+    @Test
+    void testGetCommentsByPageUrlMatchesEquivalentUrls() throws Exception {
+        testComment.setPageUrl("http://localhost:5173/app?b=2&a=1");
+        commentRepository.save(testComment);
+
+        mockMvc.perform(get("/api/comments/page")
+                .param("url", "HTTP://LOCALHOST:5173/app?a=1&b=2&utm_source=mail#section"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].pageUrl").value("http://localhost:5173/app?b=2&a=1"))
+                .andExpect(jsonPath("$[0].pageKey").doesNotExist());
+    }
+
+    @Test
+    void testCreateCommentRefreshesCachedPage() throws Exception {
+        commentRepository.save(testComment);
+
+        mockMvc.perform(get("/api/comments/page").param("url", "http://localhost:5173/"))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(post("/api/comments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"pageUrl\":\"http://localhost:5173/\",\"content\":\"Another\",\"positionX\":1,\"positionY\":2}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/comments/page").param("url", "http://localhost:5173/"))
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        mockMvc.perform(get("/api/comments/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byPage.misses").value(greaterThanOrEqualTo(2)));
+    }
+
+    @Test
+    // Cached pages are evicted when a write commits, so the writes here must commit.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testPageAnswersNotModifiedUntilItChanges() throws Exception {
+        Comment saved = commentRepository.save(testComment);
+        try {
+            String eTag = mockMvc.perform(get("/api/comments/page").param("url", "http://localhost:5173/"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "no-cache"))
+                    .andExpect(header().exists("Last-Modified"))
+                    .andReturn().getResponse().getHeader("ETag");
+            assertNotNull(eTag);
+
+            mockMvc.perform(get("/api/comments/page").param("url", "http://localhost:5173/")
+                    .header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            mockMvc.perform(put("/api/comments/" + saved.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"content\":\"Changed\"}"))
+                    .andExpect(status().isOk());
+
+            String changed = mockMvc.perform(get("/api/comments/page").param("url", "http://localhost:5173/")
+                    .header("If-None-Match", eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].content").value("Changed"))
+                    .andReturn().getResponse().getHeader("ETag");
+            assertNotEquals(eTag, changed);
+
+            mockMvc.perform(delete("/api/comments/" + saved.getId()))
+                    .andExpect(status().isNoContent());
+
+            mockMvc.perform(get("/api/comments/page").param("url", "http://localhost:5173/")
+                    .header("If-None-Match", changed))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(0)));
+        } finally {
+            // Nothing rolls this committed row back, and the DELETE above only soft-deletes it.
+            jdbcTemplate.update("delete from comments where id = ?", saved.getId());
+        }
+    }
+
+    @Test
+    void testGetCommentByIdIsConditionalOnVersion() throws Exception {
+        Comment saved = commentRepository.save(testComment);
+        entityManager.flush();
+
+        mockMvc.perform(get("/api/comments/" + saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + saved.getVersion() + "\""));
+
+        mockMvc.perform(get("/api/comments/" + saved.getId())
+                .header("If-None-Match", "\"" + saved.getVersion() + "\""))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/comments/status/OPEN")
+                .header("If-None-Match", "W/\"0-0-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("W/")));
+    }
+
     @Test
     void testGetCommentsByStatus() throws Exception {
         commentRepository.save(testComment);
@@ -111,6 +384,50 @@ class CommentControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].status").value("OPEN"));
     }
 
+    @Test
+    void testExportCommentsAsNdjson() throws Exception {
+        commentRepository.save(testComment);
+
+        String body = mockMvc.perform(get("/api/comments/export").param("status", "OPEN"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", containsString("comments.ndjson")))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(1, lines.length);
+        assertEquals("Test comment", objectMapper.readValue(lines[0], Comment.class).getContent());
+    }
+
+    @Test
+    void testExportCommentsAsCsvAppliesFilters() throws Exception {
+        testComment.setContent("Has, comma");
+        commentRepository.save(testComment);
+
+        String body = mockMvc.perform(get("/api/comments/export")
+                .param("format", "csv")
+                .param("url", "http://localhost:5173/"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,pageUrl,content"));
+        assertTrue(lines[1].contains("\"Has, comma\""));
+
+        String filtered = mockMvc.perform(get("/api/comments/export")
+                .param("format", "csv")
+                .param("status", "CLOSED"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(1, filtered.trim().split("\n").length);
+    }
+
+    @Test
+    void testExportRejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/comments/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testUpdateComment() throws Exception {
         Comment saved = commentRepository.save(testComment);
@@ -139,6 +456,69 @@ class CommentControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testPatchCommentWithVersion() throws Exception {
+        Comment saved = commentRepository.saveAndFlush(testComment);
+        assertEquals(0L, saved.getVersion());
+
+        mockMvc.perform(patch("/api/comments/" + saved.getId())
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"positionX\":300,\"positionY\":400}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        // A second drag based on the old version must not clobber the first one
+        mockMvc.perform(patch("/api/comments/" + saved.getId())
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"positionX\":1}"))
+                .andExpect(status().isConflict());
+
+        // The bulk UPDATE bypasses this test's persistence context
+        entityManager.clear();
+        mockMvc.perform(get("/api/comments/" + saved.getId()))
+                .andExpect(jsonPath("$.positionX").value(300))
+                .andExpect(jsonPath("$.positionY").value(400))
+                .andExpect(jsonPath("$.content").value("Test comment"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void testPreferRespondAsyncBuffersOnlyPositionAndStatus() throws Exception {
+        Comment saved = commentRepository.saveAndFlush(testComment);
+
+        MvcResult buffered = mockMvc.perform(patch("/api/comments/" + saved.getId())
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"positionX\":300,\"positionY\":400}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(buffered))
+                .andExpect(status().isAccepted());
+
+        // Content edits are never buffered; they are written before the response.
+        MvcResult direct = mockMvc.perform(patch("/api/comments/" + saved.getId())
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"content\":\"Edited\"}"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(direct))
+                .andExpect(status().isNoContent());
+
+        entityManager.clear();
+        mockMvc.perform(get("/api/comments/" + saved.getId()))
+                .andExpect(jsonPath("$.content").value("Edited"));
+    }
+
+    @Test
+    void testPatchCommentNotFound() throws Exception {
+        mockMvc.perform(patch("/api/comments/99999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"positionX\":1}"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testDeleteComment() throws Exception {
         Comment saved = commentRepository.save(testComment);
@@ -149,6 +529,66 @@ class CommentControllerIntegrationTest {
         // Verify it was deleted
         mockMvc.perform(get("/api/comments/" + saved.getId()))
                 .andExpect(status().isNotFound());
+
+        // The row stays until archival purges it
+        Object deletedAt = entityManager
+                .createNativeQuery("select deleted_at from comments where id = :id")
+                .setParameter("id", saved.getId())
+                .getSingleResult();
+        assertNotNull(deletedAt);
+        assertEquals(0, commentRepository.count());
+    }
+
+    @Test
+    void testBulkDeleteStartsAJob() throws Exception {
+        mockMvc.perform(delete("/api/comments"))
+                .andExpect(status().isBadRequest());
+
+        MvcResult result = mockMvc.perform(delete("/api/comments").param("status", "OPEN"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/api/comments/jobs/")))
+                .andExpect(jsonPath("$.type").value("BULK_DELETE"))
+                .andExpect(jsonPath("$.criteria.status").value("OPEN"))
+                .andReturn();
+
+        mockMvc.perform(get(result.getResponse().getHeader("Location")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type").value("BULK_DELETE"));
+        mockMvc.perform(get("/api/comments/jobs/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testChangesSinceReturnsUpdatesAndTombstones() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/comments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testComment)))
+                .andExpect(status().isOk())
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        MvcResult snapshot = mockMvc.perform(get("/api/comments/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id").value(id))
+                .andExpect(jsonPath("$.deleted", hasSize(0)))
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andReturn();
+        String token = objectMapper.readTree(snapshot.getResponse().getContentAsString()).get("token").asText();
+
+        mockMvc.perform(delete("/api/comments/" + id))
+                .andExpect(status().isNoContent());
+
+        // The write is inside the settle window, so the token has not moved past it and the delete is seen.
+        mockMvc.perform(get("/api/comments/changes").param("since", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed", hasSize(0)))
+                .andExpect(jsonPath("$.deleted[0]").value(id));
+
+        mockMvc.perform(get("/api/comments/changes").param("since", "not a token"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/comments/changes")
+                        .param("since", new ChangeToken(0, 0, 0).encode()))
+                .andExpect(status().isGone());
     }
 
     @Test
@@ -168,4 +608,172 @@ class CommentControllerIntegrationTest {
                 .andExpect(jsonPath("$.content").value("Test comment"))
                 .andExpect(jsonPath("$.authorName").value("Test User"));
     }
+
+    @Test
+    void testPrometheusEndpointExposesRequestMetrics() throws Exception {
+        commentRepository.save(testComment);
+
+        mockMvc.perform(get("/api/comments/page").param("url", "http://localhost:5173/"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"GET\"")))
+                .andExpect(content().string(containsString(
+                        "comments_db_statements_count{method=\"GET\",uri=\"/api/comments/page\"")))
+                .andExpect(content().string(containsString(
+                        "comments_http_response_size_bytes_count{method=\"GET\",uri=\"/api/comments/page\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_statements_total")));
+    }
+
+    @Test
+    void testSummaryViewReturnsOnlyPinFields() throws Exception {
+        Comment saved = commentRepository.save(testComment);
+
+        mockMvc.perform(get("/api/comments/page").param("url", "http://localhost:5173/").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(saved.getId()))
+                .andExpect(jsonPath("$[0].positionX").value(100))
+                .andExpect(jsonPath("$[0].status").value("OPEN"))
+                .andExpect(jsonPath("$[0].priority").value("MEDIUM"))
+                .andExpect(jsonPath("$[0].content").doesNotExist())
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+
+        mockMvc.perform(get("/api/comments/status/OPEN").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(saved.getId()))
+                .andExpect(jsonPath("$[0].authorName").doesNotExist());
+
+        mockMvc.perform(get("/api/comments/page").param("url", "http://localhost:5173/").param("view", "everything"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testViewportReturnsVisiblePinsAndClusters() throws Exception {
+        Comment visible = commentRepository.save(testComment);
+        commentRepository.save(pinAt(150, 220));
+        commentRepository.save(pinAt(2000, 2000));
+
+        mockMvc.perform(get("/api/comments/viewport").param("url", "http://localhost:5173/")
+                        .param("minX", "0").param("minY", "0").param("maxX", "1000").param("maxY", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pins", hasSize(2)))
+                .andExpect(jsonPath("$.pins[0].id").value(visible.getId()))
+                .andExpect(jsonPath("$.truncated").value(false));
+
+        mockMvc.perform(get("/api/comments/viewport").param("url", "http://localhost:5173/")
+                        .param("minX", "0").param("minY", "0").param("maxX", "1000").param("maxY", "1000")
+                        .param("clusterLevel", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pins", hasSize(0)))
+                .andExpect(jsonPath("$.clusters", hasSize(1)))
+                .andExpect(jsonPath("$.clusters[0].count").value(2))
+                .andExpect(jsonPath("$.clusters[0].x").value(125));
+
+        // A single-statement PATCH moves the pin out of view; its tile must follow.
+        mockMvc.perform(patch("/api/comments/" + visible.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"positionX\": 3000}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/comments/viewport").param("url", "http://localhost:5173/")
+                        .param("minX", "0").param("minY", "0").param("maxX", "1000").param("maxY", "1000"))
+                .andExpect(jsonPath("$.pins", hasSize(1)));
+
+        mockMvc.perform(get("/api/comments/viewport").param("url", "http://localhost:5173/")
+                        .param("minX", "1000").param("minY", "0").param("maxX", "0").param("maxY", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStatsCountByFacetPageAndAssignee() throws Exception {
+        testComment.setAssignedTo("ann");
+        commentRepository.save(testComment);
+        Comment resolved = pinAt(10, 10);
+        resolved.setStatus("RESOLVED");
+        resolved.setPriority("HIGH");
+        commentRepository.save(resolved);
+        Comment elsewhere = pinAt(20, 20);
+        elsewhere.setPageUrl("http://localhost:5173/other");
+        commentRepository.save(elsewhere);
+        // Change events only reach the counters after commit, which never happens in this test.
+        commentStatsService.reconcile();
+
+        mockMvc.perform(get("/api/comments/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.OPEN").value(2))
+                .andExpect(jsonPath("$.byStatus.RESOLVED").value(1))
+                .andExpect(jsonPath("$.byPriority.HIGH").value(1))
+                .andExpect(jsonPath("$.byCategory.BUG").value(1))
+                .andExpect(jsonPath("$.byCategory.NONE").value(2))
+                .andExpect(jsonPath("$.byAssignee.ann").value(1))
+                .andExpect(jsonPath("$.facets", hasSize(3)))
+                .andExpect(jsonPath("$.reconciledAt").exists());
+
+        mockMvc.perform(get("/api/comments/stats/page").param("url", "http://localhost:5173/"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.byStatus.OPEN").value(1))
+                .andExpect(jsonPath("$.byStatus.RESOLVED").value(1));
+    }
+
+    @Test
+    void testSearchAfterRebuild() throws Exception {
+        testComment.setContent("Checkout button overlaps the footer");
+        commentRepository.save(testComment);
+        Comment resolved = pinAt(10, 10);
+        resolved.setContent("Footer links are broken");
+        resolved.setStatus("RESOLVED");
+        commentRepository.save(resolved);
+        Comment unrelated = pinAt(20, 20);
+        unrelated.setContent("Typo in the header");
+        commentRepository.save(unrelated);
+
+        mockMvc.perform(post("/api/comments/search/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.indexed").value(3));
+
+        mockMvc.perform(get("/api/comments/search").param("q", "footer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.hits", hasSize(2)))
+                .andExpect(jsonPath("$.hits[0].score").isNumber());
+
+        mockMvc.perform(get("/api/comments/search").param("q", "footer").param("status", "RESOLVED"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.hits[0].comment.content").value("Footer links are broken"));
+
+        mockMvc.perform(get("/api/comments/search").param("q", "footer").param("size", "1").param("page", "1"))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.hits", hasSize(1)));
+
+        mockMvc.perform(get("/api/comments/search").param("q", "footer").param("page", "100000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testArchiveCopiesRowsOfTheGeneratedSchema() {
+        testComment.setStatus("RESOLVED");
+        Comment saved = commentRepository.saveAndFlush(testComment);
+
+        assertEquals(1, archivedCommentRepository.copyFromComments(List.of(saved.getId())));
+        assertEquals(100, archivedCommentRepository.findById(saved.getId()).orElseThrow().getPositionX());
+    }
+
+    private Comment pinAt(int x, int y) {
+        Comment comment = new Comment();
+        comment.setPageUrl("http://localhost:5173/");
+        comment.setContent("Pin at " + x + "," + y);
+        comment.setPositionX(x);
+        comment.setPositionY(y);
+        comment.setStatus("OPEN");
+        comment.setCreatedAt(new Date());
+        comment.setUpdatedAt(new Date());
+        return comment;
+    }
 }
@@ -0,0 +1,133 @@
+package com.example.uicomment.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ScreenshotControllerIntegrationTest {
+
+    @TempDir
+    static Path screenshotDir;
+
+    @DynamicPropertySource
+    static void screenshotProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.screenshots.dir", () -> screenshotDir.toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testUploadServesRangesAndConditionalGets() throws Exception {
+        byte[] png = png(800, 600);
+        JsonNode upload = upload(png);
+        String url = upload.get("url").asText();
+        String etag = "\"" + upload.get("hash").asText() + "\"";
+        assertEquals("image/png", upload.get("contentType").asText());
+        assertFalse(upload.get("duplicate").asBoolean());
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(png));
+
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-7/" + png.length))
+                .andExpect(content().bytes(Arrays.copyOf(png, 8)));
+
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=" + png.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + png.length));
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertTrue(upload(png).get("duplicate").asBoolean());
+    }
+
+    @Test
+    void testMultipartUploadAndThumbnail() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "shot.png", "image/png", png(640, 480));
+        MvcResult result = mockMvc.perform(multipart("/api/screenshots").file(file))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String thumbnailUrl = objectMapper.readTree(result.getResponse().getContentAsByteArray())
+                .get("thumbnailUrl").asText();
+
+        byte[] thumbnail = null;
+        for (int attempt = 0; attempt < 50 && thumbnail == null; attempt++) {
+            MvcResult response = mockMvc.perform(get(thumbnailUrl)).andReturn();
+            if (response.getResponse().getStatus() == 200) {
+                thumbnail = response.getResponse().getContentAsByteArray();
+            } else {
+                Thread.sleep(100);
+            }
+        }
+        assertNotNull(thumbnail);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail));
+        assertEquals(320, image.getWidth());
+        assertEquals(240, image.getHeight());
+    }
+
+    @Test
+    void testRejectsNonImagesAndUnknownHashes() throws Exception {
+        mockMvc.perform(post("/api/screenshots")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content("not an image at all"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/screenshots/" + "0".repeat(64)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/screenshots/not-a-hash"))
+                .andExpect(status().isNotFound());
+    }
+
+    private JsonNode upload(byte[] body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/screenshots")
+                .contentType(MediaType.IMAGE_PNG)
+                .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(width / 2, height / 2, 0xff0000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
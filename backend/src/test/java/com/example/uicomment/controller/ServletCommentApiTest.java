@@ -0,0 +1,36 @@
+package com.example.uicomment.controller;
+
+import com.example.uicomment.cache.CommentCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+
+// CommentApiContract against the servlet application (CommentController over JPA).
+@SpringBootTest
+@AutoConfigureMockMvc
+class ServletCommentApiTest extends CommentApiContract {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CommentCache commentCache;
+
+    @Override
+    protected WebTestClient client() {
+        return MockMvcWebTestClient.bindTo(mockMvc).build();
+    }
+
+    @Override
+    protected void deleteAllComments() {
+        jdbcTemplate.update("delete from comments");
+        commentCache.clear();
+    }
+}
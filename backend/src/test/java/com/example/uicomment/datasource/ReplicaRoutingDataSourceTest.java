@@ -0,0 +1,174 @@
+package com.example.uicomment.datasource;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.uicomment.datasource.ReplicaRoutingDataSource.PRIMARY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica0 = mock(DataSource.class);
+    private final DataSource replica1 = mock(DataSource.class);
+    // Lag in seconds per replica; a replica missing here fails its health check.
+    private final Map<DataSource, Double> lags = new HashMap<>();
+    private ReplicaPool pool;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica0);
+        replicas.put("replica-1", replica1);
+        pool = new ReplicaPool(replicas, Duration.ofSeconds(1), dataSource -> {
+            Double lag = lags.get(dataSource);
+            if (lag == null) {
+                throw new SQLException("Connection refused");
+            }
+            return lag;
+        }, null);
+        routing = new ReplicaRoutingDataSource(primary, pool);
+        routing.afterPropertiesSet();
+        lags.put(replica0, 0.0);
+        lags.put(replica1, 0.2);
+        pool.checkAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testWritesAndNonTransactionalReadsUsePrimary() {
+        assertEquals(PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testReadOnlyTransactionsRoundRobinOverReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        List<Object> targets = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            targets.add(routing.determineCurrentLookupKey());
+        }
+
+        assertEquals(List.of("replica-0", "replica-1", "replica-0", "replica-1"), targets);
+    }
+
+    @Test
+    void testSkipsLaggingAndFailingReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        lags.put(replica0, 5.0);
+        pool.checkAll();
+
+        assertEquals(1, pool.usableCount());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+
+        lags.remove(replica1);
+        pool.checkAll();
+        assertEquals(PRIMARY, routing.determineCurrentLookupKey());
+
+        lags.put(replica0, 0.5);
+        pool.checkAll();
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testReplicasJoinAfterFirstCheck() {
+        ReplicaPool unchecked = new ReplicaPool(Map.of("replica-0", replica0), Duration.ofSeconds(1),
+                dataSource -> 0.0, null);
+
+        assertEquals(0, unchecked.usableCount());
+        assertTrue(unchecked.next().isEmpty());
+        unchecked.checkAll();
+        assertEquals("replica-0", unchecked.next().orElseThrow());
+    }
+
+    @Test
+    void testOnPrimaryOverridesReadOnly() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(PRIMARY, ReadRouting.onPrimary(routing::determineCurrentLookupKey));
+        assertFalse(ReadRouting.isPrimaryPinned());
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testRequestStaysOnOneReplica() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        List<Object> targets = routedDuring(new MockHttpServletRequest("GET", "/api/comments"), 3);
+
+        assertEquals(List.of("replica-0", "replica-0", "replica-0"), targets);
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testWriteRequestPinsClientToPrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/comments"), written, new MockFilterChain());
+        String until = written.getHeader(ReadYourWritesFilter.HEADER);
+        assertNotNull(until);
+        assertEquals(until, written.getCookie(ReadYourWritesFilter.COOKIE).getValue());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        MockHttpServletRequest withHeader = new MockHttpServletRequest("GET", "/api/comments/status/OPEN");
+        withHeader.addHeader(ReadYourWritesFilter.HEADER, until);
+        assertEquals(List.of(PRIMARY), routedDuring(withHeader, 1));
+
+        MockHttpServletRequest withCookie = new MockHttpServletRequest("GET", "/api/comments/status/OPEN");
+        withCookie.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, until));
+        assertEquals(List.of(PRIMARY), routedDuring(withCookie, 1));
+    }
+
+    @Test
+    void testExpiredOrForgedStickinessIsIgnored() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        long now = System.currentTimeMillis();
+
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/api/comments");
+        expired.addHeader(ReadYourWritesFilter.HEADER, Long.toString(now - 1000));
+        assertEquals(List.of("replica-0"), routedDuring(expired, 1));
+
+        MockHttpServletRequest forged = new MockHttpServletRequest("GET", "/api/comments");
+        forged.addHeader(ReadYourWritesFilter.HEADER, Long.toString(now + Duration.ofDays(1).toMillis()));
+        assertEquals(List.of("replica-1"), routedDuring(forged, 1));
+    }
+
+    private List<Object> routedDuring(MockHttpServletRequest request, int reads) throws Exception {
+        List<Object> targets = new ArrayList<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                for (int i = 0; i < reads; i++) {
+                    targets.add(routing.determineCurrentLookupKey());
+                }
+            }
+        };
+        new ReadYourWritesFilter(Duration.ofSeconds(5)).doFilter(request, new MockHttpServletResponse(), chain);
+        assertNull(ReadRouting.requestReplica());
+        assertFalse(ReadRouting.isPrimaryPinned());
+        return targets;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.uicomment.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one operation in microseconds, measured from the intended send time so that a slow server
+ * cannot hide its queueing delay (no coordinated omission). Keeps every sample; a run of a few minutes at a few
+ * thousand requests per second fits easily.
+ */
+final class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+    private long dropped;
+
+    synchronized void record(long micros, boolean error) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = micros;
+        if (error) {
+            errors++;
+        }
+    }
+
+    // Not sent because max-in-flight was reached; counted as errors.
+    synchronized void drop() {
+        dropped++;
+    }
+
+    synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, errors + dropped, dropped);
+    }
+
+    record Snapshot(long[] sorted, long errors, long dropped) {
+
+        long requests() {
+            return sorted.length + dropped;
+        }
+
+        double percentileMillis(double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000d;
+        }
+
+        double errorRate() {
+            return requests() == 0 ? 0 : (double) errors / requests();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.uicomment.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model traffic: requests start on a fixed or Poisson arrival schedule whatever the server's response
+ * times, as real overlays do. Requests beyond {@code max-in-flight} are dropped and count as errors, so an
+ * overloaded server fails the run instead of slowing the generator down.
+ */
+final class LoadGenerator {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final LoadProfile profile;
+    private final String baseUrl;
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ExecutorService clientExecutor = Executors.newFixedThreadPool(8, daemon("loadtest-client"));
+    private final ScheduledExecutorService bursts = Executors.newSingleThreadScheduledExecutor(daemon("loadtest-burst"));
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .executor(clientExecutor)
+            .build();
+    private final Random random = new Random(42);
+    private volatile long measureFrom;
+
+    LoadGenerator(LoadProfile profile, String baseUrl) {
+        this.profile = profile;
+        this.baseUrl = baseUrl;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+    }
+
+    /**
+     * Runs warmup and measurement, then waits for outstanding requests.
+     *
+     * @return the recorders of the measured phase
+     */
+    Map<Operation, LatencyRecorder> run() throws InterruptedException {
+        long start = System.nanoTime();
+        measureFrom = start + profile.warmup.toNanos();
+        long end = measureFrom + profile.duration.toNanos();
+        long next = start;
+        while (next < end) {
+            sleepUntil(next);
+            Operation operation = profile.pick(random);
+            if (operation == Operation.POSITION_UPDATE) {
+                scheduleDrag(next);
+            } else {
+                send(operation, request(operation), next);
+            }
+            next += profile.nextArrivalNanos(random);
+        }
+        bursts.shutdown();
+        bursts.awaitTermination(1, TimeUnit.MINUTES);
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        clientExecutor.shutdownNow();
+        return recorders;
+    }
+
+    // A drag: one pin moved a little every burst interval, like pointer moves while dragging.
+    private void scheduleDrag(long startNanos) {
+        long id = 1 + (long) profile.pickPage(random) * profile.pinsPerPage + random.nextInt(profile.pinsPerPage);
+        int x = random.nextInt(1200);
+        int y = random.nextInt(800);
+        long interval = profile.burstInterval.toNanos();
+        for (int step = 0; step < profile.burstSize; step++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/comments/" + id))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                            "{\"positionX\":" + (x + step * 4) + ",\"positionY\":" + (y + step * 3) + "}"))
+                    .build();
+            long intended = startNanos + step * interval;
+            if (step == 0) {
+                send(Operation.POSITION_UPDATE, request, intended);
+            } else {
+                bursts.schedule(() -> send(Operation.POSITION_UPDATE, request, intended),
+                        intended - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation) {
+        String path;
+        if (operation == Operation.PAGE_READ) {
+            String url = LoadTest.pageUrl(profile.pickPage(random));
+            path = "/api/comments/page?url=" + URLEncoder.encode(url, StandardCharsets.UTF_8);
+        } else {
+            path = "/api/comments?limit=" + profile.listLimit;
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private void send(Operation operation, HttpRequest request, long intendedNanos) {
+        LatencyRecorder recorder = intendedNanos >= measureFrom ? recorders.get(operation) : null;
+        if (inFlight.incrementAndGet() > profile.maxInFlight) {
+            inFlight.decrementAndGet();
+            if (recorder != null) {
+                recorder.drop();
+            }
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            inFlight.decrementAndGet();
+            if (recorder != null) {
+                long micros = (System.nanoTime() - intendedNanos) / 1000;
+                recorder.record(micros, failure != null || response.statusCode() >= 400);
+            }
+        });
+    }
+
+    private static void sleepUntil(long nanos) {
+        long remaining;
+        while ((remaining = nanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.uicomment.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Traffic profile and pass/fail thresholds of a load test run, read from {@code loadtest.*} properties; see
+ * {@code loadtest.properties} for every key and its default.
+ */
+final class LoadProfile {
+    static final String PREFIX = "loadtest.";
+
+    final String baseUrl;
+    final int pages;
+    final int pinsPerPage;
+    final double rate;
+    final boolean poisson;
+    final Duration warmup;
+    final Duration duration;
+    final int burstSize;
+    final Duration burstInterval;
+    final double hotPageShare;
+    final double hotTrafficShare;
+    final int listLimit;
+    final int maxInFlight;
+    final double maxErrorRate;
+    final String report;
+    private final Map<Operation, Double> mix = new EnumMap<>(Operation.class);
+    private final Map<Operation, Double> maxP99Millis = new EnumMap<>(Operation.class);
+    private final double mixTotal;
+
+    LoadProfile(Properties properties) {
+        baseUrl = string(properties, "base-url", "");
+        pages = integer(properties, "pages", 200);
+        pinsPerPage = integer(properties, "pins-per-page", 50);
+        rate = decimal(properties, "rate", 200);
+        poisson = "poisson".equals(string(properties, "arrivals", "poisson"));
+        warmup = duration(properties, "warmup", "10s");
+        duration = duration(properties, "duration", "60s");
+        burstSize = integer(properties, "burst.size", 10);
+        burstInterval = duration(properties, "burst.interval", "16ms");
+        hotPageShare = decimal(properties, "hot-pages", 0.2);
+        hotTrafficShare = decimal(properties, "hot-traffic", 0.8);
+        listLimit = integer(properties, "list-all.limit", 100);
+        maxInFlight = integer(properties, "max-in-flight", 2000);
+        maxErrorRate = decimal(properties, "threshold.error-rate", 0.01);
+        report = string(properties, "report", "target/loadtest-report.json");
+        double total = 0;
+        double defaultP99 = decimal(properties, "threshold.p99-ms", 250);
+        for (Operation operation : Operation.values()) {
+            double weight = decimal(properties, "mix." + operation.key(), defaultWeight(operation));
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + operation.key());
+            }
+            mix.put(operation, weight);
+            total += weight;
+            maxP99Millis.put(operation, decimal(properties, "threshold.p99-ms." + operation.key(), defaultP99));
+        }
+        if (total <= 0 || rate <= 0) {
+            throw new IllegalArgumentException("The mix and the rate must be positive");
+        }
+        mixTotal = total;
+    }
+
+    // Production mix: mostly page loads, drags now and then, rare full listings.
+    private static double defaultWeight(Operation operation) {
+        switch (operation) {
+            case PAGE_READ:
+                return 90;
+            case POSITION_UPDATE:
+                return 9;
+            default:
+                return 1;
+        }
+    }
+
+    Operation pick(Random random) {
+        double point = random.nextDouble() * mixTotal;
+        for (Map.Entry<Operation, Double> entry : mix.entrySet()) {
+            point -= entry.getValue();
+            if (point < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.PAGE_READ;
+    }
+
+    // Skewed page popularity: hotTrafficShare of requests go to the first hotPageShare of pages.
+    int pickPage(Random random) {
+        int hotPages = Math.max(1, (int) (pages * hotPageShare));
+        if (hotPages < pages && random.nextDouble() >= hotTrafficShare) {
+            return hotPages + random.nextInt(pages - hotPages);
+        }
+        return random.nextInt(hotPages);
+    }
+
+    long nextArrivalNanos(Random random) {
+        double meanNanos = 1_000_000_000d / rate;
+        return poisson ? (long) (-Math.log(1 - random.nextDouble()) * meanNanos) : (long) meanNanos;
+    }
+
+    double maxP99Millis(Operation operation) {
+        return maxP99Millis.get(operation);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.0f arrivals/s (%s) for %s after %s warmup, %d pages x %d pins, mix %s, drag bursts of %d every %s",
+                rate, poisson ? "poisson" : "constant", duration, warmup, pages, pinsPerPage, mix, burstSize,
+                burstInterval);
+    }
+
+    private static String string(Properties properties, String key, String fallback) {
+        return properties.getProperty(PREFIX + key, fallback).trim();
+    }
+
+    private static int integer(Properties properties, String key, int fallback) {
+        return Integer.parseInt(string(properties, key, String.valueOf(fallback)));
+    }
+
+    private static double decimal(Properties properties, String key, double fallback) {
+        return Double.parseDouble(string(properties, key, String.valueOf(fallback)));
+    }
+
+    private static Duration duration(Properties properties, String key, String fallback) {
+        return DurationStyle.detectAndParse(string(properties, key, fallback));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.uicomment.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-operation throughput, latency percentiles and error rate of a run, checked against the profile's
+ * thresholds.
+ */
+final class LoadReport {
+
+    record Result(String operation, long requests, long errors, long dropped, double throughput, double errorRate,
+                  double p50Millis, double p90Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+
+    private final List<Result> results = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+
+    LoadReport(LoadProfile profile, Map<Operation, LatencyRecorder> recorders) {
+        double seconds = profile.duration.toMillis() / 1000d;
+        for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+            Operation operation = entry.getKey();
+            LatencyRecorder.Snapshot snapshot = entry.getValue().snapshot();
+            if (snapshot.requests() == 0) {
+                continue;
+            }
+            Result result = new Result(operation.key(), snapshot.requests(), snapshot.errors(), snapshot.dropped(),
+                    snapshot.requests() / seconds, snapshot.errorRate(), snapshot.percentileMillis(50),
+                    snapshot.percentileMillis(90), snapshot.percentileMillis(99), snapshot.percentileMillis(99.9),
+                    snapshot.percentileMillis(100));
+            results.add(result);
+            if (result.errorRate() > profile.maxErrorRate) {
+                failures.add(String.format("%s error rate %.2f%% > %.2f%%", operation.key(),
+                        result.errorRate() * 100, profile.maxErrorRate * 100));
+            }
+            if (result.p99Millis() > profile.maxP99Millis(operation)) {
+                failures.add(String.format("%s p99 %.1f ms > %.1f ms", operation.key(), result.p99Millis(),
+                        profile.maxP99Millis(operation)));
+            }
+        }
+        if (results.isEmpty()) {
+            failures.add("no requests were measured");
+        }
+    }
+
+    boolean passed() {
+        return failures.isEmpty();
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-16s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Result result : results) {
+            out.printf("%-16s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", result.operation(), result.requests(),
+                    result.errors(), result.throughput(), result.p50Millis(), result.p90Millis(), result.p99Millis(),
+                    result.p999Millis(), result.maxMillis());
+        }
+        if (passed()) {
+            out.println("PASSED");
+        } else {
+            failures.forEach(failure -> out.println("FAILED: " + failure));
+        }
+    }
+
+    void write(Path file, String profile) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), Map.of("profile", profile, "passed", passed(), "failures", failures,
+                        "results", results));
+    }
+}
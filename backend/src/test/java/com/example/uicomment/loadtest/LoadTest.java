@@ -0,0 +1,109 @@
+package com.example.uicomment.loadtest;
+
+import com.example.uicomment.UiCommentApplication;
+import com.example.uicomment.repository.CommentSeeder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Replays the overlay traffic mix against the real HTTP endpoints and fails (exit code 1) when a threshold is
+ * missed. Without {@code loadtest.base-url} the application is started on a fresh in-memory H2 database and
+ * seeded with {@code pages} x {@code pins-per-page} comments; otherwise that server is targeted as is.
+ * <p>
+ * Settings come from {@code loadtest.properties}, then the file named by {@code -Dloadtest.profile}, then
+ * {@code -Dloadtest.*} system properties, then {@code key=value} arguments (without the prefix):
+ * <pre>
+ * mvn -Ploadtest -DskipTests verify -Dloadtest.args="rate=500 duration=2m threshold.p99-ms=100"
+ * </pre>
+ */
+public final class LoadTest {
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = new LoadProfile(settings(args));
+        System.out.println("Load profile: " + profile);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = profile.baseUrl;
+        if (baseUrl.isEmpty()) {
+            context = start();
+            seed(context, profile.pages, profile.pinsPerPage);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        LoadReport report;
+        try {
+            report = new LoadReport(profile, new LoadGenerator(profile, baseUrl).run());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        report.print(System.out);
+        report.write(Path.of(profile.report), profile.toString());
+        System.exit(report.passed() ? 0 : 1);
+    }
+
+    static String pageUrl(int page) {
+        return "https://load.example.com/app/page-" + page;
+    }
+
+    private static Properties settings(String[] args) throws IOException {
+        Properties settings = new Properties();
+        try (InputStream defaults = LoadTest.class.getResourceAsStream("/loadtest.properties")) {
+            if (defaults != null) {
+                settings.load(defaults);
+            }
+        }
+        String profileFile = System.getProperty(LoadProfile.PREFIX + "profile");
+        if (profileFile != null && !profileFile.isBlank()) {
+            try (Reader reader = Files.newBufferedReader(Path.of(profileFile))) {
+                settings.load(reader);
+            }
+        }
+        for (Map.Entry<Object, Object> entry : System.getProperties().entrySet()) {
+            if (entry.getKey().toString().startsWith(LoadProfile.PREFIX)) {
+                settings.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value: " + arg);
+            }
+            settings.put(LoadProfile.PREFIX + arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return settings;
+    }
+
+    // The production configuration on a private H2 database, with the background archiver off.
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(UiCommentApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "server.port=0",
+                        "app.archive.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    /** Inserts comments with ids 1..pages x pinsPerPage; comment {@code id} is on page {@code (id - 1) / pinsPerPage}. */
+    private static void seed(ConfigurableApplicationContext context, int pages, int pinsPerPage) {
+        CommentSeeder.seed(context.getBean(JdbcTemplate.class), pages * pinsPerPage,
+                id -> new CommentSeeder.Pin(pageUrl((id - 1) / pinsPerPage), (id * 37) % 1200, (id * 53) % 800));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.uicomment.loadtest;
+
+/**
+ * Request kinds of the overlay traffic mix. A drag is a burst of {@link #POSITION_UPDATE}s on one pin.
+ */
+enum Operation {
+    PAGE_READ("page-read"),
+    POSITION_UPDATE("position-update"),
+    LIST_ALL("list-all");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    // Name used in profile properties and the report.
+    String key() {
+        return key;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.uicomment.maintenance;
+
+import com.example.uicomment.cache.CommentCache;
+import com.example.uicomment.event.CommentChangeEvent;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.repository.ArchivedCommentRepository;
+import com.example.uicomment.repository.ChangeSequence;
+import com.example.uicomment.repository.CommentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CommentMaintenanceServiceTest {
+
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private final ArchivedCommentRepository archivedCommentRepository = mock(ArchivedCommentRepository.class);
+    private final CommentCache commentCache = mock(CommentCache.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private CommentMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        // Scheduled archival is off; tests start jobs explicitly.
+        service = new CommentMaintenanceService(false, Duration.ofDays(90), Duration.ofHours(1), 2,
+                List.of("RESOLVED", "CLOSED"));
+        ReflectionTestUtils.setField(service, "commentRepository", commentRepository);
+        ReflectionTestUtils.setField(service, "archivedCommentRepository", archivedCommentRepository);
+        ReflectionTestUtils.setField(service, "commentCache", commentCache);
+        ReflectionTestUtils.setField(service, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(service, "changeSequence", mock(ChangeSequence.class));
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testBulkDeleteRequiresAFilter() {
+        assertThrows(IllegalArgumentException.class, () -> service.startBulkDelete(null, null));
+    }
+
+    @Test
+    void testBulkDeleteSoftDeletesInChunks() throws InterruptedException {
+        when(commentRepository.countForBulkDelete(isNull(), eq("OPEN"))).thenReturn(3L);
+        when(commentRepository.findForBulkDelete(isNull(), eq("OPEN"), any()))
+                .thenReturn(List.of(comment(1L), comment(2L)))
+                .thenReturn(List.of(comment(3L)))
+                .thenReturn(List.of());
+
+        MaintenanceJob job = awaitFinished(service.startBulkDelete(null, "OPEN"));
+
+        assertEquals(MaintenanceJob.State.COMPLETED, job.getState());
+        assertEquals(3, job.getTotal());
+        assertEquals(3, job.getProcessed());
+        verify(commentRepository).softDeleteByIdIn(eq(List.of(1L, 2L)), any(Date.class), anyLong());
+        verify(commentRepository).softDeleteByIdIn(eq(List.of(3L)), any(Date.class), anyLong());
+        verify(eventPublisher, times(3)).publishEvent(any(CommentChangeEvent.class));
+        verify(commentCache, times(3)).evict(any(Comment.class));
+        assertSame(job, service.getJob(job.getId()).orElseThrow());
+    }
+
+    @Test
+    void testArchiveCopiesAndTombstonesRowsThenPurgesOldTombstones() throws InterruptedException {
+        when(commentRepository.countArchivable(anyCollection(), any(Date.class))).thenReturn(1L);
+        when(commentRepository.findArchivable(anyCollection(), any(Date.class), any()))
+                .thenReturn(List.of(comment(5L)))
+                .thenReturn(List.of());
+        when(commentRepository.findPurgeableIds(any(Date.class), eq(2)))
+                .thenReturn(List.of(8L, 9L))
+                .thenReturn(List.of());
+        when(commentRepository.hardDeleteByIdIn(anyCollection()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        MaintenanceJob job = awaitFinished(service.startArchive());
+
+        assertEquals(MaintenanceJob.State.COMPLETED, job.getState());
+        assertEquals(1, job.getProcessed());
+        InOrder order = inOrder(archivedCommentRepository, commentRepository);
+        order.verify(archivedCommentRepository).copyFromComments(List.of(5L));
+        order.verify(commentRepository).softDeleteByIdIn(eq(List.of(5L)), any(Date.class), anyLong());
+        order.verify(commentRepository).hardDeleteByIdIn(List.of(8L, 9L));
+        // Purged rows were announced when they were soft-deleted.
+        verify(eventPublisher, times(1)).publishEvent(any(CommentChangeEvent.class));
+    }
+
+    @Test
+    void testArchiveWhilePendingReturnsTheSameJob() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(commentRepository.countArchivable(anyCollection(), any(Date.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 0L;
+        });
+        when(commentRepository.findArchivable(anyCollection(), any(Date.class), any())).thenReturn(List.of());
+
+        MaintenanceJob first = service.startArchive();
+        MaintenanceJob second = service.startArchive();
+        release.countDown();
+
+        assertSame(first, second);
+        awaitFinished(first);
+        assertNotSame(first, service.startArchive());
+    }
+
+    @Test
+    void testFailedChunkFailsTheJob() throws InterruptedException {
+        when(commentRepository.countForBulkDelete(any(), any())).thenReturn(1L);
+        when(commentRepository.findForBulkDelete(any(), any(), any()))
+                .thenThrow(new IllegalStateException("database down"));
+
+        MaintenanceJob job = awaitFinished(service.startBulkDelete("http://localhost:5173/", null));
+
+        assertEquals(MaintenanceJob.State.FAILED, job.getState());
+        assertEquals("database down", job.getError());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    private static MaintenanceJob awaitFinished(MaintenanceJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), "job did not finish");
+        return job;
+    }
+
+    private static Comment comment(Long id) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setPageUrl("http://localhost:5173/");
+        return comment;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.uicomment.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageKeyTest {
+
+    @Test
+    void testNormalizeCanonicalizesHostPortFragmentAndQuery() {
+        assertEquals("http://localhost:5173/app?a=1&b=2",
+                PageKey.normalize("HTTP://LocalHost:5173/app?b=2&a=1#details"));
+        assertEquals("https://example.com/", PageKey.normalize("https://Example.com:443"));
+        assertEquals("https://example.com/list?page=2",
+                PageKey.normalize("https://example.com/list?utm_source=mail&page=2&utm_medium=x"));
+    }
+
+    @Test
+    void testNormalizeKeepsPathCase() {
+        assertNotEquals(PageKey.of("http://example.com/Docs"), PageKey.of("http://example.com/docs"));
+    }
+
+    @Test
+    void testNormalizeFallsBackForNonHierarchicalUrls() {
+        assertEquals("about:blank", PageKey.normalize("about:blank#top"));
+        assertEquals("not a url", PageKey.normalize(" not a url "));
+    }
+
+    @Test
+    void testKeyIsFixedWidthHex() {
+        String key = PageKey.of("http://localhost:5173/");
+
+        assertEquals(PageKey.LENGTH, key.length());
+        assertTrue(key.matches("[0-9a-f]+"));
+        assertEquals(key, PageKey.of("http://localhost:5173/#anchor"));
+        assertNull(PageKey.of(null));
+    }
+}
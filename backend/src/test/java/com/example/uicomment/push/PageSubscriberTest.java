@@ -0,0 +1,73 @@
+package com.example.uicomment.push;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageSubscriberTest {
+
+    @Test
+    void testEventsAreSentInOrder() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        PageSubscriber subscriber = new PageSubscriber("key", emitter, 8, Runnable::run, () -> {});
+
+        subscriber.offer(new PushEvent("created", Map.of("id", 1)));
+        subscriber.offer(new PushEvent("updated", Map.of("id", 1)));
+
+        assertEquals(2, emitter.frames.size());
+        assertTrue(emitter.frames.get(0).startsWith("event:created"));
+        assertTrue(emitter.frames.get(1).startsWith("event:updated"));
+    }
+
+    @Test
+    void testOverflowDropsBacklogAndRequestsResync() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        List<Runnable> pending = new ArrayList<>();
+        PageSubscriber subscriber = new PageSubscriber("key", emitter, 2, pending::add, () -> {});
+
+        subscriber.offer(new PushEvent("created", Map.of("id", 1)));
+        subscriber.offer(new PushEvent("created", Map.of("id", 2)));
+        subscriber.offer(new PushEvent("created", Map.of("id", 3)));
+        pending.remove(0).run();
+
+        assertEquals(1, emitter.frames.size());
+        assertTrue(emitter.frames.get(0).startsWith("event:resync"));
+    }
+
+    @Test
+    void testSendFailureClosesSubscriber() {
+        AtomicInteger closed = new AtomicInteger();
+        SseEmitter failing = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        PageSubscriber subscriber = new PageSubscriber("key", failing, 8, Runnable::run, closed::incrementAndGet);
+
+        subscriber.offer(new PushEvent("created", Map.of("id", 1)));
+        subscriber.offer(new PushEvent("created", Map.of("id", 2)));
+
+        assertEquals(1, closed.get());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> frames = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            Set<ResponseBodyEmitter.DataWithMediaType> parts = builder.build();
+            frames.add(parts.stream().map(part -> String.valueOf(part.getData())).collect(Collectors.joining()));
+        }
+    }
+}
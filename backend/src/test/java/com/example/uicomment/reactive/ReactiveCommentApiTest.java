@@ -0,0 +1,35 @@
+package com.example.uicomment.reactive;
+
+import com.example.uicomment.controller.CommentApiContract;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+// CommentApiContract against the reactive application (ReactiveCommentController over R2DBC), on its own database.
+@SpringBootTest(classes = ReactiveCommentApplication.class, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive_contract?options=DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles(ReactiveCommentApplication.PROFILE)
+@AutoConfigureWebTestClient
+class ReactiveCommentApiTest extends CommentApiContract {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Override
+    protected WebTestClient client() {
+        return webTestClient;
+    }
+
+    @Override
+    protected void deleteAllComments() {
+        databaseClient.sql("delete from comments").then().block();
+    }
+}
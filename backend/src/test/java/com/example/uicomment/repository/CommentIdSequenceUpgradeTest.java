@@ -0,0 +1,84 @@
+package com.example.uicomment.repository;
+
+import com.example.uicomment.UiCommentApplication;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.service.CommentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upgrade under {@code ddl-auto=update} from the schema before comments_seq, when ids came from an identity
+ * column: creates must not collide with the ids already taken.
+ */
+class CommentIdSequenceUpgradeTest {
+
+    private ConfigurableApplicationContext context;
+
+    @AfterEach
+    void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void testCreatesAfterUpgradeGetIdsAboveBaselineRows() throws Exception {
+        String database = "jdbc:h2:mem:upgrade-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(database, "sa", "admin");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table comments (id bigint generated by default as identity,"
+                    + " assigned_to varchar(255), author_email varchar(255), author_name varchar(255),"
+                    + " category varchar(100), content varchar(255) not null, created_at timestamp(6) not null,"
+                    + " page_url varchar(255) not null, positionx integer not null, positiony integer not null,"
+                    + " priority varchar(50), resolution varchar(255), screenshot_url varchar(255),"
+                    + " status varchar(50), updated_at timestamp(6) not null, primary key (id))");
+            for (int i = 1; i <= 3; i++) {
+                statement.execute("insert into comments (content, created_at, page_url, positionx, positiony,"
+                        + " status, updated_at) values ('baseline " + i + "', current_timestamp,"
+                        + " 'http://localhost:5173/', 10, 20, 'OPEN', current_timestamp)");
+            }
+        }
+
+        // Arguments, not default properties: those would lose to application.properties.
+        context = new SpringApplicationBuilder(UiCommentApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + database,
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--app.archive.enabled=false");
+        CommentService service = context.getBean(CommentService.class);
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            Comment created = service.createComment(comment("after upgrade " + i));
+            assertTrue(created.getId() > 3, "id " + created.getId() + " collides with a baseline row");
+            ids.add(created.getId());
+        }
+        assertEquals(3, ids.size());
+        assertEquals(6, service.getAllComments(null, 100).items().size());
+    }
+
+    private static Comment comment(String content) {
+        Comment comment = new Comment();
+        comment.setPageUrl("http://localhost:5173/");
+        comment.setContent(content);
+        comment.setPositionX(100);
+        comment.setPositionY(200);
+        comment.setStatus("OPEN");
+        comment.setCreatedAt(new Date());
+        comment.setUpdatedAt(new Date());
+        return comment;
+    }
+}
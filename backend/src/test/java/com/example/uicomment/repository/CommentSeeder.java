@@ -0,0 +1,48 @@
+package com.example.uicomment.repository;
+
+import com.example.uicomment.model.PageKey;
+import com.example.uicomment.model.PinTile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Bulk-loads open comments with plain JDBC batches, bypassing JPA, for benchmarks and the load test.
+ */
+public final class CommentSeeder {
+    private static final int CHUNK = 10_000;
+
+    /** Where seeded comment {@code id} is pinned. */
+    public record Pin(String pageUrl, int x, int y) {
+    }
+
+    private CommentSeeder() {
+    }
+
+    /** Inserts comments with ids 1..rows, one second apart and ending now, and moves comments_seq past them. */
+    public static void seed(JdbcTemplate jdbc, int rows, IntFunction<Pin> pins) {
+        Map<String, String> keys = new HashMap<>();
+        long start = System.currentTimeMillis() - rows * 1000L;
+        for (int from = 1; from <= rows; from += CHUNK) {
+            List<Object[]> batch = new ArrayList<>(CHUNK);
+            for (int id = from; id < from + CHUNK && id <= rows; id++) {
+                Pin pin = pins.apply(id);
+                String pageKey = keys.computeIfAbsent(pin.pageUrl(), PageKey::of);
+                Timestamp at = new Timestamp(start + id * 1000L);
+                batch.add(new Object[] {id, pin.pageUrl(), pageKey, "Seeded comment " + id, pin.x(), pin.y(),
+                        PinTile.of(pin.x()), PinTile.of(pin.y()), "OPEN", "MEDIUM", at, at});
+            }
+            jdbc.batchUpdate("insert into comments (id, page_url, page_key, content, positionx, positiony, tile_x, "
+                    + "tile_y, status, priority, created_at, updated_at, version) "
+                    + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                    batch);
+        }
+        // Pooled ids are handed out below the sequence value, so leave one allocation of headroom.
+        jdbc.execute("alter sequence comments_seq restart with " + (rows + 51));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.uicomment.screenshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void testStoresUnderContentHash() throws IOException, NoSuchAlgorithmException {
+        BlobStore store = new BlobStore(root, DataSize.ofKilobytes(1));
+        byte[] content = "screenshot bytes".getBytes(StandardCharsets.UTF_8);
+
+        StoredBlob blob = store.store(new ByteArrayInputStream(content));
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertEquals(expected, blob.hash());
+        assertEquals(content.length, blob.size());
+        assertFalse(blob.duplicate());
+        assertArrayEquals(content, Files.readAllBytes(store.find(blob.hash()).orElseThrow()));
+    }
+
+    @Test
+    void testDeduplicatesIdenticalContent() throws IOException {
+        BlobStore store = new BlobStore(root, DataSize.ofKilobytes(1));
+        byte[] content = "same".getBytes(StandardCharsets.UTF_8);
+
+        StoredBlob first = store.store(new ByteArrayInputStream(content));
+        StoredBlob second = store.store(new ByteArrayInputStream(content));
+
+        assertEquals(first.hash(), second.hash());
+        assertTrue(second.duplicate());
+        assertIncomingEmpty(store);
+    }
+
+    @Test
+    void testRejectsOversizedStreamAndCleansUp() throws IOException {
+        BlobStore store = new BlobStore(root, DataSize.ofBytes(10));
+
+        assertThrows(BlobTooLargeException.class, () -> store.store(new ByteArrayInputStream(new byte[11])));
+        assertIncomingEmpty(store);
+    }
+
+    @Test
+    void testIgnoresMalformedHashes() throws IOException {
+        BlobStore store = new BlobStore(root, DataSize.ofKilobytes(1));
+
+        assertTrue(store.find("../../etc/passwd").isEmpty());
+        assertTrue(store.find("ABC").isEmpty());
+        assertTrue(store.findThumbnail(null).isEmpty());
+    }
+
+    private static void assertIncomingEmpty(BlobStore store) throws IOException {
+        try (Stream<Path> files = Files.list(store.incomingDir())) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.uicomment.search;
+
+import com.example.uicomment.model.Comment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentSearchIndexTest {
+
+    private final CommentSearchIndex index;
+
+    CommentSearchIndexTest() throws IOException {
+        index = new CommentSearchIndex("", Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void testRanksContentMatchesAboveUrlMatches() {
+        index.index(comment(1L, "Logo is blurry", "https://example.com/checkout", "OPEN"));
+        index.index(comment(2L, "Checkout total is wrong", "https://example.com/cart", "OPEN"));
+
+        SearchHits hits = index.search("checkout", null, null, 0, 10);
+
+        assertEquals(2, hits.total());
+        assertEquals(2L, hits.hits().get(0).id());
+        assertEquals(1L, hits.hits().get(1).id());
+    }
+
+    @Test
+    void testFiltersByStatusAndPages() {
+        index.index(comment(1L, "Footer overlaps", "https://example.com/", "OPEN"));
+        index.index(comment(2L, "Footer color", "https://example.com/", "RESOLVED"));
+        index.index(comment(3L, "Footer links", "https://example.com/", "OPEN"));
+
+        assertEquals(2, index.search("footer", "OPEN", null, 0, 10).total());
+
+        SearchHits secondPage = index.search("footer", null, null, 2, 2);
+        assertEquals(3, secondPage.total());
+        assertEquals(1, secondPage.hits().size());
+    }
+
+    @Test
+    void testUpdatesReplaceAndDeletesRemove() {
+        index.index(comment(1L, "Old wording", "https://example.com/", "OPEN"));
+        index.index(comment(1L, "New wording", "https://example.com/", "OPEN"));
+
+        assertEquals(0, index.search("old", null, null, 0, 10).total());
+        assertEquals(1, index.search("new", null, null, 0, 10).total());
+
+        index.delete(1L);
+        assertEquals(0, index.search(null, null, null, 0, 10).total());
+    }
+
+    private static Comment comment(Long id, String content, String pageUrl, String status) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setContent(content);
+        comment.setPageUrl(pageUrl);
+        comment.setStatus(status);
+        return comment;
+    }
+}
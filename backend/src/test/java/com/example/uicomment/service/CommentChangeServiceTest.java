@@ -0,0 +1,97 @@
+package com.example.uicomment.service;
+
+import com.example.uicomment.dto.CommentChanges;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.PageKey;
+import com.example.uicomment.repository.CommentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CommentChangeServiceTest {
+
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private CommentChangeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CommentChangeService(Duration.ofSeconds(2), Duration.ofDays(90));
+        ReflectionTestUtils.setField(service, "commentRepository", commentRepository);
+    }
+
+    @Test
+    void testSnapshotSkipsTombstonesAndAdvancesPastSettledRows() {
+        long old = System.currentTimeMillis() - 60_000;
+        when(commentRepository.findChangesAfter(0, 0, 501))
+                .thenReturn(List.of(row(1L, 10, old, false), row(2L, 11, old, true)));
+
+        CommentChanges changes = service.getChanges(null, null, 500);
+
+        assertEquals(List.of(1L), changes.changed().stream().map(Comment::getId).toList());
+        assertTrue(changes.deleted().isEmpty());
+        assertFalse(changes.hasMore());
+        ChangeToken token = ChangeToken.decode(changes.token());
+        assertEquals(11, token.changeSeq());
+        assertEquals(2, token.id());
+    }
+
+    @Test
+    void testTokenStopsShortOfUnsettledRows() {
+        long old = System.currentTimeMillis() - 60_000;
+        long recent = System.currentTimeMillis();
+        String since = new ChangeToken(5, 1, old).encode();
+        when(commentRepository.findChangesAfter(5, 1, 501))
+                .thenReturn(List.of(row(3L, 6, old, true), row(4L, 7, recent, false), row(5L, 8, old, false)));
+
+        CommentChanges changes = service.getChanges(since, null, 500);
+
+        // Everything is sent, but the token only covers the row before the first unsettled one.
+        assertEquals(List.of(4L, 5L), changes.changed().stream().map(Comment::getId).toList());
+        assertEquals(List.of(3L), changes.deleted());
+        ChangeToken token = ChangeToken.decode(changes.token());
+        assertEquals(6, token.changeSeq());
+        assertEquals(3, token.id());
+        assertTrue(token.issuedAt() <= recent);
+    }
+
+    @Test
+    void testHasMoreWhenThePageIsFullAndSettled() {
+        long old = System.currentTimeMillis() - 60_000;
+        String pageKey = PageKey.of("https://example.com/page");
+        when(commentRepository.findChangesAfterByPageKey(eq(pageKey), eq(0L), eq(0L), eq(3)))
+                .thenReturn(List.of(row(1L, 1, old, false), row(2L, 2, old, false), row(3L, 3, old, false)));
+
+        CommentChanges changes = service.getChanges(null, "https://example.com/page", 2);
+
+        assertEquals(2, changes.changed().size());
+        assertTrue(changes.hasMore());
+        assertEquals(2, ChangeToken.decode(changes.token()).id());
+    }
+
+    @Test
+    void testRejectsMalformedAndExpiredTokens() {
+        assertThrows(IllegalArgumentException.class, () -> service.getChanges("not a token", null, 500));
+        String expired = new ChangeToken(1, 1, System.currentTimeMillis() - Duration.ofDays(91).toMillis()).encode();
+        assertThrows(ChangeTokenExpiredException.class, () -> service.getChanges(expired, null, 500));
+        verify(commentRepository, never()).findChangesAfter(anyLong(), anyLong(), anyInt());
+    }
+
+    private static Comment row(Long id, long changeSeq, long changedAt, boolean deleted) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setChangeSeq(changeSeq);
+        comment.setUpdatedAt(new Date(changedAt));
+        if (deleted) {
+            ReflectionTestUtils.setField(comment, "deletedAt", new Date(changedAt));
+        }
+        return comment;
+    }
+}
@@ -1,15 +1,34 @@
 package com.example.uicomment.service;
 
+import com.example.uicomment.cache.CommentCache;
+import com.example.uicomment.dto.BatchItemResult;
+import com.example.uicomment.dto.CommentPage;
+import com.example.uicomment.dto.CommentSummary;
+import com.example.uicomment.dto.PatchResult;
+import com.example.uicomment.dto.PinCluster;
+import com.example.uicomment.dto.Viewport;
+import com.example.uicomment.event.CommentChangeEvent;
 import com.example.uicomment.model.Comment;
+import com.example.uicomment.model.CommentFacets;
+import com.example.uicomment.model.PageKey;
+import com.example.uicomment.repository.ChangeSequence;
+import com.example.uicomment.repository.CollectionVersion;
 import com.example.uicomment.repository.CommentRepository;
+import com.example.uicomment.repository.TileAggregate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.ApplicationEventPublisher;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +42,15 @@ class CommentServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeSequence changeSequence;
+
+    @Spy
+    private CommentCache commentCache = new CommentCache(1000, Duration.ofMinutes(1));
+
     @InjectMocks
     private CommentService commentService;
 
@@ -38,18 +66,54 @@ class CommentServiceTest {
         testComment.setPositionY(200);
         testComment.setStatus("OPEN");
         testComment.setPriority("MEDIUM");
+        testComment.setCreatedAt(new Date(1000L));
     }
 
     @Test
     void testGetAllComments() {
-        when(commentRepository.findAll()).thenReturn(Arrays.asList(testComment));
+        when(commentRepository.findFirstPage(any())).thenReturn(Arrays.asList(testComment));
 
-        List<Comment> comments = commentService.getAllComments();
+        CommentPage<Comment> page = commentService.getAllComments(null, 10);
 
-        assertNotNull(comments);
-        assertEquals(1, comments.size());
-        assertEquals("Test comment", comments.get(0).getContent());
-        verify(commentRepository, times(1)).findAll();
+        assertNotNull(page.items());
+        assertEquals(1, page.items().size());
+        assertEquals("Test comment", page.items().get(0).getContent());
+        assertNull(page.nextCursor());
+        verify(commentRepository, times(1)).findFirstPage(any());
+        verify(commentRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetAllCommentsReturnsCursorWhenMoreRowsExist() {
+        Comment second = new Comment();
+        second.setId(2L);
+        second.setCreatedAt(new Date(2000L));
+        when(commentRepository.findFirstPage(any())).thenReturn(Arrays.asList(testComment, second));
+
+        CommentPage<Comment> page = commentService.getAllComments(null, 1);
+
+        assertEquals(1, page.items().size());
+        assertNotNull(page.nextCursor());
+        CommentCursor cursor = CommentCursor.decode(page.nextCursor());
+        assertEquals(1L, cursor.id());
+        assertEquals(1000L, cursor.createdAt().getTime());
+    }
+
+    @Test
+    void testGetAllCommentsResumesFromCursor() {
+        String cursor = new CommentCursor(new Date(1000L), 1L).encode();
+        when(commentRepository.findPageAfter(eq(new Date(1000L)), eq(1L), any())).thenReturn(List.of());
+
+        CommentPage<Comment> page = commentService.getAllComments(cursor, 10);
+
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testPageSizeIsCapped() {
+        assertEquals(CommentService.MAX_PAGE_SIZE, CommentService.clampPageSize(100_000));
+        assertEquals(1, CommentService.clampPageSize(0));
     }
 
     @Test
@@ -73,28 +137,82 @@ class CommentServiceTest {
         verify(commentRepository, times(1)).findById(999L);
     }
 
+    @Test
+    void testGetCommentSummariesByPageUrlPagesAndCachesApartFromFullView() {
+        String key = PageKey.of("http://localhost:5173/");
+        Date createdAt = new Date(1000);
+        List<CommentSummary> rows = Arrays.asList(
+                new CommentSummary(1L, 10, 20, "OPEN", "LOW", createdAt),
+                new CommentSummary(2L, 30, 40, "OPEN", "HIGH", createdAt));
+        when(commentRepository.findFirstSummaryPageByPageKey(eq(key), any())).thenReturn(rows);
+        when(commentRepository.findFirstPageByPageKey(eq(key), any())).thenReturn(Arrays.asList(testComment));
+
+        CommentPage<CommentSummary> page = commentService.getCommentSummariesByPageUrl("http://localhost:5173/", null, 1);
+        commentService.getCommentSummariesByPageUrl("http://localhost:5173/", null, 1);
+        commentService.getCommentsByPageUrl("http://localhost:5173/", null, 1);
+
+        assertEquals(1, page.items().size());
+        assertEquals(1L, page.items().get(0).id());
+        assertEquals(new CommentCursor(createdAt, 1L), CommentCursor.decode(page.nextCursor()));
+        verify(commentRepository, times(1)).findFirstSummaryPageByPageKey(eq(key), any());
+        verify(commentRepository, times(1)).findFirstPageByPageKey(eq(key), any());
+
+        commentCache.evictPage(key);
+        commentService.getCommentSummariesByPageUrl("http://localhost:5173/", null, 1);
+        verify(commentRepository, times(2)).findFirstSummaryPageByPageKey(eq(key), any());
+    }
+
+    @Test
+    void testPageEvictedWhileLoadingIsLoadedAgain() {
+        String key = PageKey.of("http://localhost:5173/");
+        // The write commits while the first load is still reading the old state.
+        when(commentRepository.findFirstPageByPageKey(eq(key), any())).thenAnswer(invocation -> {
+            commentCache.evictPage(key);
+            return Arrays.asList(testComment);
+        }).thenReturn(Arrays.asList(testComment));
+
+        commentService.getCommentsByPageUrl("http://localhost:5173/", null, 10);
+        commentService.getCommentsByPageUrl("http://localhost:5173/", null, 10);
+        commentService.getCommentsByPageUrl("http://localhost:5173/", null, 10);
+
+        verify(commentRepository, times(2)).findFirstPageByPageKey(eq(key), any());
+    }
+
+    @Test
+    void testCollectionVersionIsCachedUntilAnyPageChanges() {
+        when(commentRepository.findCollectionVersion()).thenReturn(new CollectionVersion(1L, 1L, 0L, null));
+
+        commentService.getCollectionVersion();
+        commentService.getCollectionVersion();
+        verify(commentRepository, times(1)).findCollectionVersion();
+
+        commentCache.evictPage(PageKey.of("http://localhost:5173/other"));
+        commentService.getCollectionVersion();
+        verify(commentRepository, times(2)).findCollectionVersion();
+    }
+
     @Test
     void testGetCommentsByPageUrl() {
-        when(commentRepository.findByPageUrl(anyString())).thenReturn(Arrays.asList(testComment));
+        when(commentRepository.findFirstPageByPageKey(eq(PageKey.of("http://localhost:5173/")), any())).thenReturn(Arrays.asList(testComment));
 
-        List<Comment> comments = commentService.getCommentsByPageUrl("http://localhost:5173/");
+        List<Comment> comments = commentService.getCommentsByPageUrl("http://localhost:5173/", null, 10).items();
 
         assertNotNull(comments);
         assertEquals(1, comments.size());
         assertEquals("http://localhost:5173/", comments.get(0).getPageUrl());
-        verify(commentRepository, times(1)).findByPageUrl(anyString());
+        verify(commentRepository, times(1)).findFirstPageByPageKey(eq(PageKey.of("http://localhost:5173/")), any());
     }
 
     @Test
     void testGetCommentsByStatus() {
-        when(commentRepository.findByStatus("OPEN")).thenReturn(Arrays.asList(testComment));
+        when(commentRepository.findFirstPageByStatus(eq("OPEN"), any())).thenReturn(Arrays.asList(testComment));
 
-        List<Comment> comments = commentService.getCommentsByStatus("OPEN");
+        List<Comment> comments = commentService.getCommentsByStatus("OPEN", null, 10).items();
 
         assertNotNull(comments);
         assertEquals(1, comments.size());
         assertEquals("OPEN", comments.get(0).getStatus());
-        verify(commentRepository, times(1)).findByStatus("OPEN");
+        verify(commentRepository, times(1)).findFirstPageByStatus(eq("OPEN"), any());
     }
 
     @Test
@@ -166,10 +284,254 @@ class CommentServiceTest {
 
     @Test
     void testDeleteComment() {
-        doNothing().when(commentRepository).deleteById(1L);
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
+
+        commentService.deleteComment(1L);
+
+        verify(commentRepository, times(1)).softDeleteByIdIn(eq(List.of(1L)), any(Date.class), anyLong());
+        verify(commentRepository, never()).delete(any(Comment.class));
+    }
+
+    @Test
+    void testDeleteCommentNotFound() {
+        when(commentRepository.findById(999L)).thenReturn(Optional.empty());
+
+        commentService.deleteComment(999L);
+
+        verify(commentRepository, never()).softDeleteByIdIn(anyCollection(), any(Date.class), anyLong());
+    }
+
+    @Test
+    void testGetCommentByIdIsCached() {
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
+
+        commentService.getCommentById(1L);
+        Optional<Comment> result = commentService.getCommentById(1L);
+
+        assertTrue(result.isPresent());
+        verify(commentRepository, times(1)).findById(1L);
+        assertEquals(1, commentService.getCacheStats().byId().hits());
+    }
+
+    @Test
+    void testMissingCommentIsNotCached() {
+        when(commentRepository.findById(999L)).thenReturn(Optional.empty());
+
+        commentService.getCommentById(999L);
+        commentService.getCommentById(999L);
+
+        verify(commentRepository, times(2)).findById(999L);
+    }
+
+    @Test
+    void testUpdateCommentEvictsCachedComment() {
+        Comment updates = new Comment();
+        updates.setStatus("RESOLVED");
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(i -> i.getArguments()[0]);
 
+        commentService.getCommentById(1L);
+        commentService.updateComment(1L, updates);
+        commentService.getCommentById(1L);
+
+        // cache load, update load, reload after eviction
+        verify(commentRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void testCreateCommentEvictsCachedPage() {
+        String url = "http://localhost:5173/";
+        testComment.computeDerivedColumns();
+        when(commentRepository.findFirstPageByPageKey(eq(PageKey.of(url)), any())).thenReturn(Arrays.asList(testComment));
+        when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
+
+        commentService.getCommentsByPageUrl(url, null, 10);
+        commentService.getCommentsByPageUrl(url, null, 10);
+        commentService.createComment(new Comment());
+        commentService.getCommentsByPageUrl(url, null, 10);
+
+        verify(commentRepository, times(2)).findFirstPageByPageKey(eq(PageKey.of(url)), any());
+    }
+
+    @Test
+    void testCreateCommentsReportsInvalidItems() {
+        Comment invalid = new Comment();
+        invalid.setContent("Missing page and position");
+        when(commentRepository.saveAll(anyList())).thenAnswer(i -> {
+            List<Comment> batch = i.getArgument(0);
+            batch.forEach(c -> c.setId(42L));
+            return batch;
+        });
+
+        List<BatchItemResult> results = commentService.createComments(Arrays.asList(invalid, testComment));
+
+        assertEquals(BatchItemResult.Status.INVALID, results.get(0).status());
+        assertTrue(results.get(0).error().contains("positionX"));
+        assertEquals(BatchItemResult.Status.CREATED, results.get(1).status());
+        assertEquals(42L, results.get(1).id());
+        assertNotNull(testComment.getCreatedAt());
+    }
+
+    @Test
+    void testCreateCommentsRejectsOversizedBatch() {
+        List<Comment> batch = Collections.nCopies(CommentService.MAX_BATCH_SIZE + 1, testComment);
+
+        assertThrows(IllegalArgumentException.class, () -> commentService.createComments(batch));
+        verify(commentRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testUpdateCommentsUsesSingleLookup() {
+        Comment update = new Comment();
+        update.setId(1L);
+        update.setPriority("HIGH");
+        Comment missing = new Comment();
+        missing.setId(2L);
+        when(commentRepository.findAllById(anyList())).thenReturn(Arrays.asList(testComment));
+
+        List<BatchItemResult> results = commentService.updateComments(Arrays.asList(update, missing));
+
+        assertEquals(BatchItemResult.Status.UPDATED, results.get(0).status());
+        assertEquals(BatchItemResult.Status.NOT_FOUND, results.get(1).status());
+        assertEquals("HIGH", testComment.getPriority());
+        verify(commentRepository, times(1)).findAllById(anyList());
+        verify(commentRepository, never()).findById(any());
+    }
+
+    @Test
+    void testPatchCommentIssuesSingleUpdate() {
+        Comment updates = new Comment();
+        updates.setPositionX(10);
+        when(commentRepository.patch(eq(1L), eq(updates), eq(3L), any(Date.class), anyLong())).thenReturn(1);
+
+        PatchResult result = commentService.patchComment(1L, updates, 3L);
+
+        assertEquals(PatchResult.Status.UPDATED, result.status());
+        assertEquals(4L, result.version());
+        verify(commentRepository, never()).findById(any());
+        verify(commentRepository, never()).save(any(Comment.class));
+    }
+
+    @Test
+    void testPatchCommentNotFoundSkipsLookup() {
+        when(commentRepository.patch(eq(999L), any(Comment.class), isNull(), any(Date.class), anyLong())).thenReturn(0);
+
+        PatchResult result = commentService.patchComment(999L, new Comment(), null);
+
+        assertEquals(PatchResult.Status.NOT_FOUND, result.status());
+        verify(commentRepository, never()).existsById(any());
+    }
+
+    @Test
+    void testPatchCommentVersionConflict() {
+        when(commentRepository.patch(eq(1L), any(Comment.class), eq(2L), any(Date.class), anyLong())).thenReturn(0);
+        when(commentRepository.existsById(1L)).thenReturn(true);
+
+        PatchResult result = commentService.patchComment(1L, new Comment(), 2L);
+
+        assertEquals(PatchResult.Status.CONFLICT, result.status());
+    }
+
+    @Test
+    void testWritesPublishChangeEvents() {
+        when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
+
+        commentService.createComment(new Comment());
         commentService.deleteComment(1L);
 
-        verify(commentRepository, times(1)).deleteById(1L);
+        ArgumentCaptor<CommentChangeEvent> events = ArgumentCaptor.forClass(CommentChangeEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(CommentChangeEvent.Type.CREATED, events.getAllValues().get(0).type());
+        assertEquals(CommentChangeEvent.Type.DELETED, events.getAllValues().get(1).type());
+        assertEquals(1L, events.getAllValues().get(1).commentId());
+    }
+
+    @Test
+    void testUpdateEventsCarryPreviousFacets() {
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Comment updates = new Comment();
+        updates.setStatus("RESOLVED");
+
+        commentService.updateComment(1L, updates);
+
+        ArgumentCaptor<CommentChangeEvent> event = ArgumentCaptor.forClass(CommentChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("OPEN", event.getValue().previous().status());
+        assertEquals("RESOLVED", event.getValue().comment().getStatus());
+    }
+
+    @Test
+    void testPatchReadsFacetsOnlyWhenCountedFieldsChange() {
+        CommentFacets before = new CommentFacets("key", "OPEN", "MEDIUM", null, null);
+        when(commentRepository.findFacetsById(1L)).thenReturn(Optional.of(before));
+        when(commentRepository.patch(eq(1L), any(Comment.class), isNull(), any(Date.class), anyLong())).thenReturn(1);
+        Comment move = new Comment();
+        move.setPositionX(10);
+        Comment resolve = new Comment();
+        resolve.setStatus("RESOLVED");
+        // Cached, so the move takes its page key from the cache.
+        testComment.computeDerivedColumns();
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(testComment));
+        commentService.getCommentById(1L);
+
+        commentService.patchComment(1L, move, null);
+        commentService.patchComment(1L, resolve, null);
+
+        verify(commentRepository, times(1)).findFacetsById(1L);
+        ArgumentCaptor<CommentChangeEvent> events = ArgumentCaptor.forClass(CommentChangeEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertNull(events.getAllValues().get(0).previous());
+        assertEquals(testComment.getPageKey(), events.getAllValues().get(0).pageKey());
+        assertEquals(before, events.getAllValues().get(1).previous());
+        assertEquals("key", events.getAllValues().get(1).pageKey());
+        assertEquals(new CommentFacets("key", "RESOLVED", "MEDIUM", null, null), events.getAllValues().get(1).current());
+    }
+
+    @Test
+    void testUncachedPatchEvictsItsPageOnly() {
+        String key = PageKey.of("http://localhost:5173/");
+        String otherKey = PageKey.of("http://localhost:5173/other");
+        when(commentRepository.findFirstPageByPageKey(any(), any())).thenReturn(Arrays.asList(testComment));
+        when(commentRepository.findFacetsById(1L)).thenReturn(Optional.of(new CommentFacets(key, "OPEN", "MEDIUM", null, null)));
+        when(commentRepository.patch(eq(1L), any(Comment.class), isNull(), any(Date.class), anyLong())).thenReturn(1);
+        commentService.getCommentsByPageUrl("http://localhost:5173/", null, 1);
+        commentService.getCommentsByPageUrl("http://localhost:5173/other", null, 1);
+        Comment move = new Comment();
+        move.setPositionX(10);
+
+        commentService.patchComment(1L, move, null);
+        commentService.getCommentsByPageUrl("http://localhost:5173/", null, 1);
+        commentService.getCommentsByPageUrl("http://localhost:5173/other", null, 1);
+
+        verify(commentRepository, times(2)).findFirstPageByPageKey(eq(key), any());
+        verify(commentRepository, times(1)).findFirstPageByPageKey(eq(otherKey), any());
+    }
+
+    @Test
+    void testViewportClustersMergeTilesPerLevel() {
+        String key = PageKey.of("http://localhost:5173/");
+        // Viewport 0..1000 x 0..500 covers tiles x 0..3, y 0..1.
+        when(commentRepository.aggregateTilesInViewport(key, 0, 3, 0, 1, 0, 1000, 0, 500)).thenReturn(Arrays.asList(
+                new TileAggregate(0, 0, 2L, 100L, 100L, 5L),
+                new TileAggregate(1, 0, 1L, 300L, 10L, 3L),
+                new TileAggregate(3, 1, 1L, 900L, 400L, 9L)));
+
+        Viewport viewport = commentService.getViewport("http://localhost:5173/", 0, 0, 1000, 500, 1);
+
+        assertTrue(viewport.pins().isEmpty());
+        assertEquals(2, viewport.clusters().size());
+        assertEquals(new PinCluster(133, 36, 3, null), viewport.clusters().get(0));
+        assertEquals(new PinCluster(900, 400, 1, 9L), viewport.clusters().get(1));
+    }
+
+    @Test
+    void testViewportRejectsInvertedBounds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> commentService.getViewport("http://localhost:5173/", 500, 0, 100, 100, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> commentService.getViewport("http://localhost:5173/", 0, 0, 100, 100, CommentService.MAX_CLUSTER_LEVEL + 1));
+        verifyNoInteractions(commentRepository);
     }
 }
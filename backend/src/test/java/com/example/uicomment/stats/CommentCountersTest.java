@@ -0,0 +1,62 @@
+package com.example.uicomment.stats;
+
+import com.example.uicomment.dto.FacetCount;
+import com.example.uicomment.model.CommentFacets;
+import com.example.uicomment.repository.AssigneeCount;
+import com.example.uicomment.repository.PageStatusCount;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentCountersTest {
+
+    @Test
+    void testCountsAndRollsUpFacets() {
+        CommentCounters counters = new CommentCounters();
+        counters.add(new CommentFacets("a", "OPEN", "HIGH", "BUG", "ann"), 1);
+        counters.add(new CommentFacets("a", "OPEN", "LOW", "BUG", null), 1);
+        counters.add(new CommentFacets("b", "RESOLVED", "HIGH", null, "ann"), 1);
+
+        assertEquals(3, counters.total());
+        assertEquals(Map.of("OPEN", 2L, "RESOLVED", 1L), counters.byStatus());
+        assertEquals(Map.of("HIGH", 2L, "LOW", 1L), counters.byPriority());
+        assertEquals(Map.of("BUG", 2L, CommentCounters.NONE, 1L), counters.byCategory());
+        assertEquals(Map.of("ann", 2L), counters.byAssignee());
+        assertEquals(2, counters.page("a"));
+        assertEquals(Map.of("OPEN", 2L), counters.pageByStatus("a"));
+        assertEquals(0, counters.page("missing"));
+    }
+
+    @Test
+    void testMoveShiftsEveryBucket() {
+        CommentCounters counters = new CommentCounters();
+        CommentFacets open = new CommentFacets("a", "OPEN", "HIGH", "BUG", "ann");
+        CommentFacets resolved = new CommentFacets("a", "RESOLVED", "HIGH", "BUG", "bob");
+        counters.add(open, 1);
+
+        counters.move(open, resolved);
+        counters.move(resolved, resolved);
+
+        assertEquals(1, counters.total());
+        assertEquals(Map.of("RESOLVED", 1L), counters.byStatus());
+        assertEquals(Map.of("bob", 1L), counters.byAssignee());
+        assertEquals(Map.of("RESOLVED", 1L), counters.pageByStatus("a"));
+        assertEquals(List.of(new FacetCount("RESOLVED", "HIGH", "BUG", 1L)), counters.facets());
+    }
+
+    @Test
+    void testLoadsFromGroupedCounts() {
+        CommentCounters counters = CommentCounters.load(
+                List.of(new FacetCount("OPEN", "HIGH", "BUG", 4L), new FacetCount(null, null, null, 1L)),
+                List.of(new PageStatusCount("a", "OPEN", 4L), new PageStatusCount("b", null, 1L)),
+                List.of(new AssigneeCount("ann", 3L)));
+
+        assertEquals(5, counters.total());
+        assertEquals(Map.of("OPEN", 4L, CommentCounters.NONE, 1L), counters.byStatus());
+        assertEquals(Map.of(CommentCounters.NONE, 1L), counters.pageByStatus("b"));
+        assertEquals(Map.of("ann", 3L), counters.byAssignee());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.uicomment.writebehind;
+
+import com.example.uicomment.dto.BatchItemResult;
+import com.example.uicomment.model.Comment;
+import com.example.uicomment.service.CommentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class CommentWriteBufferTest {
+
+    private final CommentService commentService = mock(CommentService.class);
+    private CommentWriteBuffer buffer;
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    void testCoalescesUpdatesPerComment() {
+        buffer = newBuffer(true, 100, 10, 100);
+        when(commentService.updateComments(anyList())).thenAnswer(invocation -> updated(invocation.getArgument(0)));
+
+        CompletableFuture<BatchItemResult.Status> first = buffer.submit(1L, move(10, 20)).orElseThrow();
+        CompletableFuture<BatchItemResult.Status> second = buffer.submit(1L, move(30, null)).orElseThrow();
+        buffer.submit(2L, status("RESOLVED"));
+        assertEquals(2, buffer.pendingCount());
+
+        buffer.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Comment>> written = ArgumentCaptor.forClass(List.class);
+        verify(commentService, times(1)).updateComments(written.capture());
+        Comment merged = written.getValue().stream().filter(c -> c.getId() == 1L).findFirst().orElseThrow();
+        assertEquals(30, merged.getPositionX());
+        assertEquals(20, merged.getPositionY());
+        assertNull(merged.getStatus());
+        assertEquals(BatchItemResult.Status.UPDATED, first.join());
+        assertSame(first, second);
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    void testSplitsFlushIntoBatches() {
+        buffer = newBuffer(true, 100, 2, 100);
+        when(commentService.updateComments(anyList())).thenAnswer(invocation -> updated(invocation.getArgument(0)));
+        for (long id = 1; id <= 5; id++) {
+            buffer.submit(id, move(1, 1));
+        }
+
+        buffer.flush();
+
+        verify(commentService, times(3)).updateComments(anyList());
+    }
+
+    @Test
+    void testReportsMissingCommentsAndFailures() {
+        buffer = newBuffer(true, 100, 10, 100);
+        when(commentService.updateComments(anyList()))
+                .thenReturn(List.of(new BatchItemResult(0, 9L, BatchItemResult.Status.NOT_FOUND, null)))
+                .thenThrow(new IllegalStateException("database down"));
+
+        CompletableFuture<BatchItemResult.Status> missing = buffer.submit(9L, move(1, 1)).orElseThrow();
+        buffer.flush();
+        CompletableFuture<BatchItemResult.Status> failed = buffer.submit(1L, move(1, 1)).orElseThrow();
+        buffer.flush();
+
+        assertEquals(BatchItemResult.Status.NOT_FOUND, missing.join());
+        assertTrue(failed.isCompletedExceptionally());
+    }
+
+    @Test
+    void testFallsBackWhenDisabledOrFull() {
+        buffer = newBuffer(false, 100, 10, 100);
+        assertTrue(buffer.submit(1L, move(1, 1)).isEmpty());
+        buffer.shutdown();
+
+        buffer = newBuffer(true, 100, 10, 1);
+        assertTrue(buffer.submit(1L, move(1, 1)).isPresent());
+        assertTrue(buffer.submit(1L, move(2, 2)).isPresent());
+        assertTrue(buffer.submit(2L, move(1, 1)).isEmpty());
+    }
+
+    @Test
+    void testShutdownFlushesPendingUpdates() {
+        buffer = newBuffer(true, 100, 10, 100);
+        when(commentService.updateComments(anyList())).thenAnswer(invocation -> updated(invocation.getArgument(0)));
+        CompletableFuture<BatchItemResult.Status> pending = buffer.submit(1L, move(5, 5)).orElseThrow();
+
+        buffer.shutdown();
+
+        assertEquals(BatchItemResult.Status.UPDATED, pending.join());
+    }
+
+    @Test
+    void testOnlyPositionAndStatusAreBufferable() {
+        assertTrue(CommentWriteBuffer.isBufferable(move(1, 2)));
+        assertTrue(CommentWriteBuffer.isBufferable(status("OPEN")));
+        assertFalse(CommentWriteBuffer.isBufferable(new Comment()));
+        Comment edit = move(1, 2);
+        edit.setContent("text");
+        assertFalse(CommentWriteBuffer.isBufferable(edit));
+    }
+
+    private CommentWriteBuffer newBuffer(boolean enabled, int flushSize, int maxBatch, int maxPending) {
+        // A long interval keeps the background flush out of the way; tests flush explicitly.
+        CommentWriteBuffer created = new CommentWriteBuffer(enabled, "buffered", Duration.ofHours(1), flushSize,
+                maxBatch, maxPending);
+        ReflectionTestUtils.setField(created, "commentService", commentService);
+        return created;
+    }
+
+    private static List<BatchItemResult> updated(List<Comment> comments) {
+        List<BatchItemResult> results = new ArrayList<>();
+        for (int i = 0; i < comments.size(); i++) {
+            results.add(new BatchItemResult(i, comments.get(i).getId(), BatchItemResult.Status.UPDATED, null));
+        }
+        return results;
+    }
+
+    private static Comment move(Integer x, Integer y) {
+        Comment comment = new Comment();
+        comment.setPositionX(x);
+        comment.setPositionY(y);
+        return comment;
+    }
+
+    private static Comment status(String status) {
+        Comment comment = new Comment();
+        comment.setStatus(status);
+        return comment;
+    }
+}
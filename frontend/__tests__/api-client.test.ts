@@ -1,5 +1,5 @@
 import axios from 'axios';
-import ApiClient from '../shared/api-client';
+import ApiClient, { decodeResponse } from '../shared/api-client';
 import { Comment, CommentStatus, CommentPriority } from '../shared/types';
 
 jest.mock('axios');
@@ -71,6 +71,43 @@ describe('ApiClient', () => {
     });
   });
 
+  describe('listComments', () => {
+    it('should pass the cursor and expose the next cursor header', async () => {
+      const get = jest.fn().mockResolvedValue({
+        data: [{ id: 1, pageUrl: 'http://localhost:5173/', content: 'Test', positionX: 1, positionY: 2 }],
+        headers: { 'x-next-cursor': 'abc' },
+      });
+      mockedAxios.create.mockReturnValue({ get } as any);
+
+      const client = new ApiClient(baseURL);
+      const page = await client.listComments({ cursor: 'prev', limit: 1 });
+
+      expect(get).toHaveBeenCalledWith('/api/comments', { params: { cursor: 'prev', limit: 1 } });
+      expect(page.items.length).toBe(1);
+      expect(page.nextCursor).toBe('abc');
+    });
+
+    it('should follow cursors when collecting every page', async () => {
+      const get = jest
+        .fn()
+        .mockResolvedValueOnce({
+          data: [{ id: 1, pageUrl: 'http://localhost:5173/', content: 'A', positionX: 1, positionY: 1 }],
+          headers: { 'x-next-cursor': 'next' },
+        })
+        .mockResolvedValueOnce({
+          data: [{ id: 2, pageUrl: 'http://localhost:5173/', content: 'B', positionX: 2, positionY: 2 }],
+          headers: {},
+        });
+      mockedAxios.create.mockReturnValue({ get } as any);
+
+      const client = new ApiClient(baseURL);
+      const result = await client.getAllComments();
+
+      expect(result.map((c) => c.id)).toEqual([1, 2]);
+      expect(get).toHaveBeenLastCalledWith('/api/comments', { params: { cursor: 'next' } });
+    });
+  });
+
   describe('getCommentById', () => {
     it('should fetch a comment by id', async () => {
       const mockComment: Comment = {
@@ -95,6 +132,41 @@ describe('ApiClient', () => {
     });
   });
 
+  describe('conditional requests', () => {
+    it('should revalidate with If-None-Match and reuse the kept body on 304', async () => {
+      const items = [{ id: 1, pageUrl: '/', content: 'Kept', positionX: 1, positionY: 2 }];
+      const get = jest.fn()
+        .mockResolvedValueOnce({ status: 200, data: items, headers: { etag: 'W/"1-1-0"' } })
+        .mockResolvedValueOnce({ status: 304, data: '', headers: { etag: 'W/"1-1-0"' } });
+      mockedAxios.create.mockReturnValue({ get } as any);
+
+      const client = new ApiClient(baseURL);
+      await client.listCommentsByPageUrl('/');
+      const page = await client.listCommentsByPageUrl('/');
+
+      expect(page.items).toEqual(items);
+      expect(get).toHaveBeenNthCalledWith(1, '/api/comments/page', { params: { url: '/' } });
+      const second = get.mock.calls[1][1];
+      expect(second.headers).toEqual({ 'If-None-Match': 'W/"1-1-0"' });
+      expect(second.validateStatus(304)).toBe(true);
+      expect(second.validateStatus(500)).toBe(false);
+    });
+
+    it('should replace the kept response when the resource changed', async () => {
+      const get = jest.fn()
+        .mockResolvedValueOnce({ status: 200, data: { id: 1, content: 'Old' }, headers: { etag: '"0"' } })
+        .mockResolvedValueOnce({ status: 200, data: { id: 1, content: 'New' }, headers: { etag: '"1"' } })
+        .mockResolvedValueOnce({ status: 304, data: '', headers: {} });
+      mockedAxios.create.mockReturnValue({ get } as any);
+
+      const client = new ApiClient(baseURL);
+      await client.getCommentById(1);
+      expect((await client.getCommentById(1)).content).toBe('New');
+      expect((await client.getCommentById(1)).content).toBe('New');
+      expect(get.mock.calls[2][1].headers).toEqual({ 'If-None-Match': '"1"' });
+    });
+  });
+
   describe('updateComment', () => {
     it('should update a comment', async () => {
       const updates = { status: CommentStatus.RESOLVED, priority: CommentPriority.HIGH };
@@ -114,6 +186,23 @@ describe('ApiClient', () => {
     });
   });
 
+  describe('patchComment', () => {
+    it('should send the expected version and return the new one', async () => {
+      const patch = jest.fn().mockResolvedValue({ status: 204, headers: { etag: '"4"' } });
+      mockedAxios.create.mockReturnValue({ patch } as any);
+
+      const client = new ApiClient(baseURL);
+      const version = await client.patchComment(1, { positionX: 10, positionY: 20 }, 3);
+
+      expect(patch).toHaveBeenCalledWith(
+        '/api/comments/1',
+        { positionX: 10, positionY: 20 },
+        { headers: { 'If-Match': '"3"' } }
+      );
+      expect(version).toBe(4);
+    });
+  });
+
   describe('deleteComment', () => {
     it('should delete a comment', async () => {
       mockedAxios.create.mockReturnValue({
@@ -151,6 +240,99 @@ describe('ApiClient', () => {
     });
   });
 
+  describe('getCommentSummariesByPageUrl', () => {
+    it('should request the summary view', async () => {
+      const summaries = [{ id: 1, positionX: 100, positionY: 200, status: CommentStatus.OPEN }];
+      const get = jest.fn().mockResolvedValue({ data: summaries, headers: {} });
+      mockedAxios.create.mockReturnValue({ get } as any);
+
+      const client = new ApiClient(baseURL);
+      const result = await client.getCommentSummariesByPageUrl('http://localhost:5173/page1');
+
+      expect(result).toEqual(summaries);
+      expect(get).toHaveBeenCalledWith('/api/comments/page', {
+        params: { url: 'http://localhost:5173/page1', view: 'summary' },
+      });
+    });
+  });
+
+  describe('getViewport', () => {
+    it('should send the bounds and cluster level', async () => {
+      const viewport = { pins: [], clusters: [{ x: 125, y: 210, count: 2 }], truncated: false };
+      const get = jest.fn().mockResolvedValue({ data: viewport });
+      mockedAxios.create.mockReturnValue({ get } as any);
+
+      const client = new ApiClient(baseURL);
+      const result = await client.getViewport('http://localhost:5173/', { minX: 0, minY: 0, maxX: 1280, maxY: 800 }, 2);
+
+      expect(result).toEqual(viewport);
+      expect(get).toHaveBeenCalledWith('/api/comments/viewport', {
+        params: { url: 'http://localhost:5173/', minX: 0, minY: 0, maxX: 1280, maxY: 800, clusterLevel: 2 },
+      });
+    });
+  });
+
+  describe('searchComments', () => {
+    it('should pass the query and filters', async () => {
+      const result = { total: 1, hits: [{ comment: { id: 1, pageUrl: '/', content: 'Footer', positionX: 1, positionY: 2 }, score: 1.5 }] };
+      const get = jest.fn().mockResolvedValue({ data: result });
+      mockedAxios.create.mockReturnValue({ get } as any);
+
+      const client = new ApiClient(baseURL);
+      const response = await client.searchComments('footer', { status: CommentStatus.OPEN, size: 10 });
+
+      expect(response).toEqual(result);
+      expect(get).toHaveBeenCalledWith('/api/comments/search', {
+        params: { q: 'footer', status: 'OPEN', size: 10 },
+      });
+    });
+  });
+
+  describe('patchCommentBuffered', () => {
+    it('should ask the server to buffer the update', async () => {
+      const patch = jest.fn().mockResolvedValue({ status: 202, headers: {} });
+      mockedAxios.create.mockReturnValue({ patch } as any);
+
+      const client = new ApiClient(baseURL);
+      await client.patchCommentBuffered(7, { positionX: 10, positionY: 20 });
+
+      expect(patch).toHaveBeenCalledWith('/api/comments/7', { positionX: 10, positionY: 20 }, {
+        headers: { Prefer: 'respond-async' },
+      });
+    });
+  });
+
+  describe('getPageStats', () => {
+    it('should fetch the counts of one page', async () => {
+      const stats = { total: 3, byStatus: { OPEN: 2, RESOLVED: 1 } };
+      const get = jest.fn().mockResolvedValue({ data: stats });
+      mockedAxios.create.mockReturnValue({ get } as any);
+
+      const client = new ApiClient(baseURL);
+      const response = await client.getPageStats('http://localhost:5173/');
+
+      expect(response).toEqual(stats);
+      expect(get).toHaveBeenCalledWith('/api/comments/stats/page', { params: { url: 'http://localhost:5173/' } });
+    });
+  });
+
+  describe('uploadScreenshot', () => {
+    it('should post the image as the raw body', async () => {
+      const upload = { hash: 'ab'.repeat(32), size: 3, contentType: 'image/png', url: '/api/screenshots/x', thumbnailUrl: '/api/screenshots/x/thumbnail', duplicate: false };
+      const post = jest.fn().mockResolvedValue({ data: upload });
+      mockedAxios.create.mockReturnValue({ post } as any);
+
+      const client = new ApiClient(baseURL);
+      const image = new Blob([new Uint8Array([1, 2, 3])], { type: 'image/png' });
+      const response = await client.uploadScreenshot(image);
+
+      expect(response).toEqual(upload);
+      expect(post).toHaveBeenCalledWith('/api/screenshots', image, {
+        headers: { 'Content-Type': 'image/png' },
+      });
+    });
+  });
+
   describe('getCommentsByStatus', () => {
     it('should fetch comments by status', async () => {
       const mockComments: Comment[] = [
@@ -177,4 +359,126 @@ describe('ApiClient', () => {
       expect(result[0].status).toBe(CommentStatus.OPEN);
     });
   });
+
+  describe('batch operations', () => {
+    it('should create comments in one request', async () => {
+      const results = [
+        { index: 0, id: 1, status: 'CREATED' },
+        { index: 1, status: 'INVALID', error: 'Missing required field(s): content' },
+      ];
+      const post = jest.fn().mockResolvedValue({ data: results });
+      mockedAxios.create.mockReturnValue({ post } as any);
+
+      const client = new ApiClient(baseURL);
+      const comments: Comment[] = [
+        { pageUrl: 'http://localhost:5173/', content: 'A', positionX: 1, positionY: 1 },
+        { pageUrl: 'http://localhost:5173/', content: '', positionX: 2, positionY: 2 },
+      ];
+      const result = await client.createComments(comments);
+
+      expect(post).toHaveBeenCalledWith('/api/comments/batch', comments);
+      expect(result[1].status).toBe('INVALID');
+    });
+
+    it('should send ids in the body of a batch delete', async () => {
+      const del = jest.fn().mockResolvedValue({ data: [{ index: 0, id: 3, status: 'DELETED' }] });
+      mockedAxios.create.mockReturnValue({ delete: del } as any);
+
+      const client = new ApiClient(baseURL);
+      const result = await client.deleteComments([3]);
+
+      expect(del).toHaveBeenCalledWith('/api/comments/batch', { data: [3] });
+      expect(result[0].status).toBe('DELETED');
+    });
+  });
+
+  describe('maintenance jobs', () => {
+    it('should start a bulk delete with only the given filters', async () => {
+      const job = { id: 'j1', type: 'BULK_DELETE', criteria: { status: 'OPEN' }, state: 'QUEUED', total: 0, processed: 0 };
+      const del = jest.fn().mockResolvedValue({ data: job });
+      mockedAxios.create.mockReturnValue({ delete: del } as any);
+
+      const client = new ApiClient(baseURL);
+      const result = await client.bulkDeleteComments({ status: 'OPEN' });
+
+      expect(del).toHaveBeenCalledWith('/api/comments', { params: { status: 'OPEN' } });
+      expect(result.id).toBe('j1');
+    });
+
+    it('should poll a job by id', async () => {
+      const get = jest.fn().mockResolvedValue({ data: { id: 'j1', state: 'COMPLETED', processed: 3 } });
+      mockedAxios.create.mockReturnValue({ get } as any);
+
+      const client = new ApiClient(baseURL);
+      const result = await client.getJob('j1');
+
+      expect(get).toHaveBeenCalledWith('/api/comments/jobs/j1');
+      expect(result.state).toBe('COMPLETED');
+    });
+  });
+
+  describe('changes since', () => {
+    it('should apply changes until the feed has no more', async () => {
+      const get = jest.fn()
+        .mockResolvedValueOnce({ status: 200, data: { changed: [{ id: 2, content: 'new' }], deleted: [1], token: 't1', hasMore: true } })
+        .mockResolvedValueOnce({ status: 200, data: { changed: [{ id: 3, content: 'more' }], deleted: [], token: 't2', hasMore: false } });
+      mockedAxios.create.mockReturnValue({ get } as any);
+
+      const client = new ApiClient(baseURL);
+      const replica = { pageUrl: 'http://localhost/page', token: 't0', comments: new Map([[1, { id: 1 } as any]]) };
+      await client.syncComments(replica);
+
+      expect(get).toHaveBeenNthCalledWith(1, '/api/comments/changes',
+        expect.objectContaining({ params: { since: 't0', url: 'http://localhost/page' } }));
+      expect(get).toHaveBeenNthCalledWith(2, '/api/comments/changes',
+        expect.objectContaining({ params: { since: 't1', url: 'http://localhost/page' } }));
+      expect([...replica.comments.keys()]).toEqual([2, 3]);
+      expect(replica.token).toBe('t2');
+    });
+
+    it('should start over from a snapshot when the token has expired', async () => {
+      const get = jest.fn()
+        .mockResolvedValueOnce({ status: 410, data: '' })
+        .mockResolvedValueOnce({ status: 200, data: { changed: [{ id: 5 }], deleted: [], token: 't9', hasMore: false } });
+      mockedAxios.create.mockReturnValue({ get } as any);
+
+      const client = new ApiClient(baseURL);
+      const replica = { token: 'old', comments: new Map([[1, { id: 1 } as any]]) };
+      await client.syncComments(replica);
+
+      expect(get).toHaveBeenLastCalledWith('/api/comments/changes', expect.objectContaining({ params: {} }));
+      expect([...replica.comments.keys()]).toEqual([5]);
+      expect(replica.token).toBe('t9');
+    });
+  });
+
+  describe('binary mode', () => {
+    it('should ask for CBOR and decode array buffers', () => {
+      mockedAxios.create.mockReturnValue({} as any);
+
+      new ApiClient(baseURL, { binary: true });
+
+      const config = mockedAxios.create.mock.calls[0][0] as any;
+      expect(config.headers.Accept).toBe('application/cbor, application/json;q=0.9');
+      expect(config.responseType).toBe('arraybuffer');
+      expect(config.transformResponse).toEqual([decodeResponse]);
+    });
+
+    it('should expand CBOR bodies and parse JSON fallbacks', () => {
+      // {"status": 2, "createdAt": 0}
+      const cbor = new Uint8Array([0xa2, 0x66, ...ascii('status'), 0x02, 0x69, ...ascii('createdAt'), 0x00]);
+      const json = new Uint8Array(ascii('{"error":"bad"}'));
+
+      expect(decodeResponse(cbor.buffer, { 'content-type': 'application/cbor' })).toEqual({
+        status: CommentStatus.RESOLVED,
+        createdAt: '1970-01-01T00:00:00.000Z',
+      });
+      expect(decodeResponse(json.buffer, { 'content-type': 'application/json' })).toEqual({ error: 'bad' });
+      expect(decodeResponse(new ArrayBuffer(0), { 'content-type': 'application/cbor' })).toBeUndefined();
+    });
+  });
 });
+
+function ascii(text: string): number[] {
+  return [...text].map((c) => c.charCodeAt(0));
+}
@@ -0,0 +1,63 @@
+import { decodeCbor, expandCompact } from '../shared/cbor';
+import { CommentCategory, CommentPriority, CommentStatus } from '../shared/types';
+
+const bytes = (...values: number[]) => new Uint8Array(values).buffer;
+const text = (value: string) => [0x60 + value.length, ...[...value].map((c) => c.charCodeAt(0))];
+
+describe('decodeCbor', () => {
+  it('should decode integers of every width', () => {
+    expect(decodeCbor(bytes(0x17))).toBe(23);
+    expect(decodeCbor(bytes(0x18, 0xff))).toBe(255);
+    expect(decodeCbor(bytes(0x19, 0x01, 0x00))).toBe(256);
+    expect(decodeCbor(bytes(0x1a, 0x00, 0x01, 0x00, 0x00))).toBe(65536);
+    // 1700000000123, an epoch-millisecond date
+    expect(decodeCbor(bytes(0x1b, 0x00, 0x00, 0x01, 0x8b, 0xcf, 0xe5, 0x68, 0x7b))).toBe(1700000000123);
+    expect(decodeCbor(bytes(0x38, 0x63))).toBe(-100);
+  });
+
+  it('should decode strings, simple values and floats', () => {
+    expect(decodeCbor(bytes(...text('pin')))).toBe('pin');
+    expect(decodeCbor(bytes(0x63, 0xc3, 0xa9, 0x21))).toBe('é!');
+    expect(decodeCbor(bytes(0xf4))).toBe(false);
+    expect(decodeCbor(bytes(0xf5))).toBe(true);
+    expect(decodeCbor(bytes(0xf6))).toBeNull();
+    expect(decodeCbor(bytes(0xf9, 0x3e, 0x00))).toBe(1.5);
+    expect(decodeCbor(bytes(0xfb, 0x3f, 0xf8, 0, 0, 0, 0, 0, 0))).toBe(1.5);
+  });
+
+  it('should decode definite and indefinite arrays and maps', () => {
+    expect(decodeCbor(bytes(0x82, 0x01, 0x02))).toEqual([1, 2]);
+    expect(decodeCbor(bytes(0x9f, 0x01, 0x02, 0xff))).toEqual([1, 2]);
+    expect(decodeCbor(bytes(0xa1, ...text('id'), 0x07))).toEqual({ id: 7 });
+    // Jackson writes objects with indefinite length.
+    expect(decodeCbor(bytes(0x9f, 0xbf, ...text('id'), 0x07, ...text('x'), 0xf6, 0xff, 0xff))).toEqual([
+      { id: 7, x: null },
+    ]);
+    expect(decodeCbor(bytes(0x7f, ...text('ab'), ...text('c'), 0xff))).toBe('abc');
+  });
+});
+
+describe('expandCompact', () => {
+  it('should turn codes into names and millis into ISO dates', () => {
+    const expanded = expandCompact([
+      { id: 1, status: 1, priority: 3, category: 4, createdAt: 0, positionX: 2 },
+    ]);
+
+    expect(expanded).toEqual([
+      {
+        id: 1,
+        status: CommentStatus.IN_PROGRESS,
+        priority: CommentPriority.CRITICAL,
+        category: CommentCategory.GENERAL,
+        createdAt: '1970-01-01T00:00:00.000Z',
+        positionX: 2,
+      },
+    ]);
+  });
+
+  it('should keep values sent as strings and expand nested comments', () => {
+    const expanded = expandCompact({ hits: [{ comment: { status: 'WONT_FIX', priority: 0 }, score: 1.5 }] });
+
+    expect(expanded).toEqual({ hits: [{ comment: { status: 'WONT_FIX', priority: 'LOW' }, score: 1.5 }] });
+  });
+});
@@ -0,0 +1,73 @@
+import CommentStream from '../shared/comment-stream';
+
+class FakeEventSource {
+  url: string;
+  onopen: (() => void) | null = null;
+  closed = false;
+  private listeners: Record<string, ((event: any) => void)[]> = {};
+
+  constructor(url: string) {
+    this.url = url;
+  }
+
+  addEventListener(name: string, listener: (event: any) => void): void {
+    (this.listeners[name] = this.listeners[name] || []).push(listener);
+  }
+
+  emit(name: string, data?: unknown): void {
+    (this.listeners[name] || []).forEach((listener) => listener({ data: JSON.stringify(data) }));
+  }
+
+  close(): void {
+    this.closed = true;
+  }
+}
+
+describe('CommentStream', () => {
+  let source: FakeEventSource;
+  const factory = (url: string) => {
+    source = new FakeEventSource(url);
+    return source as unknown as EventSource;
+  };
+
+  it('should subscribe with the encoded page URL', () => {
+    new CommentStream('http://localhost:8080', 'https://example.com/a?b=1', {}, factory).open();
+
+    expect(source.url).toBe(
+      'http://localhost:8080/api/comments/stream?url=https%3A%2F%2Fexample.com%2Fa%3Fb%3D1',
+    );
+  });
+
+  it('should dispatch change events to handlers', () => {
+    const handlers = { onCreated: jest.fn(), onUpdated: jest.fn(), onDeleted: jest.fn() };
+    new CommentStream('', 'https://example.com', handlers, factory).open();
+
+    source.emit('created', { id: 1, content: 'New' });
+    source.emit('updated', { id: 1, content: 'Edited' });
+    source.emit('deleted', { id: 1 });
+
+    expect(handlers.onCreated).toHaveBeenCalledWith({ id: 1, content: 'New' });
+    expect(handlers.onUpdated).toHaveBeenCalledWith({ id: 1, content: 'Edited' });
+    expect(handlers.onDeleted).toHaveBeenCalledWith(1);
+  });
+
+  it('should resync on server request and on reconnect', () => {
+    const onResync = jest.fn();
+    new CommentStream('', 'https://example.com', { onResync }, factory).open();
+
+    source.onopen?.();
+    expect(onResync).not.toHaveBeenCalled();
+
+    source.emit('resync', '');
+    source.onopen?.();
+    expect(onResync).toHaveBeenCalledTimes(2);
+  });
+
+  it('should close the underlying source', () => {
+    const stream = new CommentStream('', 'https://example.com', {}, factory);
+    stream.open();
+    stream.close();
+
+    expect(source.closed).toBe(true);
+  });
+});
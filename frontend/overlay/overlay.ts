@@ -1,6 +1,8 @@
 import './overlay.scss';
 import { Comment, CommentPin, OverlayConfig, Position, CommentStatus, CommentPriority } from '../shared/types';
+import axios from 'axios';
 import ApiClient from '../shared/api-client';
+import CommentStream from '../shared/comment-stream';
 
 export class UICommentOverlay {
   private config: OverlayConfig;
@@ -10,6 +12,7 @@ export class UICommentOverlay {
   private overlayElement: HTMLElement | null = null;
   private modalElement: HTMLElement | null = null;
   private standaloneMode: boolean = false;
+  private commentStream: CommentStream | null = null;
 
   constructor(config: OverlayConfig) {
     this.config = {
@@ -18,7 +21,7 @@ export class UICommentOverlay {
       position: 'bottom-right',
       ...config,
     };
-    this.apiClient = new ApiClient(this.config.apiBaseUrl);
+    this.apiClient = new ApiClient(this.config.apiBaseUrl, { binary: this.config.binary });
     this.init();
   }
 
@@ -33,6 +36,7 @@ export class UICommentOverlay {
       await this.loadExistingComments();
       this.standaloneMode = false;
       this.log('Backend connected successfully');
+      this.openCommentStream();
     } catch (error) {
       this.standaloneMode = true;
       this.log('Running in standalone mode (backend not available)');
@@ -325,11 +329,78 @@ export class UICommentOverlay {
     return existing ? JSON.parse(existing) : [];
   }
 
-  private addPin(position: Position, comment: Comment): void {
+  private openCommentStream(): void {
+    this.commentStream = new CommentStream(this.config.apiBaseUrl, window.location.href, {
+      onCreated: (comment) => {
+        if (comment.positionX && comment.positionY) {
+          this.addPin({ x: comment.positionX, y: comment.positionY }, comment);
+        }
+      },
+      onUpdated: (comment) => this.applyRemoteUpdate(comment),
+      onDeleted: (id) => this.removePin(id),
+      onResync: () => {
+        this.log('Resyncing comments from server');
+        this.pins = [];
+        this.clearPins();
+        this.loadExistingComments();
+      },
+    });
+    this.commentStream.open();
+  }
+
+  private findPin(commentId: number): CommentPin | undefined {
+    return this.pins.find((p) => p.comment.id === commentId);
+  }
+
+  private findPinElement(pin: CommentPin): HTMLElement | null {
+    return document.querySelector<HTMLElement>(`.ui-comment-pin[data-pin-id="${pin.id}"]`);
+  }
+
+  private applyRemoteUpdate(comment: Comment): void {
+    const pin = comment.id ? this.findPin(comment.id) : undefined;
+    if (!pin) {
+      if (comment.positionX && comment.positionY) {
+        this.addPin({ x: comment.positionX, y: comment.positionY }, comment);
+      }
+      return;
+    }
+
+    pin.comment = comment;
+    pin.partial = false;
+    if (comment.positionX && comment.positionY) {
+      pin.position = { x: comment.positionX, y: comment.positionY };
+    }
+    const pinEl = this.findPinElement(pin);
+    if (pinEl) {
+      pinEl.style.left = `${pin.position.x}px`;
+      pinEl.style.top = `${pin.position.y}px`;
+      pinEl.style.opacity = '';
+      pinEl.style.filter = '';
+      pinEl.title = comment.content;
+    }
+    this.updatePinAppearance(pin);
+  }
+
+  private removePin(commentId: number): void {
+    const pin = this.findPin(commentId);
+    if (!pin) {
+      return;
+    }
+    this.pins.splice(this.pins.indexOf(pin), 1);
+    this.findPinElement(pin)?.remove();
+  }
+
+  private addPin(position: Position, comment: Comment, partial: boolean = false): void {
+    // The push stream may deliver a comment this client has already pinned.
+    if (comment.id && this.findPin(comment.id)) {
+      return;
+    }
+
     const pin: CommentPin = {
-      id: `pin-${Date.now()}`,
+      id: comment.id ? `pin-${comment.id}` : `pin-${Date.now()}`,
       position,
       comment,
+      partial,
     };
 
     this.pins.push(pin);
@@ -344,19 +415,44 @@ export class UICommentOverlay {
   private renderPin(pin: CommentPin): void {
     const pinElement = document.createElement('div');
     pinElement.className = 'ui-comment-pin';
+    pinElement.dataset.pinId = pin.id;
     pinElement.style.left = `${pin.position.x}px`;
     pinElement.style.top = `${pin.position.y}px`;
     pinElement.innerHTML = '📌';
-    pinElement.title = pin.comment.content;
+    pinElement.title = this.pinTitle(pin);
 
     pinElement.addEventListener('click', (e) => {
       e.stopPropagation();
-      this.showPinDetails(pin);
+      this.openPin(pin);
     });
 
     document.body.appendChild(pinElement);
   }
 
+  private pinTitle(pin: CommentPin): string {
+    return pin.partial ? 'Click to view comment' : pin.comment.content;
+  }
+
+  // Pins are drawn from summaries; the full comment is only fetched once someone opens one.
+  private async openPin(pin: CommentPin): Promise<void> {
+    if (pin.partial && pin.comment.id) {
+      try {
+        pin.comment = await this.apiClient.getCommentById(pin.comment.id);
+        pin.partial = false;
+        const pinEl = this.findPinElement(pin);
+        if (pinEl) {
+          pinEl.title = this.pinTitle(pin);
+        }
+        this.updatePinAppearance(pin);
+      } catch (error) {
+        console.error('Failed to load comment:', error);
+        alert('Failed to load comment. Please try again.');
+        return;
+      }
+    }
+    this.showPinDetails(pin);
+  }
+
   private showPinDetails(pin: CommentPin): void {
     this.closeModal();
 
@@ -435,6 +531,7 @@ export class UICommentOverlay {
       alert('Cannot update comment without ID');
       return;
     }
+    const id = pin.comment.id;
 
     const statusSelect = document.getElementById('update-status') as HTMLSelectElement;
     const prioritySelect = document.getElementById('update-priority') as HTMLSelectElement;
@@ -447,15 +544,15 @@ export class UICommentOverlay {
     try {
       if (this.standaloneMode) {
         // Update in localStorage
-        this.updateInLocalStorage(pin.comment.id, updates);
+        this.updateInLocalStorage(id, updates);
         pin.comment.status = updates.status as any;
         pin.comment.priority = updates.priority as any;
         this.log('Comment updated locally (standalone mode)');
       } else {
-        // Update on backend
-        const updatedComment = await this.apiClient.updateComment(pin.comment.id, updates);
-        pin.comment = updatedComment;
-        this.log('Comment updated on server:', updatedComment);
+        // Single-statement update, rejected if someone else changed the comment since we loaded it
+        const version = await this.apiClient.patchComment(id, updates, pin.comment.version);
+        pin.comment = { ...pin.comment, ...updates, version: version ?? pin.comment.version };
+        this.log('Comment updated on server:', pin.comment);
       }
 
       this.closeModal();
@@ -467,6 +564,12 @@ export class UICommentOverlay {
       
       alert('Comment updated successfully!');
     } catch (error) {
+      if (axios.isAxiosError(error) && error.response?.status === 409) {
+        pin.comment = await this.apiClient.getCommentById(id);
+        this.closeModal();
+        alert('This comment was changed by someone else. The latest version has been loaded.');
+        return;
+      }
       console.error('Failed to update comment:', error);
       alert('Failed to update comment. Please try again.');
     }
@@ -522,7 +625,7 @@ export class UICommentOverlay {
         if (pin.comment.status === 'RESOLVED' || pin.comment.status === 'CLOSED') {
           pinEl.style.opacity = '0.5';
           pinEl.style.filter = 'grayscale(100%)';
-          pinEl.title = `${pin.comment.content} (${pin.comment.status})`;
+          pinEl.title = `${this.pinTitle(pin)} (${pin.comment.status})`;
         }
       }
     });
@@ -558,16 +661,19 @@ export class UICommentOverlay {
   private async loadExistingComments(): Promise<void> {
     try {
       let comments: Comment[];
-      
+      let partial = false;
+
       if (this.standaloneMode) {
         // Load from localStorage in standalone mode
         comments = this.loadFromLocalStorage();
         this.log('Loaded comments from localStorage:', comments);
       } else {
         try {
-          // Try to load from backend
-          comments = await this.apiClient.getCommentsByPageUrl(window.location.href);
-          this.log('Loaded existing comments from server:', comments);
+          // Try to load from backend; only the fields needed to draw pins
+          const summaries = await this.apiClient.getCommentSummariesByPageUrl(window.location.href);
+          comments = summaries.map((summary) => ({ ...summary, pageUrl: window.location.href, content: '' }));
+          partial = true;
+          this.log('Loaded existing comment summaries from server:', summaries);
         } catch (error) {
           // Fallback to localStorage if backend fails
           this.standaloneMode = true;
@@ -578,7 +684,7 @@ export class UICommentOverlay {
 
       comments.forEach((comment) => {
         if (comment.positionX && comment.positionY) {
-          this.addPin({ x: comment.positionX, y: comment.positionY }, comment);
+          this.addPin({ x: comment.positionX, y: comment.positionY }, comment, partial);
         }
       });
     } catch (error) {
@@ -587,6 +693,8 @@ export class UICommentOverlay {
   }
 
   public destroy(): void {
+    this.commentStream?.close();
+    this.commentStream = null;
     this.deactivate();
     document.getElementById('ui-comment-toggle')?.remove();
   }
@@ -1,15 +1,46 @@
-import axios, { AxiosInstance } from 'axios';
-import { Comment } from './types';
+import axios, { AxiosInstance, AxiosRequestConfig, AxiosResponse } from 'axios';
+import {
+  BatchItemResult,
+  ChangesOptions,
+  Comment,
+  CommentChanges,
+  CommentPage,
+  CommentReplica,
+  CommentSearchResult,
+  CommentStats,
+  CommentSummary,
+  MaintenanceJob,
+  PageCommentStats,
+  PageOptions,
+  ScreenshotUpload,
+  SearchOptions,
+  Viewport,
+  ViewportBounds,
+} from './types';
+import { CBOR_CONTENT_TYPE, decodeCbor, decodeUtf8, expandCompact } from './cbor';
+
+export const NEXT_CURSOR_HEADER = 'x-next-cursor';
+// Responses kept for revalidation with If-None-Match; the oldest is dropped beyond this.
+export const MAX_CONDITIONAL_ENTRIES = 200;
+
+export interface ApiClientOptions {
+  // Ask for CBOR responses (smaller, faster to parse for long lists); decoded into the same shapes as JSON.
+  binary?: boolean;
+}
 
 class ApiClient {
   private client: AxiosInstance;
+  private conditional = new Map<string, { etag: string; response: AxiosResponse<unknown> }>();
 
-  constructor(baseURL: string) {
+  constructor(baseURL: string, options: ApiClientOptions = {}) {
+    const headers: Record<string, string> = { 'Content-Type': 'application/json' };
+    if (options.binary) {
+      headers.Accept = `${CBOR_CONTENT_TYPE}, application/json;q=0.9`;
+    }
     this.client = axios.create({
       baseURL,
-      headers: {
-        'Content-Type': 'application/json',
-      },
+      headers,
+      ...(options.binary ? { responseType: 'arraybuffer' as const, transformResponse: [decodeResponse] } : {}),
     });
   }
 
@@ -19,35 +50,267 @@ class ApiClient {
   }
 
   async getAllComments(): Promise<Comment[]> {
-    const response = await this.client.get<Comment[]>('/api/comments');
-    return response.data;
+    return this.collectPages((options) => this.listComments(options));
+  }
+
+  async listComments(options: PageOptions = {}): Promise<CommentPage> {
+    const response = await this.conditionalGet<Comment[]>('/api/comments', this.pageParams(options));
+    return this.toPage(response);
   }
 
   async getCommentById(id: number): Promise<Comment> {
-    const response = await this.client.get<Comment>(`/api/comments/${id}`);
+    const response = await this.conditionalGet<Comment>(`/api/comments/${id}`);
     return response.data;
   }
 
   async getCommentsByPageUrl(url: string): Promise<Comment[]> {
-    const response = await this.client.get<Comment[]>('/api/comments/page', {
-      params: { url },
+    return this.collectPages((options) => this.listCommentsByPageUrl(url, options));
+  }
+
+  async listCommentsByPageUrl(url: string, options: PageOptions = {}): Promise<CommentPage> {
+    const response = await this.conditionalGet<Comment[]>('/api/comments/page', {
+      url,
+      ...this.pageParams(options),
     });
+    return this.toPage(response);
+  }
+
+  async getCommentSummariesByPageUrl(url: string): Promise<CommentSummary[]> {
+    return this.collectPages((options) => this.listCommentSummariesByPageUrl(url, options));
+  }
+
+  async listCommentSummariesByPageUrl(url: string, options: PageOptions = {}): Promise<CommentPage<CommentSummary>> {
+    const response = await this.conditionalGet<CommentSummary[]>('/api/comments/page', {
+      url,
+      view: 'summary',
+      ...this.pageParams(options),
+    });
+    return this.toPage(response);
+  }
+
+  /**
+   * Pins of a page inside the given rectangle. Pass a cluster level (0 = one cell per 256px tile, each level
+   * doubles the cell size) to get server-side clusters instead of individual pins.
+   */
+  async getViewport(url: string, bounds: ViewportBounds, clusterLevel?: number): Promise<Viewport> {
+    const params: Record<string, string | number> = { url, ...bounds };
+    if (clusterLevel !== undefined) params.clusterLevel = clusterLevel;
+    const response = await this.client.get<Viewport>('/api/comments/viewport', { params });
     return response.data;
   }
 
-  async getCommentsByStatus(status: string): Promise<Comment[]> {
-    const response = await this.client.get<Comment[]>(`/api/comments/status/${status}`);
+  /**
+   * Full-text search over content, resolution, category, assignee and page URL. The query supports
+   * "phrases", -exclusions and prefix* terms; all terms must match.
+   */
+  async searchComments(query: string, options: SearchOptions = {}): Promise<CommentSearchResult> {
+    const response = await this.client.get<CommentSearchResult>('/api/comments/search', {
+      params: { q: query, ...options },
+    });
     return response.data;
   }
 
+  // Server-side counts; use these instead of listing comments and counting them.
+  async getStats(): Promise<CommentStats> {
+    const response = await this.client.get<CommentStats>('/api/comments/stats');
+    return response.data;
+  }
+
+  async getPageStats(url: string): Promise<PageCommentStats> {
+    const response = await this.client.get<PageCommentStats>('/api/comments/stats/page', { params: { url } });
+    return response.data;
+  }
+
+  // Sends the image as the raw request body so the server can stream it to disk.
+  async uploadScreenshot(image: Blob): Promise<ScreenshotUpload> {
+    const response = await this.client.post<ScreenshotUpload>('/api/screenshots', image, {
+      headers: { 'Content-Type': image.type || 'application/octet-stream' },
+    });
+    return response.data;
+  }
+
+  async getCommentsByStatus(status: string): Promise<Comment[]> {
+    return this.collectPages((options) => this.listCommentsByStatus(status, options));
+  }
+
+  async listCommentsByStatus(status: string, options: PageOptions = {}): Promise<CommentPage> {
+    const response = await this.conditionalGet<Comment[]>(`/api/comments/status/${status}`, this.pageParams(options));
+    return this.toPage(response);
+  }
+
+  async listCommentSummariesByStatus(status: string, options: PageOptions = {}): Promise<CommentPage<CommentSummary>> {
+    const response = await this.conditionalGet<CommentSummary[]>(`/api/comments/status/${status}`, {
+      view: 'summary',
+      ...this.pageParams(options),
+    });
+    return this.toPage(response);
+  }
+
   async updateComment(id: number, updates: Partial<Comment>): Promise<Comment> {
     const response = await this.client.put<Comment>(`/api/comments/${id}`, updates);
     return response.data;
   }
 
+  /**
+   * Single-statement partial update. Pass the version the change is based on to have the server reject it
+   * (HTTP 409) when someone else changed the comment in the meantime. Resolves to the new version when known.
+   */
+  async patchComment(id: number, updates: Partial<Comment>, version?: number): Promise<number | undefined> {
+    const headers = version !== undefined ? { 'If-Match': `"${version}"` } : undefined;
+    const response = await this.client.patch(`/api/comments/${id}`, updates, { headers });
+    const etag: string | undefined = response.headers?.etag;
+    return etag ? Number(etag.replace(/^W\//, '').replace(/"/g, '')) : undefined;
+  }
+
+  /**
+   * Position or status change the server may buffer and coalesce with later ones (e.g. while a pin is
+   * dragged). Resolves once the server has accepted it; without a version check, last write wins.
+   */
+  async patchCommentBuffered(
+    id: number,
+    updates: Partial<Pick<Comment, 'positionX' | 'positionY' | 'status'>>,
+  ): Promise<void> {
+    await this.client.patch(`/api/comments/${id}`, updates, { headers: { Prefer: 'respond-async' } });
+  }
+
   async deleteComment(id: number): Promise<void> {
     await this.client.delete(`/api/comments/${id}`);
   }
+
+  async createComments(comments: Comment[]): Promise<BatchItemResult[]> {
+    const response = await this.client.post<BatchItemResult[]>('/api/comments/batch', comments);
+    return response.data;
+  }
+
+  async updateComments(updates: Array<Partial<Comment> & { id: number }>): Promise<BatchItemResult[]> {
+    const response = await this.client.patch<BatchItemResult[]>('/api/comments/batch', updates);
+    return response.data;
+  }
+
+  async deleteComments(ids: number[]): Promise<BatchItemResult[]> {
+    const response = await this.client.delete<BatchItemResult[]>('/api/comments/batch', { data: ids });
+    return response.data;
+  }
+
+  // Soft-deletes a page's comments and/or those with a status in the background; at least one filter is required.
+  async bulkDeleteComments(filter: { pageUrl?: string; status?: string }): Promise<MaintenanceJob> {
+    const params: Record<string, string> = {};
+    if (filter.pageUrl) params.url = filter.pageUrl;
+    if (filter.status) params.status = filter.status;
+    const response = await this.client.delete<MaintenanceJob>('/api/comments', { params });
+    return response.data;
+  }
+
+  async archiveComments(): Promise<MaintenanceJob> {
+    const response = await this.client.post<MaintenanceJob>('/api/comments/archive');
+    return response.data;
+  }
+
+  async getJob(id: string): Promise<MaintenanceJob> {
+    const response = await this.client.get<MaintenanceJob>(`/api/comments/jobs/${id}`);
+    return response.data;
+  }
+
+  /**
+   * Comments changed since a token from a previous call, or a snapshot without one. Resolves to undefined when
+   * the token has expired (410); start over without it.
+   */
+  async getChanges(options: ChangesOptions = {}): Promise<CommentChanges | undefined> {
+    const params: Record<string, string | number> = {};
+    if (options.since) params.since = options.since;
+    if (options.pageUrl) params.url = options.pageUrl;
+    if (options.limit) params.limit = options.limit;
+    const response = await this.client.get<CommentChanges>('/api/comments/changes', {
+      params,
+      validateStatus: (status) => (status >= 200 && status < 300) || status === 410,
+    });
+    return response.status === 410 ? undefined : response.data;
+  }
+
+  // Brings the replica up to date in place, replacing it with a fresh snapshot if its token has expired.
+  async syncComments(replica: CommentReplica): Promise<CommentReplica> {
+    let changes: CommentChanges | undefined;
+    do {
+      changes = await this.getChanges({ since: replica.token, pageUrl: replica.pageUrl });
+      if (!changes) {
+        replica.token = undefined;
+        replica.comments.clear();
+        changes = await this.getChanges({ pageUrl: replica.pageUrl });
+        if (!changes) throw new Error('Change feed refused a snapshot');
+      }
+      for (const comment of changes.changed) {
+        if (comment.id !== undefined) replica.comments.set(comment.id, comment);
+      }
+      for (const id of changes.deleted) replica.comments.delete(id);
+      replica.token = changes.token;
+    } while (changes.hasMore);
+    return replica;
+  }
+
+  /**
+   * GET that revalidates: a response with an ETag is kept, and the next request for the same URL sends
+   * If-None-Match. On 304 the kept response is returned without the server re-sending the body.
+   */
+  private async conditionalGet<T>(url: string, params?: Record<string, string | number>): Promise<AxiosResponse<T>> {
+    const key = params ? `${url}?${JSON.stringify(params)}` : url;
+    const cached = this.conditional.get(key);
+    const config: AxiosRequestConfig = params ? { params } : {};
+    if (cached) {
+      config.headers = { 'If-None-Match': cached.etag };
+      config.validateStatus = (status) => (status >= 200 && status < 300) || status === 304;
+    }
+    const response = await this.client.get<T>(url, config);
+    if (response.status === 304 && cached) {
+      return cached.response as AxiosResponse<T>;
+    }
+    this.conditional.delete(key);
+    const etag: string | undefined = response.headers?.etag;
+    if (etag) {
+      this.conditional.set(key, { etag, response });
+      if (this.conditional.size > MAX_CONDITIONAL_ENTRIES) {
+        this.conditional.delete(this.conditional.keys().next().value as string);
+      }
+    }
+    return response;
+  }
+
+  private pageParams(options: PageOptions): Record<string, string | number> {
+    const params: Record<string, string | number> = {};
+    if (options.cursor) params.cursor = options.cursor;
+    if (options.limit) params.limit = options.limit;
+    return params;
+  }
+
+  private toPage<T>(response: AxiosResponse<T[]>): CommentPage<T> {
+    const nextCursor = response.headers?.[NEXT_CURSOR_HEADER];
+    return { items: response.data, nextCursor: nextCursor || undefined };
+  }
+
+  // Follows next cursors until the server reports the last page.
+  private async collectPages<T>(fetchPage: (options: PageOptions) => Promise<CommentPage<T>>): Promise<T[]> {
+    const comments: T[] = [];
+    let cursor: string | undefined;
+    do {
+      const page = await fetchPage({ cursor });
+      comments.push(...page.items);
+      cursor = page.nextCursor;
+    } while (cursor);
+    return comments;
+  }
+}
+
+/**
+ * Response body of a binary-mode client: CBOR is decoded and expanded, anything else (errors, endpoints
+ * without a CBOR form) is parsed as JSON when it is JSON and returned as text otherwise.
+ */
+export function decodeResponse(data: unknown, headers?: Record<string, unknown>): unknown {
+  if (!(data instanceof ArrayBuffer)) return data;
+  const contentType = String(headers?.['content-type'] ?? '');
+  if (contentType.includes(CBOR_CONTENT_TYPE)) {
+    return data.byteLength ? expandCompact(decodeCbor(data)) : undefined;
+  }
+  const text = decodeUtf8(new Uint8Array(data));
+  return contentType.includes('json') && text ? JSON.parse(text) : text;
 }
 
 export default ApiClient;
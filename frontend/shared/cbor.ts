@@ -0,0 +1,191 @@
+import { CommentCategory, CommentPriority, CommentStatus } from './types';
+
+export const CBOR_CONTENT_TYPE = 'application/cbor';
+
+// Same order as the backend's CommentCodes: a value's code is its index here.
+const CODES: Record<string, string[]> = {
+  status: Object.values(CommentStatus),
+  priority: Object.values(CommentPriority),
+  category: Object.values(CommentCategory),
+};
+
+// Dates arrive as epoch milliseconds and are turned back into the ISO strings JSON responses carry.
+const DATE_FIELDS = new Set(['createdAt', 'updatedAt', 'reconciledAt', 'finishedAt']);
+
+const BREAK = Symbol('break');
+
+/**
+ * Decodes one CBOR item (RFC 8949) as written by Jackson: definite and indefinite lengths, no string
+ * references. Tags are skipped and their content returned as is.
+ */
+export function decodeCbor(buffer: ArrayBuffer): unknown {
+  const view = new DataView(buffer);
+  const bytes = new Uint8Array(buffer);
+  let offset = 0;
+
+  const readLength = (info: number): number => {
+    if (info < 24) return info;
+    switch (info) {
+      case 24:
+        return view.getUint8(offset++);
+      case 25:
+        offset += 2;
+        return view.getUint16(offset - 2);
+      case 26:
+        offset += 4;
+        return view.getUint32(offset - 4);
+      case 27:
+        offset += 8;
+        return Number(view.getBigUint64(offset - 8));
+      default:
+        throw new Error(`Unsupported CBOR length encoding ${info}`);
+    }
+  };
+
+  const readBytes = (major: number, info: number): Uint8Array => {
+    if (info !== 31) {
+      const length = readLength(info);
+      offset += length;
+      return bytes.subarray(offset - length, offset);
+    }
+    const chunks: Uint8Array[] = [];
+    while (bytes[offset] !== 0xff) {
+      const head = bytes[offset++];
+      if (head >> 5 !== major) throw new Error('Malformed CBOR string chunk');
+      chunks.push(readBytes(major, head & 0x1f));
+    }
+    offset++;
+    const joined = new Uint8Array(chunks.reduce((total, chunk) => total + chunk.length, 0));
+    let at = 0;
+    for (const chunk of chunks) {
+      joined.set(chunk, at);
+      at += chunk.length;
+    }
+    return joined;
+  };
+
+  const readItem = (): unknown => {
+    const head = bytes[offset++];
+    const major = head >> 5;
+    const info = head & 0x1f;
+    switch (major) {
+      case 0:
+        return readLength(info);
+      case 1:
+        return -1 - readLength(info);
+      case 2:
+        return readBytes(major, info).slice();
+      case 3:
+        return decodeUtf8(readBytes(major, info));
+      case 4: {
+        const items: unknown[] = [];
+        const length = info === 31 ? Infinity : readLength(info);
+        for (let i = 0; i < length; i++) {
+          const item = readItem();
+          if (item === BREAK) break;
+          items.push(item);
+        }
+        return items;
+      }
+      case 5: {
+        const map: Record<string, unknown> = {};
+        const length = info === 31 ? Infinity : readLength(info);
+        for (let i = 0; i < length; i++) {
+          const key = readItem();
+          if (key === BREAK) break;
+          map[String(key)] = readItem();
+        }
+        return map;
+      }
+      case 6:
+        readLength(info);
+        return readItem();
+      default:
+        return readSimple(info);
+    }
+  };
+
+  const readSimple = (info: number): unknown => {
+    switch (info) {
+      case 20:
+        return false;
+      case 21:
+        return true;
+      case 22:
+        return null;
+      case 23:
+        return undefined;
+      case 25:
+        offset += 2;
+        return decodeHalf(view.getUint16(offset - 2));
+      case 26:
+        offset += 4;
+        return view.getFloat32(offset - 4);
+      case 27:
+        offset += 8;
+        return view.getFloat64(offset - 8);
+      case 31:
+        return BREAK;
+      default:
+        throw new Error(`Unsupported CBOR simple value ${info}`);
+    }
+  };
+
+  return readItem();
+}
+
+/**
+ * Turns the compact fields of a binary response back into their JSON form: status, priority and category
+ * codes into names, epoch-millisecond dates into ISO strings.
+ */
+export function expandCompact(value: unknown): unknown {
+  if (Array.isArray(value)) return value.map(expandCompact);
+  if (value === null || typeof value !== 'object' || value instanceof Uint8Array) return value;
+  const expanded: Record<string, unknown> = {};
+  for (const [key, field] of Object.entries(value as Record<string, unknown>)) {
+    if (typeof field === 'number' && CODES[key]) {
+      expanded[key] = CODES[key][field] ?? field;
+    } else if (typeof field === 'number' && DATE_FIELDS.has(key)) {
+      expanded[key] = new Date(field).toISOString();
+    } else {
+      expanded[key] = expandCompact(field);
+    }
+  }
+  return expanded;
+}
+
+function decodeHalf(half: number): number {
+  const exponent = (half >> 10) & 0x1f;
+  const fraction = half & 0x3ff;
+  const sign = half & 0x8000 ? -1 : 1;
+  if (exponent === 0) return sign * fraction * 2 ** -24;
+  if (exponent === 0x1f) return fraction ? NaN : sign * Infinity;
+  return sign * (1 + fraction / 1024) * 2 ** (exponent - 15);
+}
+
+const utf8 = typeof TextDecoder !== 'undefined' ? new TextDecoder() : undefined;
+
+// Falls back to decoding by hand where TextDecoder is missing (e.g. jsdom).
+export function decodeUtf8(bytes: Uint8Array): string {
+  if (utf8) return utf8.decode(bytes);
+  let text = '';
+  for (let i = 0; i < bytes.length; ) {
+    const first = bytes[i++];
+    let codePoint: number;
+    if (first < 0x80) {
+      codePoint = first;
+    } else if (first < 0xe0) {
+      codePoint = ((first & 0x1f) << 6) | (bytes[i++] & 0x3f);
+    } else if (first < 0xf0) {
+      codePoint = ((first & 0x0f) << 12) | ((bytes[i++] & 0x3f) << 6) | (bytes[i++] & 0x3f);
+    } else {
+      codePoint =
+        ((first & 0x07) << 18) |
+        ((bytes[i++] & 0x3f) << 12) |
+        ((bytes[i++] & 0x3f) << 6) |
+        (bytes[i++] & 0x3f);
+    }
+    text += String.fromCodePoint(codePoint);
+  }
+  return text;
+}
@@ -0,0 +1,59 @@
+import { Comment } from './types';
+
+export interface CommentStreamHandlers {
+  onCreated?: (comment: Comment) => void;
+  onUpdated?: (comment: Comment) => void;
+  onDeleted?: (id: number) => void;
+  // Called when events may have been missed (server-side overflow or a reconnect); reload the page's comments.
+  onResync?: () => void;
+}
+
+export type EventSourceFactory = (url: string) => EventSource;
+
+/**
+ * Subscribes to comment changes for one page over Server-Sent Events.
+ * The browser reconnects on its own; every reconnect after the first open is treated as a resync.
+ */
+export class CommentStream {
+  private source: EventSource | null = null;
+  private opened = false;
+
+  constructor(
+    private readonly baseURL: string,
+    private readonly pageUrl: string,
+    private readonly handlers: CommentStreamHandlers,
+    private readonly factory: EventSourceFactory = (url) => new EventSource(url),
+  ) {}
+
+  open(): void {
+    if (this.source) {
+      return;
+    }
+    const url = `${this.baseURL}/api/comments/stream?url=${encodeURIComponent(this.pageUrl)}`;
+    const source = this.factory(url);
+
+    source.onopen = () => {
+      if (this.opened) {
+        this.handlers.onResync?.();
+      }
+      this.opened = true;
+    };
+    source.addEventListener('created', (event) => this.handlers.onCreated?.(this.parse(event)));
+    source.addEventListener('updated', (event) => this.handlers.onUpdated?.(this.parse(event)));
+    source.addEventListener('deleted', (event) => this.handlers.onDeleted?.(this.parse(event).id));
+    source.addEventListener('resync', () => this.handlers.onResync?.());
+    this.source = source;
+  }
+
+  close(): void {
+    this.source?.close();
+    this.source = null;
+    this.opened = false;
+  }
+
+  private parse(event: Event): any {
+    return JSON.parse((event as MessageEvent).data);
+  }
+}
+
+export default CommentStream;
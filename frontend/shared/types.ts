@@ -15,6 +15,133 @@ export interface Comment {
   updatedAt?: string;
   resolution?: string;
   assignedTo?: string;
+  version?: number;
+}
+
+export interface PageOptions {
+  cursor?: string;
+  limit?: number;
+}
+
+// One keyset-paginated slice; nextCursor is absent on the last page.
+export interface CommentPage<T = Comment> {
+  items: T[];
+  nextCursor?: string;
+}
+
+// Pin-drawing fields returned by list endpoints with view=summary.
+export interface CommentSummary {
+  id: number;
+  positionX: number;
+  positionY: number;
+  status?: CommentStatus;
+  priority?: CommentPriority;
+}
+
+// Page-coordinate rectangle, inclusive on all edges.
+export interface ViewportBounds {
+  minX: number;
+  minY: number;
+  maxX: number;
+  maxY: number;
+}
+
+// Pins merged into one grid cell, drawn at their centroid; commentId is set for single-pin cells.
+export interface PinCluster {
+  x: number;
+  y: number;
+  count: number;
+  commentId?: number;
+}
+
+// Either pins or, when a cluster level was requested, clusters. truncated: more pins matched than returned.
+export interface Viewport {
+  pins: CommentSummary[];
+  clusters: PinCluster[];
+  truncated: boolean;
+}
+
+export interface SearchOptions {
+  status?: CommentStatus;
+  priority?: CommentPriority;
+  page?: number;
+  size?: number;
+}
+
+// Ranked full-text search results, best match first; total counts every match.
+export interface CommentSearchResult {
+  total: number;
+  hits: Array<{ comment: Comment; score: number }>;
+}
+
+// Dashboard counts; missing status, priority or category values are counted under 'NONE'.
+export interface CommentStats {
+  total: number;
+  byStatus: Record<string, number>;
+  byPriority: Record<string, number>;
+  byCategory: Record<string, number>;
+  byAssignee: Record<string, number>;
+  facets: Array<{ status: string; priority: string; category: string; count: number }>;
+  reconciledAt?: string;
+}
+
+export interface PageCommentStats {
+  total: number;
+  byStatus: Record<string, number>;
+}
+
+// Stored screenshot; url goes into Comment.screenshotUrl. The thumbnail may 404 briefly after upload.
+export interface ScreenshotUpload {
+  hash: string;
+  size: number;
+  contentType: string;
+  url: string;
+  thumbnailUrl: string;
+  duplicate: boolean;
+}
+
+// Background bulk delete or archival run; poll getJob until state is COMPLETED or FAILED.
+export interface MaintenanceJob {
+  id: string;
+  type: 'BULK_DELETE' | 'ARCHIVE';
+  criteria: Record<string, string>;
+  state: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+  total: number;
+  processed: number;
+  createdAt: string;
+  finishedAt?: string;
+  error?: string;
+}
+
+// One call of GET /api/comments/changes: apply changed and deleted, keep token, call again while hasMore.
+export interface CommentChanges {
+  changed: Comment[];
+  deleted: number[];
+  token: string;
+  hasMore: boolean;
+}
+
+export interface ChangesOptions {
+  since?: string;
+  pageUrl?: string;
+  limit?: number;
+}
+
+// Local copy of the comments (of one page when pageUrl is set) kept current by ApiClient.syncComments.
+export interface CommentReplica {
+  pageUrl?: string;
+  token?: string;
+  comments: Map<number, Comment>;
+}
+
+export type BatchItemStatus = 'CREATED' | 'UPDATED' | 'DELETED' | 'NOT_FOUND' | 'INVALID';
+
+// Per-item outcome of a batch call; index is the item's position in the request.
+export interface BatchItemResult {
+  index: number;
+  id?: number;
+  status: BatchItemStatus;
+  error?: string;
 }
 
 export enum CommentStatus {
@@ -43,6 +170,8 @@ export interface CommentPin {
   id: string;
   position: Position;
   comment: Comment;
+  // Set while only the summary is loaded; the full comment is fetched when the pin is opened.
+  partial?: boolean;
 }
 
 export interface Position {
@@ -55,4 +184,6 @@ export interface OverlayConfig {
   enableDebug?: boolean;
   theme?: 'light' | 'dark';
   position?: 'top-right' | 'top-left' | 'bottom-right' | 'bottom-left';
+  // Load comments as CBOR instead of JSON (see ApiClientOptions.binary).
+  binary?: boolean;
 }